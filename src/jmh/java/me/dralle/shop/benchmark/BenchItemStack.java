@@ -0,0 +1,72 @@
+package me.dralle.shop.benchmark;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Server-free stand-in for a CraftItemStack: a type plus an opaque meta key compared by {@link #isSimilar}.
+ * It serializes itself instead of going through the server's item codec, so it survives a round trip
+ * through {@link me.dralle.shop.util.ShopItemUtil#serializeItemStack} and {@code deserializeItemStack}.
+ */
+public final class BenchItemStack extends ItemStack {
+
+    static {
+        ConfigurationSerialization.registerClass(BenchItemStack.class);
+    }
+
+    private final Material type;
+    private final String metaKey;
+
+    BenchItemStack(Material type, String metaKey) {
+        this.type = type;
+        this.metaKey = metaKey;
+    }
+
+    public static BenchItemStack deserialize(Map<String, Object> args) {
+        return new BenchItemStack(Material.valueOf((String) args.get("type")), (String) args.get("meta"));
+    }
+
+    @Override
+    public Map<String, Object> serialize() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("type", type.name());
+        if (metaKey != null) out.put("meta", metaKey);
+        return out;
+    }
+
+    @Override
+    public Material getType() {
+        return type;
+    }
+
+    @Override
+    public boolean hasItemMeta() {
+        return metaKey != null;
+    }
+
+    @Override
+    public ItemMeta getItemMeta() {
+        return null;
+    }
+
+    @Override
+    public boolean isSimilar(ItemStack stack) {
+        return stack instanceof BenchItemStack other && other.type == type && Objects.equals(other.metaKey, metaKey);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof BenchItemStack other && isSimilar(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, metaKey);
+    }
+}
@@ -0,0 +1,116 @@
+package me.dralle.shop.benchmark;
+
+import me.dralle.shop.ShopFileManager;
+import me.dralle.shop.ShopManager;
+import me.dralle.shop.ShopPlugin;
+import me.dralle.shop.data.ShopStateRepository;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mocked Bukkit/plugin wiring shared by the benchmarks. Nothing here needs a running server.
+ */
+final class BenchmarkSupport {
+
+    static final String[] MATERIALS = {
+            "DIAMOND", "EMERALD", "IRON_INGOT", "GOLD_INGOT", "COAL", "REDSTONE", "LAPIS_LAZULI", "QUARTZ",
+            "COBBLESTONE", "STONE", "DIRT", "SAND", "GRAVEL", "OAK_LOG", "SPRUCE_LOG", "BIRCH_LOG",
+            "WHEAT", "CARROT", "POTATO", "BEETROOT", "MELON_SLICE", "PUMPKIN", "SUGAR_CANE", "CACTUS",
+            "ROTTEN_FLESH", "BONE", "STRING", "SPIDER_EYE", "GUNPOWDER", "ENDER_PEARL", "BLAZE_ROD", "SLIME_BALL",
+            "OBSIDIAN", "GLOWSTONE_DUST", "NETHERRACK", "SOUL_SAND", "PRISMARINE_SHARD", "LEATHER", "FEATHER", "EGG"
+    };
+
+    private static final Logger LOGGER = Logger.getLogger("GeniusShop-Benchmark");
+
+    private BenchmarkSupport() {
+    }
+
+    static void installServer() {
+        if (Bukkit.getServer() != null) return;
+        Server server = mock(Server.class);
+        when(server.getLogger()).thenReturn(LOGGER);
+        when(server.getConsoleSender()).thenReturn(mock(ConsoleCommandSender.class));
+        Bukkit.setServer(server);
+    }
+
+    static ShopPlugin plugin(File dataFolder, FileConfiguration config, ShopStateRepository repository) {
+        installServer();
+        ShopPlugin plugin = mock(ShopPlugin.class);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getLogger()).thenReturn(LOGGER);
+        when(plugin.getStateRepository()).thenReturn(repository);
+        return plugin;
+    }
+
+    /**
+     * Compiles {@code totalItems} sellable items spread over shops of 45 items each,
+     * cycling through {@link #MATERIALS} so every material appears in many shops.
+     */
+    static ShopManager shopManager(ShopPlugin plugin, int totalItems) {
+        Map<String, FileConfiguration> shops = new LinkedHashMap<>();
+        int perShop = 45;
+        for (int start = 0, shopIndex = 0; start < totalItems; start += perShop, shopIndex++) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int i = start; i < Math.min(totalItems, start + perShop); i++) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("material", MATERIALS[i % MATERIALS.length]);
+                item.put("price", 10D + i);
+                item.put("sell-price", 1D + (i % 97));
+                item.put("slot", i - start);
+                if (i % 5 == 0) {
+                    item.put("dynamic-pricing", true);
+                    item.put("price-change", 0.01D);
+                    item.put("sell-price-formula", "max(0.5, dynamic - count * 0.001)");
+                }
+                items.add(item);
+            }
+            YamlConfiguration shop = new YamlConfiguration();
+            shop.set("gui-name", "&8Shop " + shopIndex);
+            shop.set("rows", 6);
+            shop.set("items", items);
+            shops.put("shop" + shopIndex, shop);
+        }
+
+        ShopFileManager files = mock(ShopFileManager.class);
+        when(files.getShopFiles()).thenReturn(shops.keySet().stream().map(key -> new File(key + ".yml")).toList());
+        when(files.getShopKeys()).thenReturn(shops.keySet());
+        when(files.getShopConfig(anyString())).thenAnswer(call -> shops.get(call.<String>getArgument(0)));
+        when(plugin.getShopFileManager()).thenReturn(files);
+        // The mock has no plugin description to fingerprint, and a snapshot would skip the compile
+        plugin.getConfig().set("catalog-snapshot", false);
+        return new ShopManager(plugin);
+    }
+
+    static Path tempDirectory() throws IOException {
+        return Files.createTempDirectory("geniusshop-bench");
+    }
+
+    static void deleteRecursively(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) return;
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package me.dralle.shop.benchmark;
+
+import me.dralle.shop.util.ShopItemUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ShopItemUtil#color(String)} on typical lore and title lines. {@code cached} repeats one line,
+ * as static config lines do; {@code uncached} cycles through more distinct lines than the memo holds,
+ * as lines with per-player values substituted in do, so every call renders and inserts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColorBenchmark {
+
+    private static final Map<String, String> LINES = Map.of(
+            "legacy", "&7Price: &a$%price% &8| &7Stock: &e%stock%",
+            "hex", "&#FFAA00Sell price: &#55FF55$%sell-price% &#AAAAAA(each)",
+            "gradient", "&l<gradient:#FF5555:#FFAA00:#FFFF55>Limited Time Offer - Diamond Bundle</gradient>"
+    );
+
+    // Well above the two 2048-entry memo generations, so a line has always been evicted by the time it comes round again
+    private static final int DISTINCT_LINES = 16384;
+
+    @Param({"legacy", "hex", "gradient"})
+    public String line;
+
+    private String[] variants;
+    private int next;
+
+    @Setup
+    public void setup() {
+        String template = LINES.get(line);
+        variants = new String[DISTINCT_LINES];
+        for (int i = 0; i < DISTINCT_LINES; i++) {
+            variants[i] = template + " &8#" + i;
+        }
+    }
+
+    @Benchmark
+    public String cached() {
+        return ShopItemUtil.color(LINES.get(line));
+    }
+
+    @Benchmark
+    public String uncached() {
+        String text = variants[next];
+        next = (next + 1) & (DISTINCT_LINES - 1);
+        return ShopItemUtil.color(text);
+    }
+}
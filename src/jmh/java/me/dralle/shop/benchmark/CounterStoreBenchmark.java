@@ -0,0 +1,95 @@
+package me.dralle.shop.benchmark;
+
+import me.dralle.shop.ShopPlugin;
+import me.dralle.shop.data.DataManager;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DataManager} counter increments and the periodic flush, against a real SQLite file
+ * in a temporary folder. With write-behind the flush only hands the changes to the writer thread,
+ * which is what the server thread pays for.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CounterStoreBenchmark {
+
+    private static final int PLAYERS = 200;
+    private static final int ITEMS = 500;
+
+    @Param({"true", "false"})
+    public boolean writeBehind;
+
+    @Param({"1000"})
+    public int changesPerFlush;
+
+    private Path folder;
+    private DataManager dataManager;
+    private UUID[] players;
+    private String[] itemKeys;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        folder = BenchmarkSupport.tempDirectory();
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("data.write-behind.enabled", writeBehind);
+        config.set("data.transactions.enabled", false);
+        ShopPlugin plugin = BenchmarkSupport.plugin(folder.toFile(), config, null);
+        dataManager = new DataManager(plugin);
+
+        players = new UUID[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) players[i] = UUID.randomUUID();
+        itemKeys = new String[ITEMS];
+        for (int i = 0; i < ITEMS; i++) itemKeys[i] = BenchmarkSupport.MATERIALS[i % BenchmarkSupport.MATERIALS.length] + "_" + i;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dataManager.close();
+        BenchmarkSupport.deleteRecursively(folder);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Threads(4)
+    public void incrementCounters() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String itemKey = itemKeys[random.nextInt(ITEMS)];
+        dataManager.incrementPlayerCount(players[random.nextInt(PLAYERS)], itemKey, 1);
+        dataManager.incrementGlobalCount(itemKey, 1);
+    }
+
+    @Benchmark
+    public void incrementAndFlush() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < changesPerFlush; i++) {
+            String itemKey = itemKeys[random.nextInt(ITEMS)];
+            dataManager.incrementPlayerCount(players[random.nextInt(PLAYERS)], itemKey, 1);
+            dataManager.incrementGlobalCount(itemKey, 1);
+        }
+        dataManager.save();
+    }
+}
@@ -0,0 +1,92 @@
+package me.dralle.shop.benchmark;
+
+import me.dralle.shop.model.ShopItem;
+import me.dralle.shop.util.ShopItemUtil;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ShopItemUtil#isSameItem(ItemStack, ShopItem)} for plain items and for items carrying
+ * exported {@code item-stack} data, each against a matching and a non-matching stack.
+ * The item-stack data is real serialized output; it is decoded once in setup, which is the
+ * state every lookup after the first one sees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemMatchBenchmark {
+
+    private ShopItem plainItem;
+    private ShopItem templateItem;
+    private ItemStack plainMatch;
+    private ItemStack plainMismatch;
+    private ItemStack templateMatch;
+    private ItemStack templateMismatch;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.installServer();
+        String itemStackData = ShopItemUtil.serializeItemStack(new BenchItemStack(Material.EMERALD, "custom-meta"));
+        plainItem = item(Material.DIAMOND, "");
+        templateItem = item(Material.EMERALD, itemStackData);
+        if (templateItem.getTemplateStack() == null) {
+            throw new IllegalStateException("item-stack data did not decode; the benchmark would measure the fallback path");
+        }
+
+        plainMatch = new BenchItemStack(Material.DIAMOND, null);
+        plainMismatch = new BenchItemStack(Material.GOLD_INGOT, null);
+        templateMatch = new BenchItemStack(Material.EMERALD, "custom-meta");
+        templateMismatch = new BenchItemStack(Material.EMERALD, "other-meta");
+    }
+
+    private static ShopItem item(Material material, String itemStackData) {
+        return new ShopItem(
+                material, 10D, 1, null, null, null, 0, null, null, itemStackData,
+                null, List.of(), 5D, true, true, Map.of(),
+                false, false, false, false, false, 0, 0,
+                false, 0D, 0D, 0D, "", "",
+                List.of(), "console", false, "",
+                false, "", null,
+                0, 0, "", List.of(), List.of(), List.of(),
+                null, null, null, false, false,
+                "", "", false, null, 0
+        );
+    }
+
+    @Benchmark
+    public boolean withoutItemStackDataMatch() {
+        return ShopItemUtil.isSameItem(plainMatch, plainItem);
+    }
+
+    @Benchmark
+    public boolean withoutItemStackDataMismatch() {
+        return ShopItemUtil.isSameItem(plainMismatch, plainItem);
+    }
+
+    @Benchmark
+    public boolean withItemStackDataMatch() {
+        return ShopItemUtil.isSameItem(templateMatch, templateItem);
+    }
+
+    @Benchmark
+    public boolean withItemStackDataMismatch() {
+        return ShopItemUtil.isSameItem(templateMismatch, templateItem);
+    }
+}
@@ -0,0 +1,84 @@
+package me.dralle.shop.benchmark;
+
+import me.dralle.shop.util.PriceFormulaUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpreter vs. hidden-class bytecode for price formulas, both through the
+ * {@code double[]} context and through the {@code Map} adapter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceFormulaBenchmark {
+
+    private static final Map<String, String> FORMULAS = Map.of(
+            "linear", "base + count * price_change",
+            "clamped", "max(min_price, min(max_price, dynamic * (1 + count / 1000)))",
+            "heavy", "round(pow(base, 1.05) * (1 + abs(count - global_limit / 2) / (global_limit + 1)) * 100) / 100"
+                    + " + floor(amount * 0.5) - ceil(limit / 3)"
+    );
+
+    @Param({"interpreter", "bytecode"})
+    public String mode;
+
+    @Param({"linear", "clamped", "heavy"})
+    public String formula;
+
+    private String expression;
+    private PriceFormulaUtil.CompiledFormula compiled;
+    private double[] context;
+    private Map<String, Double> vars;
+
+    @Setup
+    public void setup() {
+        PriceFormulaUtil.setCompileMode(mode);
+        expression = FORMULAS.get(formula);
+        compiled = PriceFormulaUtil.compileFormula(expression);
+
+        vars = new HashMap<>();
+        vars.put("base", 100D);
+        vars.put("price", 100D);
+        vars.put("dynamic", 112.5D);
+        vars.put("count", 250D);
+        vars.put("price_change", 0.05D);
+        vars.put("min_price", 50D);
+        vars.put("max_price", 500D);
+        vars.put("amount", 16D);
+        vars.put("limit", 64D);
+        vars.put("global_limit", 10000D);
+
+        String[] names = compiled.variables();
+        context = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            context[i] = vars.getOrDefault(names[i], 0D);
+        }
+    }
+
+    @Benchmark
+    public double compiledContext() {
+        return compiled.evaluate(context);
+    }
+
+    @Benchmark
+    public Double mapAdapter() {
+        return PriceFormulaUtil.evaluateFormula(expression, vars);
+    }
+}
@@ -0,0 +1,62 @@
+package me.dralle.shop.benchmark;
+
+import me.dralle.shop.ShopManager;
+import me.dralle.shop.ShopPlugin;
+import me.dralle.shop.data.StripedCounterRepository;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ShopManager#getBestSellInfo(ItemStack)} over synthetic catalogs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SellLookupBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int catalogSize;
+
+    private ShopManager shopManager;
+    private ItemStack sold;
+    private ItemStack notSold;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ShopPlugin plugin = BenchmarkSupport.plugin(null, new YamlConfiguration(), new StripedCounterRepository());
+        shopManager = BenchmarkSupport.shopManager(plugin, catalogSize);
+        sold = new BenchItemStack(Material.DIAMOND, null);
+        notSold = new BenchItemStack(Material.BEDROCK, null);
+        if (shopManager.getBestSellInfo(sold) == null) {
+            throw new IllegalStateException("no shop sells DIAMOND; the benchmark would measure a miss");
+        }
+    }
+
+    @Benchmark
+    public ShopManager.SellInfo matchingStack() {
+        return shopManager.getBestSellInfo(sold);
+    }
+
+    @Benchmark
+    public ShopManager.SellInfo unsellableStack() {
+        return shopManager.getBestSellInfo(notSold);
+    }
+}
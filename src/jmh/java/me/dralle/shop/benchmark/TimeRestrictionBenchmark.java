@@ -0,0 +1,48 @@
+package me.dralle.shop.benchmark;
+
+import me.dralle.shop.util.ShopTimeUtil;
+import me.dralle.shop.util.TimeRestriction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ShopTimeUtil#isShopAvailable(List)}, which parses on every call, against the
+ * {@link TimeRestriction} compiled once per shop and item.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeRestrictionBenchmark {
+
+    private final List<String> restrictions = List.of("8:00AM-11:30PM", "mon-sat", "Jan-Dec", "2024-2035");
+    private TimeRestriction compiled;
+
+    @Setup
+    public void setup() {
+        compiled = ShopTimeUtil.compile(restrictions);
+    }
+
+    @Benchmark
+    public boolean isShopAvailable() {
+        return ShopTimeUtil.isShopAvailable(restrictions);
+    }
+
+    @Benchmark
+    public boolean compiledIsOpen() {
+        return compiled.isOpen();
+    }
+}
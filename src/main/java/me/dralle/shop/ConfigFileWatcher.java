@@ -0,0 +1,260 @@
+package me.dralle.shop;
+
+import me.dralle.shop.util.ConsoleLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional auto-reload for files changed outside the web editor (e.g. by deploys).
+ * Watches shops/, menus/ and languages/, waits until writes have settled, then reloads only
+ * what changed on a background thread: changed shops go through {@link ShopPlugin#reloadShop(String)},
+ * so they are compiled and validated like on startup and swapped in with the catalog.
+ * Files the plugin wrote itself and already reloaded are skipped, see {@link #markWritten(File)}.
+ */
+public class ConfigFileWatcher {
+
+    private enum Folder { SHOPS, MENUS, LANGUAGES }
+
+    private record Stamp(long modified, long size) {
+        static Stamp of(File file) {
+            return new Stamp(file.lastModified(), file.length());
+        }
+    }
+
+    private final ShopPlugin plugin;
+    private final Map<WatchKey, Folder> watched = new HashMap<>();
+    // Last state the plugin itself left each file in; kept across restarts of the watcher
+    private final Map<Path, Stamp> selfWritten = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledExecutorService reloadExecutor;
+    private long debounceMs;
+
+    // Guarded by this; the flags are set when events were lost
+    private final Map<Path, Folder> changedFiles = new LinkedHashMap<>();
+    private boolean allShopsChanged;
+    private boolean menusChanged;
+    private boolean languagesChanged;
+    private ScheduledFuture<?> pendingReload;
+
+    public ConfigFileWatcher(ShopPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        stop();
+        if (!plugin.getConfig().getBoolean("auto-reload.enabled", false)) {
+            return;
+        }
+        debounceMs = Math.max(50L, plugin.getConfig().getLong("auto-reload.debounce-ms", 500L));
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            register(new File(plugin.getDataFolder(), "shops"), Folder.SHOPS);
+            register(new File(plugin.getDataFolder(), "menus"), Folder.MENUS);
+            register(new File(plugin.getDataFolder(), "languages"), Folder.LANGUAGES);
+        } catch (IOException e) {
+            ConsoleLog.warn(plugin, "Failed to start config auto-reload: " + e.getMessage());
+            stop();
+            return;
+        }
+
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "GeniusShop-AutoReload");
+            t.setDaemon(true);
+            return t;
+        });
+        watchThread = new Thread(this::watchLoop, "GeniusShop-FileWatcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        ConsoleLog.info(plugin, "Auto-reload is watching shops/, menus/ and languages/.");
+    }
+
+    public void stop() {
+        if (watchService != null) {
+            try {
+                // Ends the watch loop
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+            watchService = null;
+        }
+        watched.clear();
+        watchThread = null;
+        if (reloadExecutor != null) {
+            // Lets a running reload finish; interrupting it could abort file reads
+            reloadExecutor.shutdown();
+            reloadExecutor = null;
+        }
+        synchronized (this) {
+            pendingReload = null;
+            changedFiles.clear();
+            allShopsChanged = false;
+            menusChanged = false;
+            languagesChanged = false;
+        }
+    }
+
+    /**
+     * Records a file the plugin just wrote and reloads on its own, so its watch events are ignored.
+     * A later change from outside alters the modification time or size and is picked up again.
+     */
+    public void markWritten(File file) {
+        selfWritten.put(file.toPath().toAbsolutePath().normalize(), Stamp.of(file));
+    }
+
+    private boolean isSelfWritten(Path file) {
+        Stamp expected = selfWritten.get(file);
+        if (expected == null) return false;
+        if (expected.equals(Stamp.of(file.toFile()))) return true;
+        selfWritten.remove(file, expected);
+        return false;
+    }
+
+    private void register(File dir, Folder folder) throws IOException {
+        if (!dir.isDirectory()) return;
+        WatchKey key = dir.toPath().register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE
+        );
+        watched.put(key, folder);
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        Map<WatchKey, Folder> folders = new HashMap<>(watched);
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Folder folder = folders.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (folder != null) {
+                        record(folder, (Path) key.watchable(), event);
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // stop()
+        }
+    }
+
+    private synchronized void record(Folder folder, Path dir, WatchEvent<?> event) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            // Events were lost; reload everything in that folder
+            switch (folder) {
+                case SHOPS -> allShopsChanged = true;
+                case MENUS -> menusChanged = true;
+                case LANGUAGES -> languagesChanged = true;
+            }
+        } else {
+            String name = ((Path) event.context()).getFileName().toString();
+            if (!name.endsWith(".yml")) return;
+            changedFiles.put(dir.resolve(name).toAbsolutePath().normalize(), folder);
+        }
+
+        // Restart the quiet period on every write of a burst
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        ScheduledExecutorService executor = reloadExecutor;
+        if (executor == null) return;
+        try {
+            pendingReload = executor.schedule(this::reloadChanged, debounceMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // Stopping
+        }
+    }
+
+    private void reloadChanged() {
+        Map<Path, Folder> changed;
+        Set<String> shops = new LinkedHashSet<>();
+        boolean menus;
+        boolean languages;
+        synchronized (this) {
+            changed = new LinkedHashMap<>(changedFiles);
+            if (allShopsChanged) {
+                shops.addAll(plugin.getShopManager().getShopKeys());
+                File[] files = new File(plugin.getDataFolder(), "shops").listFiles((dir, name) -> name.endsWith(".yml"));
+                if (files != null) {
+                    for (File file : files) {
+                        shops.add(file.getName().replace(".yml", ""));
+                    }
+                }
+            }
+            menus = menusChanged;
+            languages = languagesChanged;
+            changedFiles.clear();
+            allShopsChanged = false;
+            menusChanged = false;
+            languagesChanged = false;
+            pendingReload = null;
+        }
+
+        // Checked after the quiet period, when the editor has recorded its own writes
+        for (Map.Entry<Path, Folder> entry : changed.entrySet()) {
+            if (isSelfWritten(entry.getKey())) continue;
+            switch (entry.getValue()) {
+                case SHOPS -> shops.add(entry.getKey().getFileName().toString().replace(".yml", ""));
+                case MENUS -> menus = true;
+                case LANGUAGES -> languages = true;
+            }
+        }
+
+        try {
+            for (String shopKey : shops) {
+                plugin.reloadShop(shopKey);
+            }
+            if (menus) {
+                plugin.reloadMenus();
+            }
+            if (languages) {
+                plugin.reloadMessages();
+            }
+            if (!shops.isEmpty() || menus || languages) {
+                ConsoleLog.info(plugin, "Auto-reloaded " + describe(shops, menus, languages) + ".");
+            }
+        } catch (Exception e) {
+            ConsoleLog.error(plugin, "Auto-reload failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static String describe(Set<String> shops, boolean menus, boolean languages) {
+        StringBuilder out = new StringBuilder();
+        if (!shops.isEmpty()) {
+            out.append(shops.size() == 1 ? "shop " : "shops ").append(String.join(", ", shops));
+        }
+        if (menus) {
+            if (out.length() > 0) out.append(", ");
+            out.append("menus");
+        }
+        if (languages) {
+            if (out.length() > 0) out.append(", ");
+            out.append("messages");
+        }
+        return out.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package me.dralle.shop;
 
 import me.dralle.shop.util.ConfigUpdater;
+import me.dralle.shop.util.ShopItemUtil;
 import me.dralle.shop.util.YamlUtil;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -9,17 +10,19 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.List;
 
 /**
  * Manages loading and migration of menu configuration files
  */
 public class MenuManager {
     private final ShopPlugin plugin;
-    private FileConfiguration mainMenuConfig;
-    private FileConfiguration purchaseMenuConfig;
-    private FileConfiguration sellMenuConfig;
-    private FileConfiguration bulkSellMenuConfig;
-    private FileConfiguration guiSettingsConfig;
+    // Volatile: the file watcher reloads these off the main thread
+    private volatile FileConfiguration mainMenuConfig;
+    private volatile FileConfiguration purchaseMenuConfig;
+    private volatile FileConfiguration sellMenuConfig;
+    private volatile FileConfiguration bulkSellMenuConfig;
+    private volatile FileConfiguration guiSettingsConfig;
 
     public MenuManager(ShopPlugin plugin) {
         this.plugin = plugin;
@@ -57,6 +60,7 @@ public class MenuManager {
         sellMenuConfig = YamlUtil.loadUtf8(new File(menusDir, "sell-menu.yml"));
         bulkSellMenuConfig = YamlUtil.loadUtf8(new File(menusDir, "bulk-sell-menu.yml"));
         guiSettingsConfig = YamlUtil.loadUtf8(new File(menusDir, "gui-settings.yml"));
+        prerenderStaticText();
 
         me.dralle.shop.util.ConsoleLog.info(plugin, "Menu configurations loaded successfully");
     }
@@ -293,14 +297,44 @@ public class MenuManager {
     }
 
     /**
-     * Reload all menu configurations
+     * Reload all menu configurations. Every file is parsed before any is published, so renders
+     * never mix old and new menus for longer than the assignments below.
      */
     public void reload() {
         File menusDir = new File(plugin.getDataFolder(), "menus");
-        mainMenuConfig = YamlUtil.loadUtf8(new File(menusDir, "main-menu.yml"));
-        purchaseMenuConfig = YamlUtil.loadUtf8(new File(menusDir, "purchase-menu.yml"));
-        sellMenuConfig = YamlUtil.loadUtf8(new File(menusDir, "sell-menu.yml"));
-        bulkSellMenuConfig = YamlUtil.loadUtf8(new File(menusDir, "bulk-sell-menu.yml"));
-        guiSettingsConfig = YamlUtil.loadUtf8(new File(menusDir, "gui-settings.yml"));
+        FileConfiguration mainMenu = YamlUtil.loadUtf8(new File(menusDir, "main-menu.yml"));
+        FileConfiguration purchaseMenu = YamlUtil.loadUtf8(new File(menusDir, "purchase-menu.yml"));
+        FileConfiguration sellMenu = YamlUtil.loadUtf8(new File(menusDir, "sell-menu.yml"));
+        FileConfiguration bulkSellMenu = YamlUtil.loadUtf8(new File(menusDir, "bulk-sell-menu.yml"));
+        FileConfiguration guiSettings = YamlUtil.loadUtf8(new File(menusDir, "gui-settings.yml"));
+        mainMenuConfig = mainMenu;
+        purchaseMenuConfig = purchaseMenu;
+        sellMenuConfig = sellMenu;
+        bulkSellMenuConfig = bulkSellMenu;
+        guiSettingsConfig = guiSettings;
+        prerenderStaticText();
+    }
+
+    /**
+     * Runs every text value of the menu files through the color memo once, so the first
+     * render of each menu does not pay for the regex passes.
+     */
+    private void prerenderStaticText() {
+        for (FileConfiguration config : new FileConfiguration[] {
+                mainMenuConfig, purchaseMenuConfig, sellMenuConfig, bulkSellMenuConfig, guiSettingsConfig
+        }) {
+            if (config == null) continue;
+            for (Object value : config.getValues(true).values()) {
+                if (value instanceof String text) {
+                    ShopItemUtil.color(text);
+                } else if (value instanceof List<?> list) {
+                    for (Object line : list) {
+                        if (line instanceof String text) {
+                            ShopItemUtil.color(text);
+                        }
+                    }
+                }
+            }
+        }
     }
 }
@@ -1,6 +1,8 @@
 package me.dralle.shop;
 
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import me.dralle.shop.util.ParallelCompile;
 import me.dralle.shop.util.YamlUtil;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -17,7 +19,10 @@ public class ShopFileManager {
 
     private final ShopPlugin plugin;
     private final File shopsFolder;
-    private final Map<String, FileConfiguration> shopConfigs = new LinkedHashMap<>();
+    private volatile List<File> shopFiles = List.of();
+    // Replaced, never mutated, so single-shop reloads can run off the main thread; null until first parsed
+    private volatile Map<String, FileConfiguration> shopConfigs;
+    private long lastParseNanos;
 
     public ShopFileManager(ShopPlugin plugin) {
         this.plugin = plugin;
@@ -36,8 +41,8 @@ public class ShopFileManager {
         // Copy default shop files if shops folder is empty
         copyDefaultShopFiles();
 
-        // Load all shop files
-        loadAllShops();
+        // Find all shop files
+        indexShopFiles();
     }
 
     /**
@@ -183,51 +188,154 @@ public class ShopFileManager {
     }
 
     /**
-     * Loads all shop files from the shops/ folder.
+     * Lists the shop files in file-name order. They are only parsed when first needed,
+     * so a start that loads the compiled catalog snapshot never parses YAML.
      */
-    private void loadAllShops() {
-        shopConfigs.clear();
-
-        File[] shopFiles = shopsFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (shopFiles == null || shopFiles.length == 0) {
+    private void indexShopFiles() {
+        File[] files = shopsFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null || files.length == 0) {
+            shopFiles = List.of();
             me.dralle.shop.util.ConsoleLog.warn(plugin, "No shop files found in shops/ folder!");
             return;
         }
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        shopFiles = List.of(files);
+    }
+
+    /**
+     * Parses all indexed shop files in parallel, keeping file-name order.
+     */
+    private void loadAllShops() {
+        long started = System.nanoTime();
+        Map<File, FileConfiguration> parsed = ParallelCompile.mapOrdered(
+                shopFiles,
+                ParallelCompile.threads(plugin.getConfig().getInt("catalog-compile-threads", 0)),
+                YamlUtil::loadUtf8
+        );
+        Map<String, FileConfiguration> loaded = new LinkedHashMap<>();
+        for (Map.Entry<File, FileConfiguration> entry : parsed.entrySet()) {
+            String shopKey = entry.getKey().getName().replace(".yml", "");
+            loaded.put(shopKey, entry.getValue());
+            plugin.debug("Loaded shop: " + shopKey + " from " + entry.getKey().getName());
+        }
+        shopConfigs = loaded;
+        lastParseNanos = System.nanoTime() - started;
+        if (!loaded.isEmpty()) {
+            me.dralle.shop.util.ConsoleLog.info(plugin, "Loaded " + loaded.size() + " shop file(s).");
+        }
+    }
 
-        for (File shopFile : shopFiles) {
-            String shopKey = shopFile.getName().replace(".yml", "");
-            FileConfiguration config = YamlUtil.loadUtf8(shopFile);
-            shopConfigs.put(shopKey, config);
-            me.dralle.shop.util.ConsoleLog.info(plugin, "Loaded shop: " + shopKey + " from " + shopFile.getName());
+    private Map<String, FileConfiguration> configs() {
+        Map<String, FileConfiguration> configs = shopConfigs;
+        if (configs == null) {
+            synchronized (this) {
+                if (shopConfigs == null) {
+                    loadAllShops();
+                }
+                configs = shopConfigs;
+            }
         }
+        return configs;
+    }
+
+    /**
+     * The shop files found when the folder was last listed, in file-name order.
+     */
+    public List<File> getShopFiles() {
+        return shopFiles;
+    }
+
+    /**
+     * Time spent reading and parsing the shop files, or 0 while they have not been parsed.
+     */
+    public long getLastParseNanos() {
+        return lastParseNanos;
+    }
+
+    /**
+     * Re-reads a single shop file from disk. A file that does not parse, or is empty (e.g. caught
+     * mid-write), leaves the stored configuration untouched.
+     *
+     * @return the fresh configuration, or null when the file does not exist
+     * @throws InvalidConfigurationException when the file is not valid YAML or is empty
+     */
+    public synchronized FileConfiguration reloadShop(String shopKey) throws IOException, InvalidConfigurationException {
+        File shopFile = new File(shopsFolder, shopKey + ".yml");
+        // Still null after a start from the snapshot; the other files stay unparsed until needed
+        Map<String, FileConfiguration> current = shopConfigs;
+        if (!shopFile.isFile()) {
+            indexShopFile(shopFile, false);
+            if (current != null && current.containsKey(shopKey)) {
+                Map<String, FileConfiguration> next = new LinkedHashMap<>(current);
+                next.remove(shopKey);
+                shopConfigs = next;
+            }
+            return null;
+        }
+        FileConfiguration config = YamlUtil.loadUtf8Strict(shopFile);
+        if (config.getKeys(false).isEmpty()) {
+            throw new InvalidConfigurationException("the file is empty");
+        }
+        indexShopFile(shopFile, true);
+        if (current != null) {
+            Map<String, FileConfiguration> next = new LinkedHashMap<>(current);
+            next.put(shopKey, config);
+            shopConfigs = next;
+        }
+        return config;
+    }
+
+    /**
+     * Adds or drops one file in the listing, keeping file-name order, so a later full parse sees it.
+     */
+    private void indexShopFile(File shopFile, boolean present) {
+        List<File> next = new ArrayList<>(shopFiles);
+        next.removeIf(file -> file.getName().equals(shopFile.getName()));
+        if (present) {
+            next.add(shopFile);
+            next.sort(Comparator.comparing(File::getName));
+        }
+        shopFiles = List.copyOf(next);
+    }
+
+    /**
+     * The shop key of a file directly inside the shops/ folder, or null for any other file.
+     */
+    public String shopKeyOf(File file) {
+        if (file == null || !file.getName().endsWith(".yml")) return null;
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent == null || !parent.equals(shopsFolder.getAbsoluteFile())) return null;
+        return file.getName().replace(".yml", "");
     }
 
     /**
      * Gets the configuration for a specific shop.
      */
     public FileConfiguration getShopConfig(String shopKey) {
-        return shopConfigs.get(shopKey);
+        return configs().get(shopKey);
     }
 
     /**
      * Gets all available shop keys.
      */
     public Set<String> getShopKeys() {
-        return shopConfigs.keySet();
+        return configs().keySet();
     }
 
     /**
      * Reloads all shop files from disk.
      */
-    public void reload() {
-        loadAllShops();
+    public synchronized void reload() {
+        indexShopFiles();
+        shopConfigs = null;
+        lastParseNanos = 0L;
     }
 
     /**
      * Saves a specific shop configuration to disk.
      */
     public void saveShop(String shopKey) throws IOException {
-        FileConfiguration config = shopConfigs.get(shopKey);
+        FileConfiguration config = configs().get(shopKey);
         if (config == null) {
             throw new IllegalArgumentException("Shop not found: " + shopKey);
         }
@@ -251,6 +359,10 @@ public class ShopFileManager {
         config.set("permission", permission);
         config.set("items", new ArrayList<>());
         YamlUtil.saveUtf8(config, shopFile);
-        shopConfigs.put(shopKey, config);
+        synchronized (this) {
+            Map<String, FileConfiguration> next = new LinkedHashMap<>(configs());
+            next.put(shopKey, config);
+            shopConfigs = next;
+        }
     }
 }
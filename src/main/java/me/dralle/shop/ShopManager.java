@@ -1,6 +1,8 @@
 package me.dralle.shop;
 
+import me.dralle.shop.config.CatalogSnapshot;
 import me.dralle.shop.config.CompiledShopCatalog;
+import me.dralle.shop.config.SellOfferIndex;
 import me.dralle.shop.config.ValidationMessage;
 import me.dralle.shop.model.ShopData;
 import me.dralle.shop.model.ShopCampaign;
@@ -8,6 +10,7 @@ import me.dralle.shop.model.ShopItem;
 import me.dralle.shop.stock.StockResetRule;
 import me.dralle.shop.util.CampaignUtil;
 import me.dralle.shop.util.ItemConditionUtil;
+import me.dralle.shop.util.ParallelCompile;
 import me.dralle.shop.util.PriceFormulaUtil;
 import me.dralle.shop.util.ShopItemUtil;
 import me.dralle.shop.util.ShopTimeUtil;
@@ -25,15 +28,18 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.io.File;
+import java.io.IOException;
 import java.time.Instant;
 
 public class ShopManager {
 
+    private static final String SNAPSHOT_FILE = "cache/catalog.bin";
+
     private final ShopPlugin plugin;
     private final Map<String, ShopData> shops = new LinkedHashMap<>();
     private final Map<String, ShopCampaign> globalCampaigns = new LinkedHashMap<>();
     private final List<ValidationMessage> validationMessages = new ArrayList<>();
-    private CompiledShopCatalog compiledCatalog;
+    private volatile CompiledShopCatalog compiledCatalog;
 
     public ShopManager(ShopPlugin plugin) {
         this.plugin = plugin;
@@ -41,64 +47,69 @@ public class ShopManager {
         ShopFileManager fileManager = plugin.getShopFileManager();
         loadGlobalCampaigns();
 
-        if (fileManager.getShopKeys().isEmpty()) {
+        if (fileManager.getShopFiles().isEmpty()) {
             me.dralle.shop.util.ConsoleLog.warn(plugin, "No shops found in shops/ folder!");
             return;
         }
 
-        for (String shopKey : fileManager.getShopKeys()) {
-            FileConfiguration shopConfig = fileManager.getShopConfig(shopKey);
-            if (shopConfig == null) continue;
-
-            String guiName = shopConfig.getString("gui-name", "&8Shop");
-            int rows = Math.max(1, shopConfig.getInt("rows", 4));
-
-            String permission = shopConfig.getString("permission", "");
-            if (permission.equalsIgnoreCase("null")) permission = "";
+        long started = System.nanoTime();
+        CatalogSnapshot snapshot = plugin.getConfig().getBoolean("catalog-snapshot", true)
+                ? new CatalogSnapshot(new File(plugin.getDataFolder(), SNAPSHOT_FILE))
+                : null;
+        byte[] fingerprint = snapshot != null ? fingerprintSources(fileManager) : null;
+        if (fingerprint != null && loadSnapshot(snapshot, fingerprint)) {
+            me.dralle.shop.util.ConsoleLog.info(plugin, "Loaded " + shops.size() + " shop(s) from the compiled catalog snapshot in "
+                    + millis(System.nanoTime() - started) + "ms");
+            logValidationSummary();
+            return;
+        }
 
-            // ----------------------------------------------------------
-            // Load time restrictions (optional)
-            // ----------------------------------------------------------
-            List<String> availableTimes = shopConfig.getStringList("available-times");
-            List<String> invalidTimes = ShopTimeUtil.validateRestrictions(availableTimes);
-            for (String invalid : invalidTimes) {
-                validationMessages.add(new ValidationMessage(
-                        ValidationMessage.Severity.WARNING,
-                        "shop:" + shopKey + ".available-times",
-                        "Invalid time restriction: " + invalid
-                ));
-                me.dralle.shop.util.ConsoleLog.warn(plugin, "Invalid 'available-times' in shop '" + shopKey + "': " + invalid);
-            }
+        List<String> shopKeys = new ArrayList<>(fileManager.getShopKeys()); // parses the files
+        long parseNanos = fileManager.getLastParseNanos();
+
+        // Shops compile independently; each collects its own messages, merged below in file order
+        int threads = ParallelCompile.threads(plugin.getConfig().getInt("catalog-compile-threads", 0));
+        long compileStart = System.nanoTime();
+        Map<String, CompiledShop> compiled = ParallelCompile.mapOrdered(
+                shopKeys,
+                threads,
+                shopKey -> {
+                    FileConfiguration shopConfig = fileManager.getShopConfig(shopKey);
+                    if (shopConfig == null) return null;
+                    List<ValidationMessage> messages = new ArrayList<>();
+                    return new CompiledShop(compileShop(shopKey, shopConfig, messages), messages);
+                }
+        );
+        for (Map.Entry<String, CompiledShop> entry : compiled.entrySet()) {
+            if (entry.getValue() == null) continue;
+            shops.put(entry.getKey(), entry.getValue().shop());
+            validationMessages.addAll(entry.getValue().messages());
+        }
 
-            // ----------------------------------------------------------
-            // Load shop items
-            // ----------------------------------------------------------
-            List<ShopItem> items = loadShopItems(shopConfig);
-
-            StockResetRule shopResetRule = parseShopResetRule(shopKey, shopConfig);
-            boolean shopSellAddsToStock = shopConfig.getBoolean("sell-adds-to-stock", false);
-            boolean shopAllowSellStockOverflow = shopConfig.getBoolean("allow-sell-stock-overflow", false);
-            Map<String, ShopCampaign> campaigns = parseShopCampaigns(shopConfig);
-            String campaignKey = shopConfig.getString("campaign", "");
-            if (campaignKey == null) campaignKey = "";
-            campaignKey = campaignKey.trim();
-
-            shops.put(shopKey, new ShopData(
-                    shopKey,
-                    guiName,
-                    rows,
-                    permission,
-                    items,
-                    availableTimes,
-                    shopResetRule,
-                    shopSellAddsToStock,
-                    shopAllowSellStockOverflow,
-                    campaigns,
-                    campaignKey
-            ));
+        long validateStart = System.nanoTime();
+        for (Map.Entry<String, ShopData> entry : shops.entrySet()) {
+            validateShop(entry.getKey(), entry.getValue(), validationMessages);
         }
-        runPostCompileValidation();
+
+        long indexStart = System.nanoTime();
         this.compiledCatalog = new CompiledShopCatalog(shops, validationMessages, Instant.now());
+        long indexEnd = System.nanoTime();
+
+        me.dralle.shop.util.ConsoleLog.info(plugin, "Compiled " + shops.size() + " shop(s) in "
+                + millis(parseNanos + indexEnd - compileStart) + "ms"
+                + " (parse " + millis(parseNanos)
+                + "ms, compile " + millis(validateStart - compileStart)
+                + "ms, validate " + millis(indexStart - validateStart)
+                + "ms, index " + millis(indexEnd - indexStart)
+                + "ms, " + threads + " thread(s))");
+        logValidationSummary();
+
+        if (fingerprint != null) {
+            saveSnapshot(snapshot, fingerprint);
+        }
+    }
+
+    private void logValidationSummary() {
         if (!validationMessages.isEmpty()) {
             long errors = validationMessages.stream().filter(m -> m.severity() == ValidationMessage.Severity.ERROR).count();
             long warns = validationMessages.stream().filter(m -> m.severity() == ValidationMessage.Severity.WARNING).count();
@@ -106,6 +117,162 @@ public class ShopManager {
         }
     }
 
+    /**
+     * Everything the compiled catalog is built from: the shop files and campaigns.yml.
+     */
+    private byte[] fingerprintSources(ShopFileManager fileManager) {
+        List<File> sources = new ArrayList<>(fileManager.getShopFiles());
+        sources.add(new File(plugin.getDataFolder(), "campaigns.yml"));
+        try {
+            return CatalogSnapshot.fingerprint(plugin.getDescription().getVersion(), sources);
+        } catch (IOException e) {
+            me.dralle.shop.util.ConsoleLog.warn(plugin, "Could not hash shop files, compiling without the catalog snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean loadSnapshot(CatalogSnapshot snapshot, byte[] fingerprint) {
+        CompiledShopCatalog cached;
+        try {
+            cached = snapshot.read(fingerprint);
+        } catch (IOException e) {
+            me.dralle.shop.util.ConsoleLog.warn(plugin, "Ignoring the compiled catalog snapshot: " + e.getMessage());
+            return false;
+        }
+        if (cached == null) {
+            plugin.debug("Shop files changed since the last compile; recompiling the catalog.");
+            return false;
+        }
+        shops.putAll(cached.shops());
+        validationMessages.addAll(cached.validationMessages());
+        this.compiledCatalog = cached;
+        return true;
+    }
+
+    private void saveSnapshot(CatalogSnapshot snapshot, byte[] fingerprint) {
+        long started = System.nanoTime();
+        try {
+            snapshot.write(fingerprint, compiledCatalog);
+            plugin.debug("Wrote the compiled catalog snapshot in " + millis(System.nanoTime() - started) + "ms");
+        } catch (IOException | RuntimeException e) {
+            // Next start simply compiles again
+            me.dralle.shop.util.ConsoleLog.warn(plugin, "Failed to write the compiled catalog snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recompiles one shop from its (already re-read) file and publishes a new catalog that shares
+     * every other shop's compiled data. Safe to call off the main thread; readers see either the old
+     * or the new catalog. Calls are serialized so concurrent saves cannot drop each other's changes.
+     * A shop that fails validation with an error is not published; the previous version stays live.
+     *
+     * @return the newly compiled shop, or null when it was rejected
+     */
+    public synchronized ShopData reloadShop(String shopKey, FileConfiguration shopConfig) {
+        CompiledShopCatalog current = compiledCatalog;
+        Map<String, ShopData> next = new LinkedHashMap<>(current != null ? current.shops() : shops);
+        List<ValidationMessage> messages = new ArrayList<>();
+        List<ValidationMessage> previousMessages = current != null ? current.validationMessages() : validationMessages;
+        for (ValidationMessage message : previousMessages) {
+            if (!isAboutShop(message, shopKey)) {
+                messages.add(message);
+            }
+        }
+
+        int previousCount = messages.size();
+        ShopData shop = compileShop(shopKey, shopConfig, messages);
+        validateShop(shopKey, shop, messages);
+        boolean rejected = false;
+        for (ValidationMessage message : messages.subList(previousCount, messages.size())) {
+            if (message.severity() == ValidationMessage.Severity.ERROR) {
+                me.dralle.shop.util.ConsoleLog.error(plugin, "[" + message.location() + "] " + message.message());
+                rejected = true;
+            }
+        }
+        if (rejected) return null;
+        next.put(shopKey, shop);
+
+        this.compiledCatalog = new CompiledShopCatalog(next, messages, Instant.now());
+        return shop;
+    }
+
+    /**
+     * Drops a shop whose file was deleted, publishing a catalog without it.
+     */
+    public synchronized void removeShop(String shopKey) {
+        CompiledShopCatalog current = compiledCatalog;
+        Map<String, ShopData> next = new LinkedHashMap<>(current != null ? current.shops() : shops);
+        if (next.remove(shopKey) == null) return;
+        List<ValidationMessage> messages = new ArrayList<>();
+        for (ValidationMessage message : current != null ? current.validationMessages() : validationMessages) {
+            if (!isAboutShop(message, shopKey)) {
+                messages.add(message);
+            }
+        }
+        this.compiledCatalog = new CompiledShopCatalog(next, messages, Instant.now());
+    }
+
+    private record CompiledShop(ShopData shop, List<ValidationMessage> messages) {}
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+
+    private static boolean isAboutShop(ValidationMessage message, String shopKey) {
+        String path = message.location();
+        String prefix = "shop:" + shopKey;
+        return path != null && (path.equals(prefix) || path.startsWith(prefix + "."));
+    }
+
+    private ShopData compileShop(String shopKey, FileConfiguration shopConfig, List<ValidationMessage> messages) {
+        String guiName = shopConfig.getString("gui-name", "&8Shop");
+        int rows = Math.max(1, shopConfig.getInt("rows", 4));
+
+        String permission = shopConfig.getString("permission", "");
+        if (permission.equalsIgnoreCase("null")) permission = "";
+
+        // ----------------------------------------------------------
+        // Load time restrictions (optional)
+        // ----------------------------------------------------------
+        List<String> availableTimes = shopConfig.getStringList("available-times");
+        List<String> invalidTimes = ShopTimeUtil.validateRestrictions(availableTimes);
+        for (String invalid : invalidTimes) {
+            messages.add(new ValidationMessage(
+                    ValidationMessage.Severity.WARNING,
+                    "shop:" + shopKey + ".available-times",
+                    "Invalid time restriction: " + invalid
+            ));
+            me.dralle.shop.util.ConsoleLog.warn(plugin, "Invalid 'available-times' in shop '" + shopKey + "': " + invalid);
+        }
+
+        // ----------------------------------------------------------
+        // Load shop items
+        // ----------------------------------------------------------
+        List<ShopItem> items = loadShopItems(shopConfig);
+
+        StockResetRule shopResetRule = parseShopResetRule(shopKey, shopConfig);
+        boolean shopSellAddsToStock = shopConfig.getBoolean("sell-adds-to-stock", false);
+        boolean shopAllowSellStockOverflow = shopConfig.getBoolean("allow-sell-stock-overflow", false);
+        Map<String, ShopCampaign> campaigns = parseShopCampaigns(shopConfig);
+        String campaignKey = shopConfig.getString("campaign", "");
+        if (campaignKey == null) campaignKey = "";
+        campaignKey = campaignKey.trim();
+
+        return new ShopData(
+                shopKey,
+                guiName,
+                rows,
+                permission,
+                items,
+                availableTimes,
+                shopResetRule,
+                shopSellAddsToStock,
+                shopAllowSellStockOverflow,
+                campaigns,
+                campaignKey
+        );
+    }
+
     /**
      * Loads shop items from a configuration section.
      */
@@ -261,12 +428,14 @@ public class ShopManager {
         String itemPermission = stringVal(map.get("permission"), "");
         boolean campaignEnabled = boolVal(map.get("campaign-enabled"), false);
         String campaignKey = stringVal(map.get("campaign"), "");
-        String campaignName = stringVal(map.get("campaign-name"), "");
-        String campaignStart = stringVal(map.get("campaign-start"), "");
-        String campaignEnd = stringVal(map.get("campaign-end"), "");
-        String campaignTimezone = stringVal(map.get("campaign-timezone"), "");
-        double campaignBuyMultiplier = doubleVal(map.get("campaign-buy-multiplier"), 1.0D);
-        double campaignSellMultiplier = doubleVal(map.get("campaign-sell-multiplier"), 1.0D);
+        ShopCampaign campaign = CampaignUtil.createCampaign(
+                "inline-item",
+                stringVal(map.get("campaign-name"), ""),
+                stringVal(map.get("campaign-start"), ""),
+                stringVal(map.get("campaign-end"), ""),
+                stringVal(map.get("campaign-timezone"), ""),
+                doubleVal(map.get("campaign-buy-multiplier"), 1.0D),
+                doubleVal(map.get("campaign-sell-multiplier"), 1.0D));
 
         int minPlayerLevel = intVal(map.get("min-player-level"), 0);
         int maxPlayerLevel = intVal(map.get("max-player-level"), 0);
@@ -330,12 +499,7 @@ public class ShopManager {
                 itemPermission,
                 campaignEnabled,
                 campaignKey,
-                campaignName,
-                campaignStart,
-                campaignEnd,
-                campaignTimezone,
-                campaignBuyMultiplier,
-                campaignSellMultiplier,
+                campaign,
                 minPlayerLevel,
                 maxPlayerLevel,
                 requiredGamemode,
@@ -372,7 +536,7 @@ public class ShopManager {
             double sellMultiplier = doubleVal(entry.get("sell-multiplier"), 1.0D);
             if (buyMultiplier <= 0D) buyMultiplier = 1.0D;
             if (sellMultiplier <= 0D) sellMultiplier = 1.0D;
-            out.put(key, new ShopCampaign(key, name, start, end, timezone, buyMultiplier, sellMultiplier));
+            out.put(key, CampaignUtil.createCampaign(key, name, start, end, timezone, buyMultiplier, sellMultiplier));
         }
 
         return out;
@@ -397,7 +561,7 @@ public class ShopManager {
             double sellMultiplier = doubleVal(entry.get("sell-multiplier"), 1.0D);
             if (buyMultiplier <= 0D) buyMultiplier = 1.0D;
             if (sellMultiplier <= 0D) sellMultiplier = 1.0D;
-            globalCampaigns.put(key, new ShopCampaign(key, name, start, end, timezone, buyMultiplier, sellMultiplier));
+            globalCampaigns.put(key, CampaignUtil.createCampaign(key, name, start, end, timezone, buyMultiplier, sellMultiplier));
         }
     }
 
@@ -620,52 +784,54 @@ public class ShopManager {
      * considering the player's permissions and shop availability.
      */
     public SellInfo getBestSellInfo(Player player, org.bukkit.inventory.ItemStack stack) {
-        ShopItem bestItem = null;
-        String bestShopKey = null;
+        CompiledShopCatalog catalog = compiledCatalog;
+        if (catalog == null || stack == null) return null;
+
+        SellOfferIndex.SellOffer best = null;
         double bestPrice = -1;
+        Map<String, Boolean> shopAllowed = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (SellOfferIndex.SellOffer offer : catalog.sellOffers().candidates(stack)) {
+            ShopData shop = offer.shop();
+            ShopItem si = offer.item();
+
+            // Shop-level permission and time restriction, evaluated once per shop
+            boolean allowed = shopAllowed.computeIfAbsent(offer.shopKey(), k -> isShopOpenFor(player, shop, now));
+            if (!allowed) continue;
+
+            // Item-level permission check
+            if (player != null && si.getPermission() != null && !si.getPermission().isEmpty()) {
+                if (!player.hasPermission(si.getPermission())) continue;
+            }
 
-        Map<String, ShopData> source = compiledCatalog != null ? compiledCatalog.shops() : shops;
-        for (Map.Entry<String, ShopData> entry : source.entrySet()) {
-            if (entry == null || entry.getValue() == null) continue;
-            ShopData shop = entry.getValue();
+            // Item-level time restriction check
+            if (!si.getTimeRestriction().isOpen(now)) continue;
 
-            // Permission check
-            if (player != null && shop.getPermission() != null && !shop.getPermission().isEmpty()) {
-                if (!player.hasPermission(shop.getPermission())) continue;
+            // Advanced conditions check
+            if (player != null) {
+                ItemConditionUtil.ConditionResult condition = ItemConditionUtil.check(plugin, player, si);
+                if (!condition.allowed()) continue;
             }
 
-            // Time restriction check
-            if (!ShopTimeUtil.isShopAvailable(shop.getAvailableTimes())) continue;
-
-            for (ShopItem si : shop.getItems()) {
-                if (si.getSellPrice() != null && si.getSellPrice() > 0) {
-                    // Item-level permission check
-                    if (player != null && si.getPermission() != null && !si.getPermission().isEmpty()) {
-                        if (!player.hasPermission(si.getPermission())) continue;
-                    }
-
-                    // Item-level time restriction check
-                    if (!ShopTimeUtil.isShopAvailable(si.getAvailableTimes())) continue;
-
-                    // Advanced conditions check
-                    if (player != null) {
-                        ItemConditionUtil.ConditionResult condition = ItemConditionUtil.check(plugin, player, si);
-                        if (!condition.allowed()) continue;
-                    }
-
-                    if (ShopItemUtil.isSameItem(stack, si)) {
-                        double candidatePrice = PriceFormulaUtil.resolveSellBasePrice(plugin, si);
-                        candidatePrice = CampaignUtil.applySellCampaign(shop, si, candidatePrice);
-                        if (candidatePrice > bestPrice) {
-                            bestPrice = candidatePrice;
-                            bestItem = si;
-                            bestShopKey = entry.getKey();
-                        }
-                    }
+            if (ShopItemUtil.isSameItem(stack, si)) {
+                double candidatePrice = PriceFormulaUtil.resolveSellBasePrice(plugin, si);
+                candidatePrice = CampaignUtil.applySellCampaign(shop, si, candidatePrice);
+                // Ties go to the offer listed first in the catalog
+                if (candidatePrice > bestPrice || (candidatePrice == bestPrice && best != null && offer.ordinal() < best.ordinal())) {
+                    bestPrice = candidatePrice;
+                    best = offer;
                 }
             }
         }
-        return bestItem != null ? new SellInfo(bestItem, bestShopKey) : null;
+        return best != null ? new SellInfo(best.item(), best.shopKey()) : null;
+    }
+
+    private boolean isShopOpenFor(Player player, ShopData shop, LocalDateTime now) {
+        if (player != null && shop.getPermission() != null && !shop.getPermission().isEmpty()) {
+            if (!player.hasPermission(shop.getPermission())) return false;
+        }
+        return shop.getTimeRestriction().isOpen(now);
     }
 
     public CompiledShopCatalog getCompiledCatalog() {
@@ -676,39 +842,35 @@ public class ShopManager {
         return compiledCatalog != null ? compiledCatalog.validationMessages() : List.copyOf(validationMessages);
     }
 
-    private void runPostCompileValidation() {
-        for (Map.Entry<String, ShopData> entry : shops.entrySet()) {
-            String shopKey = entry.getKey();
-            ShopData shop = entry.getValue();
-            if (shop == null) {
-                validationMessages.add(new ValidationMessage(
-                        ValidationMessage.Severity.ERROR,
-                        "shop:" + shopKey,
-                        "Shop data is null after compile."
+    private void validateShop(String shopKey, ShopData shop, List<ValidationMessage> messages) {
+        if (shop == null) {
+            messages.add(new ValidationMessage(
+                    ValidationMessage.Severity.ERROR,
+                    "shop:" + shopKey,
+                    "Shop data is null after compile."
+            ));
+            return;
+        }
+        Map<Integer, Integer> slotCounts = new HashMap<>();
+        for (ShopItem item : shop.getItems()) {
+            if (item == null || item.getSlot() == null) continue;
+            int slot = item.getSlot();
+            slotCounts.put(slot, slotCounts.getOrDefault(slot, 0) + 1);
+            if (slot < 0 || slot >= shop.getRows() * 9) {
+                messages.add(new ValidationMessage(
+                        ValidationMessage.Severity.WARNING,
+                        "shop:" + shopKey + ".item-slot",
+                        "Item slot " + slot + " is outside visible bounds for rows=" + shop.getRows()
                 ));
-                continue;
-            }
-            Map<Integer, Integer> slotCounts = new HashMap<>();
-            for (ShopItem item : shop.getItems()) {
-                if (item == null || item.getSlot() == null) continue;
-                int slot = item.getSlot();
-                slotCounts.put(slot, slotCounts.getOrDefault(slot, 0) + 1);
-                if (slot < 0 || slot >= shop.getRows() * 9) {
-                    validationMessages.add(new ValidationMessage(
-                            ValidationMessage.Severity.WARNING,
-                            "shop:" + shopKey + ".item-slot",
-                            "Item slot " + slot + " is outside visible bounds for rows=" + shop.getRows()
-                    ));
-                }
             }
-            for (Map.Entry<Integer, Integer> slotEntry : slotCounts.entrySet()) {
-                if (slotEntry.getValue() > 1) {
-                    validationMessages.add(new ValidationMessage(
-                            ValidationMessage.Severity.WARNING,
-                            "shop:" + shopKey + ".slot:" + slotEntry.getKey(),
-                            "Multiple items share slot " + slotEntry.getKey()
-                    ));
-                }
+        }
+        for (Map.Entry<Integer, Integer> slotEntry : slotCounts.entrySet()) {
+            if (slotEntry.getValue() > 1) {
+                messages.add(new ValidationMessage(
+                        ValidationMessage.Severity.WARNING,
+                        "shop:" + shopKey + ".slot:" + slotEntry.getKey(),
+                        "Multiple items share slot " + slotEntry.getKey()
+                ));
             }
         }
     }
@@ -3,6 +3,10 @@ package me.dralle.shop;
 import me.dralle.shop.data.DataManager;
 import me.dralle.shop.data.ShopStateRepository;
 import me.dralle.shop.economy.EconomyHook;
+import me.dralle.shop.economy.EconomySettlement;
+import me.dralle.shop.economy.PendingItemReturns;
+import me.dralle.shop.economy.EconomySafetySettings;
+import me.dralle.shop.economy.TransactionSafetyListener;
 import me.dralle.shop.gui.BulkSellMenu;
 import me.dralle.shop.gui.GenericShopGui;
 import me.dralle.shop.gui.MainMenu;
@@ -14,11 +18,13 @@ import me.dralle.shop.model.ShopData;
 import me.dralle.shop.stock.StockResetService;
 import me.dralle.shop.util.ConfigUpdater;
 import me.dralle.shop.util.ErrorFileLogger;
+import me.dralle.shop.util.PriceFormulaUtil;
 import me.dralle.shop.util.ShopItemUtil;
 import me.dralle.shop.util.UpdateChecker;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SimplePie;
 import org.bstats.charts.SingleLineChart;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.command.CommandSender;
@@ -43,24 +49,29 @@ public class ShopPlugin extends JavaPlugin {
 
     private static ShopPlugin instance;
 
-    private FileConfiguration messagesConfig;
+    private volatile FileConfiguration messagesConfig;
     private FileConfiguration guiConfig;  // Kept for backwards compatibility
     private FileConfiguration shopsConfig;
     private FileConfiguration discordConfig;
 
-    private MenuManager menuManager;  // New menu system
+    private volatile MenuManager menuManager;  // New menu system
     private MessageManager messages;
-    private ShopFileManager shopFileManager;
+    private volatile ShopFileManager shopFileManager;
     private DataManager dataManager;
-    private ShopManager shopManager;
+    private volatile ShopManager shopManager;
     private GenericShopGui genericShopGui;
     private BulkSellMenu bulkSellMenu;
     private EconomyHook economy;
+    private EconomySettlement economySettlement;
+    private PendingItemReturns pendingItemReturns;
+    private volatile EconomySafetySettings economySafetySettings;
     private MetricsWrapper metricsWrapper;
     private me.dralle.shop.util.DiscordWebhook discordWebhook;
     private me.dralle.shop.api.ConfigApiServer apiServer;
     private UpdateChecker updateChecker;
     private StockResetService stockResetService;
+    private me.dralle.shop.util.CampaignScheduler campaignScheduler;
+    private ConfigFileWatcher configFileWatcher;
     private ErrorFileLogger errorFileLogger;
     private int dataFlushTaskId = -1;
 
@@ -135,6 +146,7 @@ public class ShopPlugin extends JavaPlugin {
         // run smart updater on config first to get the language setting
         ConfigUpdater.update(this, "config.yml");
         reloadConfig();
+        reloadEconomySafetySettings();
         this.errorFileLogger = new ErrorFileLogger(this);
         this.errorFileLogger.startOrReload();
         
@@ -162,14 +174,18 @@ public class ShopPlugin extends JavaPlugin {
         this.messages = new MessageManager(this);
         this.dataManager = new DataManager(this);
         startDataFlushTask();
+        PriceFormulaUtil.setCompileMode(getConfig().getString("price-formulas.compile-mode", "interpreter"));
         this.shopFileManager = new ShopFileManager(this); // Initialize before ShopManager
         this.shopManager = new ShopManager(this);
         logCompileValidationSummary(this.shopManager);
         this.economy = new EconomyHook(this);
+        this.economySettlement = new EconomySettlement(this, economy);
+        this.pendingItemReturns = new PendingItemReturns(this);
         this.genericShopGui = new GenericShopGui(this);
         this.bulkSellMenu = new BulkSellMenu(this);
         this.discordWebhook = new me.dralle.shop.util.DiscordWebhook(this);
         this.stockResetService = new StockResetService(this);
+        this.campaignScheduler = new me.dralle.shop.util.CampaignScheduler(this);
 
         // listeners
         getServer().getPluginManager().registerEvents(new MainMenu(this), this);
@@ -178,11 +194,16 @@ public class ShopPlugin extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new PurchaseMenu(this), this);
         getServer().getPluginManager().registerEvents(new SellMenu(this), this);
         getServer().getPluginManager().registerEvents(new SpawnerPlaceListener(), this);
+        getServer().getPluginManager().registerEvents(new TransactionSafetyListener(), this);
+        getServer().getPluginManager().registerEvents(this.pendingItemReturns, this);
 
         this.updateChecker = new UpdateChecker(this, "genius-shop");
         this.updateChecker.checkForUpdates();
         getServer().getPluginManager().registerEvents(this.updateChecker, this);
         this.stockResetService.start();
+        this.campaignScheduler.start();
+        this.configFileWatcher = new ConfigFileWatcher(this);
+        this.configFileWatcher.start();
 
         // command /shop
         PluginCommand shopCommand = getCommand("shop");
@@ -597,12 +618,21 @@ public class ShopPlugin extends JavaPlugin {
         if (stockResetService != null) {
             stockResetService.stop();
         }
+        if (campaignScheduler != null) {
+            campaignScheduler.stop();
+        }
+        if (configFileWatcher != null) {
+            configFileWatcher.stop();
+        }
         if (apiServer != null) {
             apiServer.stop();
         }
         if (discordWebhook != null) {
             discordWebhook.shutdown();
         }
+        if (economySettlement != null) {
+            economySettlement.shutdown(5000L);
+        }
         if (dataManager != null) {
             dataManager.close();
         }
@@ -630,11 +660,14 @@ public class ShopPlugin extends JavaPlugin {
     /**
      * Reload everything from disk, re-apply new defaults (if enabled),
      * and rebuild managers so already-registered GUIs see new data.
+     * Serialized with {@link #reloadShop(String)} so a shop reload never lands on a replaced manager.
+     * Main thread only: it shuts down the economy settlement, which pays out and compensates there.
      */
-    public void reloadPlugin() {
+    public synchronized void reloadPlugin() {
         // smart updater
         ConfigUpdater.update(this, "config.yml");
         reloadConfig();
+        reloadEconomySafetySettings();
         if (this.errorFileLogger == null) {
             this.errorFileLogger = new ErrorFileLogger(this);
         }
@@ -653,12 +686,17 @@ public class ShopPlugin extends JavaPlugin {
 
         // rebuild managers
         this.messages = new MessageManager(this);
+        PriceFormulaUtil.setCompileMode(getConfig().getString("price-formulas.compile-mode", "interpreter"));
         this.shopFileManager = new ShopFileManager(this); // Reload shop files
         this.shopManager = new ShopManager(this);
         logCompileValidationSummary(this.shopManager);
 
-        // re-hook economy
+        // re-hook economy; pay out what the old provider still owes first
+        if (this.economySettlement != null) {
+            this.economySettlement.shutdown(5000L);
+        }
         this.economy = new EconomyHook(this);
+        this.economySettlement = new EconomySettlement(this, economy);
 
         // reinitialize Discord webhook
         if (this.discordWebhook != null) {
@@ -669,6 +707,14 @@ public class ShopPlugin extends JavaPlugin {
             this.stockResetService = new StockResetService(this);
         }
         this.stockResetService.start();
+        if (this.campaignScheduler == null) {
+            this.campaignScheduler = new me.dralle.shop.util.CampaignScheduler(this);
+        }
+        this.campaignScheduler.start();
+        if (this.configFileWatcher == null) {
+            this.configFileWatcher = new ConfigFileWatcher(this);
+        }
+        this.configFileWatcher.start();
         if (this.genericShopGui != null) {
             this.genericShopGui.requestRefresh();
         }
@@ -676,6 +722,41 @@ public class ShopPlugin extends JavaPlugin {
         me.dralle.shop.util.ConsoleLog.info(this, "Genius-Shop reloaded from disk.");
     }
 
+    /**
+     * Reloads a single shop file without rebuilding anything else. The shop is recompiled on the
+     * calling thread and published with the catalog swap; only its open pages re-render.
+     * A shop whose file is gone is removed from the catalog. A file that does not parse or fails
+     * validation with an error is logged and the previous version of the shop stays live.
+     * Waits for a running full reload.
+     */
+    public synchronized void reloadShop(String shopKey) {
+        long startedAt = System.nanoTime();
+        FileConfiguration shopConfig;
+        try {
+            shopConfig = shopFileManager.reloadShop(shopKey);
+        } catch (IOException | InvalidConfigurationException e) {
+            me.dralle.shop.util.ConsoleLog.error(this, "Could not reload shop '" + shopKey + "', keeping the previous version: "
+                    + e.getMessage());
+            return;
+        }
+        if (shopConfig == null) {
+            shopManager.removeShop(shopKey);
+        } else if (shopManager.reloadShop(shopKey, shopConfig) == null) {
+            me.dralle.shop.util.ConsoleLog.error(this, "Shop '" + shopKey + "' failed validation, keeping the previous version.");
+            return;
+        }
+        if (this.genericShopGui != null) {
+            this.genericShopGui.requestRefresh(shopKey);
+        }
+        getServer().getScheduler().runTask(this, () -> {
+            // Campaign boundaries may have moved with the shop
+            if (this.campaignScheduler != null) {
+                this.campaignScheduler.start();
+            }
+        });
+        debug("Reloaded shop '" + shopKey + "' in " + ((System.nanoTime() - startedAt) / 1_000_000L) + "ms");
+    }
+
     private void startDataFlushTask() {
         if (dataFlushTaskId != -1) {
             getServer().getScheduler().cancelTask(dataFlushTaskId);
@@ -688,7 +769,22 @@ public class ShopPlugin extends JavaPlugin {
         }, interval, interval);
     }
 
-    public void reloadAllConfigs() {
+    /**
+     * Re-reads the menu files and re-renders open shops; safe to call off the main thread.
+     * Serialized with {@link #reloadPlugin()}, which reloads the menus as well.
+     */
+    public synchronized void reloadMenus() {
+        this.menuManager.reload();
+        if (this.genericShopGui != null) {
+            this.genericShopGui.requestRefresh();
+        }
+    }
+
+    /**
+     * Re-reads the configured language file and swaps it in; safe to call off the main thread.
+     * Serialized with {@link #reloadPlugin()}, which reloads the messages as well.
+     */
+    public synchronized void reloadMessages() {
         String lang = getConfig().getString("language", "en_US");
         File langFile = new File(getDataFolder(), "languages/" + lang + ".yml");
         if (!langFile.exists()) {
@@ -696,6 +792,10 @@ public class ShopPlugin extends JavaPlugin {
             langFile = new File(getDataFolder(), "languages/en_US.yml");
         }
         this.messagesConfig = YamlConfiguration.loadConfiguration(langFile);
+    }
+
+    public void reloadAllConfigs() {
+        reloadMessages();
 
         // Load gui.yml only if it exists (legacy support - menu configs are now in menus/ folder)
         File guiFile = new File(getDataFolder(), "gui.yml");
@@ -877,6 +977,10 @@ public class ShopPlugin extends JavaPlugin {
         return shopManager;
     }
 
+    public ConfigFileWatcher getConfigFileWatcher() {
+        return configFileWatcher;
+    }
+
     public GenericShopGui getGenericShopGui() {
         return genericShopGui;
     }
@@ -889,6 +993,25 @@ public class ShopPlugin extends JavaPlugin {
         return economy;
     }
 
+    public EconomySettlement getEconomySettlement() {
+        return economySettlement;
+    }
+
+    public PendingItemReturns getPendingItemReturns() {
+        return pendingItemReturns;
+    }
+
+    public EconomySafetySettings getEconomySafetySettings() {
+        return economySafetySettings;
+    }
+
+    /**
+     * Recompiles the economy-safety settings from the current config and publishes them to the guards.
+     */
+    public void reloadEconomySafetySettings() {
+        this.economySafetySettings = EconomySafetySettings.from(getConfig());
+    }
+
     public me.dralle.shop.util.DiscordWebhook getDiscordWebhook() {
         return discordWebhook;
     }
@@ -1009,9 +1132,10 @@ public class ShopPlugin extends JavaPlugin {
 
     private void runPriceValidation(CommandSender sender) {
         final double hardMax = 1_000_000_000_000D;
-        final double configuredMaxUnit = getConfig().getDouble("economy-safety.max-unit-price", 0D);
-        final double configuredMaxTx = getConfig().getDouble("economy-safety.max-transaction-value", 0D);
-        final double maxBaseMultiplier = getConfig().getDouble("economy-safety.anti-spike.max-base-multiplier", 10.0D);
+        final EconomySafetySettings safety = getEconomySafetySettings();
+        final double configuredMaxUnit = safety.maxUnitPrice();
+        final double configuredMaxTx = safety.maxTransactionValue();
+        final double maxBaseMultiplier = safety.maxBaseMultiplier();
 
         int shopsScanned = 0;
         int itemsScanned = 0;
@@ -1,5 +1,6 @@
 package me.dralle.shop.api;
 
+import me.dralle.shop.ConfigFileWatcher;
 import me.dralle.shop.ShopPlugin;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -1043,8 +1044,10 @@ public class ConfigApiServer {
         setStringIfPresent(cfg, src, "adminNotifyPermission", "economy-safety.admin-alerts.notify-permission");
         setLongIfPresent(cfg, src, "adminAlertRateLimitMs", "economy-safety.admin-alerts.rate-limit-ms");
 
+        // Publish right away so transactions running during the reload already see the new limits
+        plugin.reloadEconomySafetySettings();
         plugin.saveConfig();
-        plugin.reloadPlugin();
+        reloadPluginOnMainThread();
         sendJsonResponse(exchange, 200, Map.of("success", true, "economySafety", getEconomySafetySettingsMap()));
     }
 
@@ -1242,6 +1245,20 @@ public class ConfigApiServer {
         }
     }
 
+    /**
+     * A full reload hands over the economy settlement, which must happen on the main thread.
+     */
+    private void reloadPluginOnMainThread() {
+        Bukkit.getScheduler().runTask(plugin, plugin::reloadPlugin);
+    }
+
+    private void markWritten(File file) {
+        ConfigFileWatcher watcher = plugin.getConfigFileWatcher();
+        if (watcher != null) {
+            watcher.markWritten(file);
+        }
+    }
+
     private void ensureTextFileExists(File file, String content) {
         if (file.exists()) return;
         try {
@@ -1333,8 +1350,9 @@ public class ConfigApiServer {
 
         String previousContent = readFileSafely(file);
 
-        // Save file
+        // Save file; the reload below covers it, so auto-reload should not pick it up again
         Files.writeString(file.toPath(), fileContent, StandardCharsets.UTF_8);
+        markWritten(file);
 
         String username = getSessionUsername(exchange);
         boolean existedBefore = previousContent != null;
@@ -1344,8 +1362,13 @@ public class ConfigApiServer {
             appendActivityEntry("updated", "file", username, fileName, previousContent, fileContent, null);
         }
 
-        // Reload plugin configuration
-        plugin.reloadPlugin();
+        // A shop file only needs that shop recompiled; anything else reloads the plugin
+        String shopKey = plugin.getShopFileManager().shopKeyOf(file);
+        if (shopKey != null) {
+            plugin.reloadShop(shopKey);
+        } else {
+            reloadPluginOnMainThread();
+        }
         
         sendResponse(exchange, 200, "{\"success\": true}");
     }
@@ -1542,6 +1565,7 @@ public class ConfigApiServer {
                 parent.mkdirs();
             }
             Files.writeString(file.toPath(), beforeContent, StandardCharsets.UTF_8);
+            markWritten(file);
             restoredContent = beforeContent;
             changed = true;
         }
@@ -1551,7 +1575,7 @@ public class ConfigApiServer {
             return;
         }
 
-        plugin.reloadPlugin();
+        reloadPluginOnMainThread();
 
         String username = getSessionUsername(exchange);
         Map<String, Object> extra = new HashMap<>();
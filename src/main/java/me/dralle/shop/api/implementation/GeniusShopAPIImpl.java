@@ -8,7 +8,6 @@ import me.dralle.shop.model.ShopData;
 import me.dralle.shop.model.ShopItem;
 import me.dralle.shop.util.PriceFormulaUtil;
 import me.dralle.shop.util.ShopItemUtil;
-import me.dralle.shop.util.ShopTimeUtil;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import java.util.Set;
@@ -131,10 +130,10 @@ public class GeniusShopAPIImpl implements GeniusShopAPI {
         }
 
         // Shop availability
-        if (!ShopTimeUtil.isShopAvailable(shop.getAvailableTimes())) return false;
+        if (!shop.getTimeRestriction().isOpen()) return false;
 
         // Item availability
-        return ShopTimeUtil.isShopAvailable(item.getAvailableTimes());
+        return item.getTimeRestriction().isOpen();
     }
 
     private double calculateBuyPrice(ShopItem item) {
@@ -0,0 +1,579 @@
+package me.dralle.shop.config;
+
+import me.dralle.shop.model.ShopCampaign;
+import me.dralle.shop.model.ShopData;
+import me.dralle.shop.model.ShopItem;
+import me.dralle.shop.stock.StockResetRule;
+import me.dralle.shop.util.CampaignUtil;
+import org.bukkit.Material;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary copy of a {@link CompiledShopCatalog}, written after a full compile and read back on the next
+ * start when the source files are unchanged. The snapshot stores the compiled constructor arguments, so
+ * loading it skips YAML parsing and item conversion but still builds the same model objects.
+ *
+ * <p>Layout: magic, format version, source fingerprint, payload length, payload CRC32, payload.
+ * Bump {@link #FORMAT_VERSION} whenever the payload changes shape.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x47534353; // "GSCS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FINGERPRINT_BYTES = 32;
+    private static final int HEADER_BYTES = 4 + 4 + FINGERPRINT_BYTES + 4 + 8;
+
+    private final Path path;
+
+    public CatalogSnapshot(File file) {
+        this.path = file.toPath();
+    }
+
+    /**
+     * SHA-256 over the plugin version and the name and content of every source file, in the given order.
+     * Missing files are hashed as absent, so creating one later changes the fingerprint.
+     */
+    public static byte[] fingerprint(String pluginVersion, List<File> sources) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(String.valueOf(pluginVersion).getBytes(StandardCharsets.UTF_8));
+        for (File source : sources) {
+            digest.update((byte) 0);
+            digest.update(source.getName().getBytes(StandardCharsets.UTF_8));
+            if (!source.isFile()) {
+                digest.update((byte) 0);
+                continue;
+            }
+            byte[] content = Files.readAllBytes(source.toPath());
+            digest.update((byte) 1);
+            digest.update(ByteBuffer.allocate(8).putLong(content.length).array());
+            digest.update(content);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Reads the snapshot onto the heap and decodes it. The file is small, and not mapping it keeps it
+     * free to be replaced on Windows while the server runs.
+     *
+     * @return the stored catalog, or null when there is no snapshot or it was written for other sources
+     * @throws IOException when the file exists but cannot be read or is damaged
+     */
+    public CompiledShopCatalog read(byte[] fingerprint) throws IOException {
+        if (!Files.isRegularFile(path)) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_BYTES) {
+            throw new IOException("snapshot is truncated");
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        byte[] stored = new byte[FINGERPRINT_BYTES];
+        buffer.get(stored);
+        if (!MessageDigest.isEqual(stored, fingerprint)) {
+            return null;
+        }
+
+        int payloadLength = buffer.getInt();
+        long expectedCrc = buffer.getLong();
+        if (payloadLength < 0 || payloadLength != buffer.remaining()) {
+            throw new IOException("snapshot is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if (crc.getValue() != expectedCrc) {
+            throw new IOException("snapshot checksum mismatch");
+        }
+
+        try {
+            return decode(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("snapshot could not be decoded: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the catalog next to the old snapshot and moves it into place, so a crash never leaves a
+     * half-written file behind.
+     */
+    public void write(byte[] fingerprint, CompiledShopCatalog catalog) throws IOException {
+        if (fingerprint.length != FINGERPRINT_BYTES) {
+            throw new IllegalArgumentException("Expected a SHA-256 fingerprint");
+        }
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        encode(payload, catalog);
+        payload.flush();
+        byte[] body = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).put(fingerprint).putInt(body.length).putLong(crc.getValue());
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            header.flip();
+            ByteBuffer data = ByteBuffer.wrap(body);
+            while (header.hasRemaining() || data.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, data});
+            }
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    // ------------------------------------------------------------------
+    // Encoding
+    // ------------------------------------------------------------------
+
+    private static void encode(DataOutputStream out, CompiledShopCatalog catalog) throws IOException {
+        out.writeLong(catalog.compiledAt().toEpochMilli());
+        out.writeInt(catalog.shops().size());
+        for (ShopData shop : catalog.shops().values()) {
+            writeShop(out, shop);
+        }
+        out.writeInt(catalog.validationMessages().size());
+        for (ValidationMessage message : catalog.validationMessages()) {
+            out.writeByte(message.severity().ordinal());
+            writeString(out, message.location());
+            writeString(out, message.message());
+        }
+    }
+
+    private static void writeShop(DataOutputStream out, ShopData shop) throws IOException {
+        writeString(out, shop.getKey());
+        writeString(out, shop.getGuiName());
+        out.writeInt(shop.getRows());
+        writeString(out, shop.getPermission());
+        writeStrings(out, shop.getAvailableTimes());
+        writeResetRule(out, shop.getStockResetRule());
+        out.writeBoolean(shop.isSellAddsToStock());
+        out.writeBoolean(shop.isAllowSellStockOverflow());
+        Map<String, ShopCampaign> campaigns = shop.getCampaigns();
+        out.writeInt(campaigns == null ? 0 : campaigns.size());
+        if (campaigns != null) {
+            for (Map.Entry<String, ShopCampaign> entry : campaigns.entrySet()) {
+                writeString(out, entry.getKey());
+                writeCampaign(out, entry.getValue());
+            }
+        }
+        writeString(out, shop.getCampaignKey());
+        List<ShopItem> items = shop.getItems();
+        out.writeInt(items == null ? 0 : items.size());
+        if (items != null) {
+            for (ShopItem item : items) {
+                writeItem(out, item);
+            }
+        }
+    }
+
+    private static void writeItem(DataOutputStream out, ShopItem item) throws IOException {
+        writeString(out, item.getMaterial().name());
+        out.writeDouble(item.getPrice());
+        out.writeInt(item.getAmount());
+        writeString(out, item.getSpawnerType());
+        writeString(out, item.getSpawnerItem());
+        writeString(out, item.getPotionType());
+        out.writeInt(item.getPotionLevel());
+        writeString(out, item.getHeadTexture());
+        writeString(out, item.getHeadOwner());
+        writeString(out, item.getItemStackData());
+        writeString(out, item.getName());
+        writeStrings(out, item.getLore());
+        writeNullableDouble(out, item.getSellPrice());
+        out.writeBoolean(item.isBuyPricePerItem());
+        out.writeBoolean(item.isSellPricePerItem());
+        Map<String, Integer> enchantments = item.getEnchantments();
+        out.writeInt(enchantments == null ? -1 : enchantments.size());
+        if (enchantments != null) {
+            for (Map.Entry<String, Integer> entry : enchantments.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue() == null ? 0 : entry.getValue());
+            }
+        }
+        out.writeBoolean(item.shouldHideAttributes());
+        out.writeBoolean(item.shouldHideAdditional());
+        out.writeBoolean(item.requiresName());
+        out.writeBoolean(item.requiresLore());
+        out.writeBoolean(item.isUnstableTnt());
+        out.writeInt(item.getLimit());
+        out.writeInt(item.getGlobalLimit());
+        out.writeBoolean(item.isDynamicPricing());
+        out.writeDouble(item.getMinPrice());
+        out.writeDouble(item.getMaxPrice());
+        out.writeDouble(item.getPriceChange());
+        writeString(out, item.getBuyPriceFormula());
+        writeString(out, item.getSellPriceFormula());
+        writeStrings(out, item.getCommands());
+        writeString(out, item.getRunAs());
+        out.writeBoolean(item.isRunCommandOnly());
+        writeString(out, item.getPermission());
+        out.writeBoolean(item.isCampaignEnabled());
+        writeString(out, item.getCampaignKey());
+        writeString(out, item.getCampaignName());
+        writeString(out, item.getCampaignStart());
+        writeString(out, item.getCampaignEnd());
+        writeString(out, item.getCampaignTimezone());
+        out.writeDouble(item.getCampaignBuyMultiplier());
+        out.writeDouble(item.getCampaignSellMultiplier());
+        out.writeInt(item.getMinPlayerLevel());
+        out.writeInt(item.getMaxPlayerLevel());
+        writeString(out, item.getRequiredGamemode());
+        writeStrings(out, item.getAllowedWorlds());
+        writeStrings(out, item.getDeniedWorlds());
+        writeStrings(out, item.getAvailableTimes());
+        writeResetRule(out, item.getStockResetRule());
+        writeNullableBoolean(out, item.getSellAddsToStock());
+        writeNullableBoolean(out, item.getAllowSellStockOverflow());
+        out.writeBoolean(item.isShowStock());
+        out.writeBoolean(item.isShowStockResetTimer());
+        writeString(out, item.getVariantKey());
+        writeString(out, item.getVariantGroupKey());
+        out.writeBoolean(item.isVariantMenuEnabled());
+        writeNullableInt(out, item.getVariantGroupSlot());
+        writeNullableInt(out, item.getSlot());
+    }
+
+    private static void writeCampaign(DataOutputStream out, ShopCampaign campaign) throws IOException {
+        writeString(out, campaign.getKey());
+        writeString(out, campaign.getName());
+        writeString(out, campaign.getStart());
+        writeString(out, campaign.getEnd());
+        writeString(out, campaign.getTimezone());
+        out.writeDouble(campaign.getBuyMultiplier());
+        out.writeDouble(campaign.getSellMultiplier());
+    }
+
+    private static void writeResetRule(DataOutputStream out, StockResetRule rule) throws IOException {
+        out.writeBoolean(rule != null);
+        if (rule == null) return;
+        out.writeBoolean(rule.isEnabled());
+        writeString(out, rule.getType() == null ? null : rule.getType().name());
+        writeString(out, rule.getZoneId() == null ? null : rule.getZoneId().getId());
+        writeString(out, rule.getTime() == null ? null : rule.getTime().toString());
+        writeString(out, rule.getDayOfWeek() == null ? null : rule.getDayOfWeek().name());
+        out.writeInt(rule.getDayOfMonth());
+        writeString(out, rule.getMonth() == null ? null : rule.getMonth().name());
+        out.writeInt(rule.getMonthDay());
+        writeString(out, rule.getOnceAt() == null ? null : rule.getOnceAt().toString());
+        out.writeInt(rule.getInterval());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values == null) return;
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeDouble(value);
+    }
+
+    private static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeInt(value);
+    }
+
+    private static void writeNullableBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : (value ? 1 : 0));
+    }
+
+    // ------------------------------------------------------------------
+    // Decoding
+    // ------------------------------------------------------------------
+
+    private static CompiledShopCatalog decode(ByteBuffer in) {
+        Instant compiledAt = Instant.ofEpochMilli(in.getLong());
+        int shopCount = count(in);
+        Map<String, ShopData> shops = new LinkedHashMap<>();
+        for (int i = 0; i < shopCount; i++) {
+            ShopData shop = readShop(in);
+            shops.put(shop.getKey(), shop);
+        }
+        int messageCount = count(in);
+        List<ValidationMessage> messages = new ArrayList<>(messageCount);
+        ValidationMessage.Severity[] severities = ValidationMessage.Severity.values();
+        for (int i = 0; i < messageCount; i++) {
+            ValidationMessage.Severity severity = severities[in.get()];
+            messages.add(new ValidationMessage(severity, readString(in), readString(in)));
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalStateException("trailing bytes");
+        }
+        return new CompiledShopCatalog(shops, messages, compiledAt);
+    }
+
+    private static ShopData readShop(ByteBuffer in) {
+        String key = readString(in);
+        String guiName = readString(in);
+        int rows = in.getInt();
+        String permission = readString(in);
+        List<String> availableTimes = readStrings(in);
+        StockResetRule resetRule = readResetRule(in);
+        boolean sellAddsToStock = readBoolean(in);
+        boolean allowSellStockOverflow = readBoolean(in);
+        int campaignCount = count(in);
+        Map<String, ShopCampaign> campaigns = new LinkedHashMap<>();
+        for (int i = 0; i < campaignCount; i++) {
+            String campaignKey = readString(in);
+            campaigns.put(campaignKey, readCampaign(in));
+        }
+        String campaignKey = readString(in);
+        int itemCount = count(in);
+        List<ShopItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(readItem(in));
+        }
+        return new ShopData(key, guiName, rows, permission, items, availableTimes, resetRule,
+                sellAddsToStock, allowSellStockOverflow, campaigns, campaignKey);
+    }
+
+    private static ShopItem readItem(ByteBuffer in) {
+        String materialName = readString(in);
+        Material material = materialName == null ? null : Material.getMaterial(materialName);
+        if (material == null) {
+            // Server update removed the material; recompile from YAML
+            throw new IllegalStateException("unknown material " + materialName);
+        }
+        double price = in.getDouble();
+        int amount = in.getInt();
+        String spawnerType = readString(in);
+        String spawnerItem = readString(in);
+        String potionType = readString(in);
+        int potionLevel = in.getInt();
+        String headTexture = readString(in);
+        String headOwner = readString(in);
+        String itemStackData = readString(in);
+        String name = readString(in);
+        List<String> lore = readStrings(in);
+        Double sellPrice = readBoolean(in) ? in.getDouble() : null;
+        boolean buyPricePerItem = readBoolean(in);
+        boolean sellPricePerItem = readBoolean(in);
+        int enchantmentCount = in.getInt();
+        Map<String, Integer> enchantments = null;
+        if (enchantmentCount >= 0) {
+            enchantments = new HashMap<>();
+            for (int i = 0; i < enchantmentCount; i++) {
+                enchantments.put(readString(in), in.getInt());
+            }
+        }
+        boolean hideAttributes = readBoolean(in);
+        boolean hideAdditional = readBoolean(in);
+        boolean requireName = readBoolean(in);
+        boolean requireLore = readBoolean(in);
+        boolean unstableTnt = readBoolean(in);
+        int limit = in.getInt();
+        int globalLimit = in.getInt();
+        boolean dynamicPricing = readBoolean(in);
+        double minPrice = in.getDouble();
+        double maxPrice = in.getDouble();
+        double priceChange = in.getDouble();
+        String buyPriceFormula = readString(in);
+        String sellPriceFormula = readString(in);
+        List<String> commands = readStrings(in);
+        String runAs = readString(in);
+        boolean runCommandOnly = readBoolean(in);
+        String permission = readString(in);
+        boolean campaignEnabled = readBoolean(in);
+        String campaignKey = readString(in);
+        ShopCampaign campaign = CampaignUtil.createCampaign("inline-item",
+                readString(in), readString(in), readString(in), readString(in), in.getDouble(), in.getDouble());
+        int minPlayerLevel = in.getInt();
+        int maxPlayerLevel = in.getInt();
+        String requiredGamemode = readString(in);
+        List<String> allowedWorlds = readStrings(in);
+        List<String> deniedWorlds = readStrings(in);
+        List<String> availableTimes = readStrings(in);
+        StockResetRule resetRule = readResetRule(in);
+        Boolean sellAddsToStock = readNullableBoolean(in);
+        Boolean allowSellStockOverflow = readNullableBoolean(in);
+        boolean showStock = readBoolean(in);
+        boolean showStockResetTimer = readBoolean(in);
+        String variantKey = readString(in);
+        String variantGroupKey = readString(in);
+        boolean variantMenuEnabled = readBoolean(in);
+        Integer variantGroupSlot = readBoolean(in) ? in.getInt() : null;
+        Integer slot = readBoolean(in) ? in.getInt() : null;
+
+        return new ShopItem(
+                material,
+                price,
+                amount,
+                spawnerType,
+                spawnerItem,
+                potionType,
+                potionLevel,
+                headTexture,
+                headOwner,
+                itemStackData,
+                name,
+                lore,
+                sellPrice,
+                buyPricePerItem,
+                sellPricePerItem,
+                enchantments,
+                hideAttributes,
+                hideAdditional,
+                requireName,
+                requireLore,
+                unstableTnt,
+                limit,
+                globalLimit,
+                dynamicPricing,
+                minPrice,
+                maxPrice,
+                priceChange,
+                buyPriceFormula,
+                sellPriceFormula,
+                commands,
+                runAs,
+                runCommandOnly,
+                permission,
+                campaignEnabled,
+                campaignKey,
+                campaign,
+                minPlayerLevel,
+                maxPlayerLevel,
+                requiredGamemode,
+                allowedWorlds,
+                deniedWorlds,
+                availableTimes,
+                resetRule,
+                sellAddsToStock,
+                allowSellStockOverflow,
+                showStock,
+                showStockResetTimer,
+                variantKey,
+                variantGroupKey,
+                variantMenuEnabled,
+                variantGroupSlot,
+                slot
+        );
+    }
+
+    private static ShopCampaign readCampaign(ByteBuffer in) {
+        // Windows are resolved again on load, the same as from YAML
+        return CampaignUtil.createCampaign(readString(in), readString(in), readString(in), readString(in), readString(in),
+                in.getDouble(), in.getDouble());
+    }
+
+    private static StockResetRule readResetRule(ByteBuffer in) {
+        if (!readBoolean(in)) return null;
+        boolean enabled = readBoolean(in);
+        String type = readString(in);
+        String zone = readString(in);
+        String time = readString(in);
+        String dayOfWeek = readString(in);
+        int dayOfMonth = in.getInt();
+        String month = readString(in);
+        int monthDay = in.getInt();
+        String onceAt = readString(in);
+        int interval = in.getInt();
+        return new StockResetRule(
+                enabled,
+                type == null ? null : StockResetRule.Type.valueOf(type),
+                zone == null ? null : ZoneId.of(zone),
+                time == null ? null : LocalTime.parse(time),
+                dayOfWeek == null ? null : DayOfWeek.valueOf(dayOfWeek),
+                dayOfMonth,
+                month == null ? null : Month.valueOf(month),
+                monthDay,
+                onceAt == null ? null : LocalDateTime.parse(onceAt),
+                interval
+        );
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        if (length > in.remaining()) {
+            throw new IllegalStateException("string length " + length + " exceeds snapshot");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) return null;
+        List<String> out = new ArrayList<>(Math.min(size, in.remaining() / 4));
+        for (int i = 0; i < size; i++) {
+            out.add(readString(in));
+        }
+        return out;
+    }
+
+    private static boolean readBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    private static Boolean readNullableBoolean(ByteBuffer in) {
+        byte value = in.get();
+        return value < 0 ? null : value == 1;
+    }
+
+    private static int count(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0 || size > in.remaining()) {
+            throw new IllegalStateException("invalid count " + size);
+        }
+        return size;
+    }
+}
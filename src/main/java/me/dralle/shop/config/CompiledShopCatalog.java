@@ -12,11 +12,13 @@ public final class CompiledShopCatalog {
     private final Map<String, ShopData> shops;
     private final List<ValidationMessage> validationMessages;
     private final Instant compiledAt;
+    private final SellOfferIndex sellOffers;
 
     public CompiledShopCatalog(Map<String, ShopData> shops, List<ValidationMessage> validationMessages, Instant compiledAt) {
         this.shops = Collections.unmodifiableMap(new LinkedHashMap<>(shops));
         this.validationMessages = List.copyOf(validationMessages);
         this.compiledAt = compiledAt;
+        this.sellOffers = new SellOfferIndex(this.shops);
     }
 
     public Map<String, ShopData> shops() {
@@ -30,5 +32,9 @@ public final class CompiledShopCatalog {
     public Instant compiledAt() {
         return compiledAt;
     }
+
+    public SellOfferIndex sellOffers() {
+        return sellOffers;
+    }
 }
 
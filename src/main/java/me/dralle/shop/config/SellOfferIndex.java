@@ -0,0 +1,131 @@
+package me.dralle.shop.config;
+
+import me.dralle.shop.model.ShopData;
+import me.dralle.shop.model.ShopItem;
+import me.dralle.shop.util.ShopItemUtil;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.potion.PotionType;
+
+import java.util.*;
+
+/**
+ * Lookup table of sellable shop items, built once per catalog compile.
+ * Offers are bucketed by material and, when possible, by spawner type, potion type
+ * or one required enchantment so a stack only gets compared against offers that can match.
+ * Final matching is still done by {@link ShopItemUtil#isSameItem(ItemStack, ShopItem)}.
+ */
+public final class SellOfferIndex {
+
+    public record SellOffer(int ordinal, String shopKey, ShopData shop, ShopItem item) {}
+
+    private static final class Bucket {
+        private final List<SellOffer> generic = new ArrayList<>();
+        private final Map<String, List<SellOffer>> bySpawner = new HashMap<>();
+        private final Map<String, List<SellOffer>> byPotion = new HashMap<>();
+        private final Map<String, List<SellOffer>> byEnchant = new HashMap<>();
+    }
+
+    private final Map<Material, Bucket> buckets = new EnumMap<>(Material.class);
+    private final int size;
+
+    public SellOfferIndex(Map<String, ShopData> shops) {
+        int ordinal = 0;
+        for (Map.Entry<String, ShopData> entry : shops.entrySet()) {
+            ShopData shop = entry.getValue();
+            if (shop == null) continue;
+            for (ShopItem item : shop.getItems()) {
+                if (item == null || item.getSellPrice() == null || item.getSellPrice() <= 0) continue;
+                SellOffer offer = new SellOffer(ordinal++, entry.getKey(), shop, item);
+                add(offer);
+            }
+        }
+        this.size = ordinal;
+    }
+
+    private void add(SellOffer offer) {
+        ShopItem item = offer.item();
+        // Decodes the template once per compile; exported items are matched with isSimilar,
+        // so only the material narrows them down.
+        ItemStack template = item.getTemplateStack();
+        if (template != null) {
+            buckets.computeIfAbsent(template.getType(), k -> new Bucket()).generic.add(offer);
+            return;
+        }
+
+        Material material = item.getMaterial();
+        if (material == null) return;
+        Bucket bucket = buckets.computeIfAbsent(material, k -> new Bucket());
+
+        if (item.isSpawner()) {
+            if ((item.getSpawnerItem() == null || item.getSpawnerItem().isEmpty()) && item.getSpawnerType() != null) {
+                bucket.bySpawner.computeIfAbsent(item.getSpawnerType().toUpperCase(Locale.ROOT), k -> new ArrayList<>()).add(offer);
+                return;
+            }
+        } else if (item.isPotion()) {
+            bucket.byPotion.computeIfAbsent(item.getPotionType().toUpperCase(Locale.ROOT), k -> new ArrayList<>()).add(offer);
+            return;
+        } else if (item.getEnchantments() != null && !item.getEnchantments().isEmpty()) {
+            String enchantKey = firstKnownEnchantKey(item.getEnchantments());
+            if (enchantKey != null) {
+                bucket.byEnchant.computeIfAbsent(enchantKey, k -> new ArrayList<>()).add(offer);
+                return;
+            }
+        }
+        bucket.generic.add(offer);
+    }
+
+    private static String firstKnownEnchantKey(Map<String, Integer> enchantments) {
+        for (String name : new TreeSet<>(enchantments.keySet())) {
+            Enchantment enchantment = ShopItemUtil.getEnchantment(name);
+            if (enchantment != null) {
+                return enchantment.getKey().toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the offers that could match the given stack, ordered by catalog position within each group.
+     * Callers that need the catalog order across groups should compare {@link SellOffer#ordinal()}.
+     */
+    public List<SellOffer> candidates(ItemStack stack) {
+        if (stack == null) return List.of();
+        Bucket bucket = buckets.get(stack.getType());
+        if (bucket == null) return List.of();
+
+        boolean noDiscriminators = bucket.bySpawner.isEmpty() && bucket.byPotion.isEmpty() && bucket.byEnchant.isEmpty();
+        if (noDiscriminators || !stack.hasItemMeta()) {
+            return bucket.generic;
+        }
+
+        List<SellOffer> result = new ArrayList<>(bucket.generic);
+        if (!bucket.bySpawner.isEmpty()) {
+            String spawnerType = ShopItemUtil.getSpawnerType(stack);
+            if (spawnerType != null) {
+                result.addAll(bucket.bySpawner.getOrDefault(spawnerType.toUpperCase(Locale.ROOT), List.of()));
+            }
+        }
+
+        ItemMeta meta = stack.getItemMeta();
+        if (!bucket.byPotion.isEmpty() && meta instanceof PotionMeta potionMeta) {
+            PotionType potionType = potionMeta.getBasePotionType();
+            if (potionType != null) {
+                result.addAll(bucket.byPotion.getOrDefault(potionType.name(), List.of()));
+            }
+        }
+        if (!bucket.byEnchant.isEmpty() && meta != null && meta.hasEnchants()) {
+            for (Enchantment enchantment : meta.getEnchants().keySet()) {
+                result.addAll(bucket.byEnchant.getOrDefault(enchantment.getKey().toString(), List.of()));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -4,36 +4,31 @@ import me.dralle.shop.ShopPlugin;
 import me.dralle.shop.util.YamlUtil;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.List;
-import java.util.Set;
-import java.util.Base64;
-import java.util.UUID;
 import java.util.logging.Level;
 
-public class DataManager implements ShopStateRepository {
+/**
+ * SQLite-backed state store. Counters live in the concurrent in-memory store inherited from
+ * {@link StripedCounterRepository}; this class only loads them and writes dirty values back.
+ * Methods touching the connection are synchronized, counter reads and writes are not.
+ */
+public class DataManager extends StripedCounterRepository {
 
     private final ShopPlugin plugin;
     private final File sqliteFile;
     private final File legacyYamlFile;
     private Connection connection;
-    private final Map<String, Integer> playerCounts = new LinkedHashMap<>();
-    private final Map<String, Integer> globalCounts = new LinkedHashMap<>();
-    private final Map<String, Long> stockResets = new LinkedHashMap<>();
-    private final Set<String> dirtyPlayerKeys = new HashSet<>();
-    private final Set<String> dirtyGlobalKeys = new HashSet<>();
-    private final Set<String> dirtyStockKeys = new HashSet<>();
+    private WriteBehindWriter writer;
+    private TransactionLedger transactionLedger;
 
     public DataManager(ShopPlugin plugin) {
         this.plugin = plugin;
@@ -46,16 +41,32 @@ public class DataManager implements ShopStateRepository {
         close();
         try {
             Class.forName("org.sqlite.JDBC");
-            this.connection = DriverManager.getConnection("jdbc:sqlite:" + sqliteFile.getAbsolutePath());
+            String jdbcUrl = "jdbc:sqlite:" + sqliteFile.getAbsolutePath();
+            this.connection = DriverManager.getConnection(jdbcUrl);
             try (PreparedStatement pragma = connection.prepareStatement("PRAGMA journal_mode=WAL")) {
                 pragma.execute();
             }
             try (PreparedStatement pragma = connection.prepareStatement("PRAGMA synchronous=NORMAL")) {
                 pragma.execute();
             }
+            try (PreparedStatement pragma = connection.prepareStatement("PRAGMA busy_timeout=5000")) {
+                pragma.execute();
+            }
             createSchema();
             migrateLegacyYamlIfNeeded();
             loadCachesFromDatabase();
+            if (plugin.getConfig().getBoolean("data.write-behind.enabled", true)) {
+                this.writer = new WriteBehindWriter(
+                        plugin,
+                        this,
+                        jdbcUrl,
+                        plugin.getConfig().getInt("data.write-behind.batch-size", 500),
+                        plugin.getConfig().getInt("data.write-behind.max-pending-entries", 50000)
+                );
+            }
+            if (plugin.getConfig().getBoolean("data.transactions.enabled", true)) {
+                this.transactionLedger = new TransactionLedger(plugin, jdbcUrl);
+            }
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to initialize SQLite data store", e);
         }
@@ -82,6 +93,23 @@ public class DataManager implements ShopStateRepository {
                   last_run INTEGER NOT NULL DEFAULT 0
                 )
                 """);
+        executeUpdate("""
+                CREATE TABLE IF NOT EXISTS transactions (
+                  id INTEGER PRIMARY KEY AUTOINCREMENT,
+                  player_uuid TEXT NOT NULL,
+                  player_name TEXT,
+                  shop_key TEXT,
+                  item_key TEXT,
+                  action TEXT NOT NULL,
+                  quantity INTEGER NOT NULL,
+                  unit_price REAL NOT NULL,
+                  total REAL NOT NULL,
+                  created_at INTEGER NOT NULL
+                )
+                """);
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_created_at ON transactions(created_at)");
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_player_time ON transactions(player_uuid, created_at)");
+        executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_item_time ON transactions(item_key, created_at)");
     }
 
     private void migrateLegacyYamlIfNeeded() {
@@ -146,28 +174,39 @@ public class DataManager implements ShopStateRepository {
     }
 
     private void loadCachesFromDatabase() {
-        playerCounts.clear();
-        globalCounts.clear();
-        stockResets.clear();
-        dirtyPlayerKeys.clear();
-        dirtyGlobalKeys.clear();
-        dirtyStockKeys.clear();
+        clearState();
 
+        List<PlayerCountEntry> misspelled = new ArrayList<>();
+        int skipped = 0;
         try (PreparedStatement ps = connection.prepareStatement("SELECT uuid, item_key, count FROM player_counts");
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                String key = playerKey(rs.getString("uuid"), rs.getString("item_key"));
-                playerCounts.put(key, Math.max(0, rs.getInt("count")));
+                String uuid = rs.getString("uuid");
+                String itemKey = rs.getString("item_key");
+                if (uuid == null || uuid.isBlank() || itemKey == null || itemKey.isBlank()) {
+                    skipped++;
+                    continue;
+                }
+                if (!normalizePlayerKey(uuid).equals(uuid)) {
+                    misspelled.add(new PlayerCountEntry(uuid, itemKey, rs.getInt("count")));
+                    continue;
+                }
+                putLoadedPlayerCount(uuid, itemKey, rs.getInt("count"));
             }
         } catch (SQLException e) {
             plugin.getLogger().log(Level.WARNING, "Failed loading player_counts cache", e);
         }
+        if (skipped > 0) {
+            me.dralle.shop.util.ConsoleLog.warn(plugin, "Skipped " + skipped + " player_counts row(s) with a blank uuid or item key.");
+        }
+        if (!misspelled.isEmpty()) {
+            migratePlayerKeys(misspelled);
+        }
 
         try (PreparedStatement ps = connection.prepareStatement("SELECT item_key, count FROM global_counts");
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                String itemKey = rs.getString("item_key");
-                globalCounts.put(itemKey, Math.max(0, rs.getInt("count")));
+                putLoadedGlobalCount(rs.getString("item_key"), rs.getInt("count"));
             }
         } catch (SQLException e) {
             plugin.getLogger().log(Level.WARNING, "Failed loading global_counts cache", e);
@@ -176,13 +215,55 @@ public class DataManager implements ShopStateRepository {
         try (PreparedStatement ps = connection.prepareStatement("SELECT reset_id, last_run FROM stock_resets");
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                stockResets.put(rs.getString("reset_id"), Math.max(0L, rs.getLong("last_run")));
+                putLoadedStockReset(rs.getString("reset_id"), rs.getLong("last_run"));
             }
         } catch (SQLException e) {
             plugin.getLogger().log(Level.WARNING, "Failed loading stock_resets cache", e);
         }
     }
 
+    /**
+     * Moves rows stored under a non-canonical player key (uppercase UUIDs, stray whitespace)
+     * to the key save() writes, so they are not written back as a second row.
+     * A row that already exists under the canonical key was written later and wins.
+     */
+    private void migratePlayerKeys(List<PlayerCountEntry> rows) {
+        List<PlayerCountEntry> moved = new ArrayList<>();
+        for (PlayerCountEntry row : rows) {
+            String canonical = normalizePlayerKey(row.uuid());
+            if (!hasPlayerCount(canonical, row.itemKey())) {
+                putLoadedPlayerCount(canonical, row.itemKey(), row.count());
+                moved.add(new PlayerCountEntry(canonical, row.itemKey(), row.count()));
+            }
+        }
+
+        try {
+            connection.setAutoCommit(false);
+            for (PlayerCountEntry row : moved) {
+                setPlayerCountRaw(row.uuid(), row.itemKey(), row.count());
+            }
+            try (PreparedStatement ps = connection.prepareStatement("DELETE FROM player_counts WHERE uuid = ? AND item_key = ?")) {
+                for (PlayerCountEntry row : rows) {
+                    ps.setString(1, row.uuid());
+                    ps.setString(2, row.itemKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+            me.dralle.shop.util.ConsoleLog.info(plugin, "Normalized " + rows.size() + " player_counts key(s) ("
+                    + (rows.size() - moved.size()) + " duplicate(s) dropped).");
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+            plugin.getLogger().log(Level.WARNING, "Failed normalizing player_counts keys", e);
+        }
+    }
+
     private boolean hasAnyData() {
         try (PreparedStatement ps = connection.prepareStatement("""
                 SELECT
@@ -198,158 +279,99 @@ public class DataManager implements ShopStateRepository {
         }
     }
 
+    /**
+     * Persists pending changes. With write-behind enabled this only snapshots dirty counters
+     * and hands them to the writer thread; if the writer is backed up they stay dirty and
+     * coalesce until the next call.
+     */
+    @Override
     public synchronized void save() {
-        flushDirtyData();
-    }
-
-    public synchronized int getPlayerCount(UUID uuid, String itemKey) {
-        return playerCounts.getOrDefault(playerKey(uuid, itemKey), 0);
-    }
-
-    public synchronized void incrementPlayerCount(UUID uuid, String itemKey, int amount) {
-        String key = playerKey(uuid, itemKey);
-        int next = Math.max(0, playerCounts.getOrDefault(key, 0) + amount);
-        playerCounts.put(key, next);
-        dirtyPlayerKeys.add(key);
-    }
-
-    public synchronized int getGlobalCount(String itemKey) {
-        return globalCounts.getOrDefault(itemKey, 0);
-    }
-
-    public synchronized void incrementGlobalCount(String itemKey, int amount) {
-        int next = Math.max(0, globalCounts.getOrDefault(itemKey, 0) + amount);
-        globalCounts.put(itemKey, next);
-        dirtyGlobalKeys.add(itemKey);
-    }
-
-    public synchronized Map<String, Integer> getAllGlobalCounts() {
-        return new LinkedHashMap<>(globalCounts);
-    }
-
-    public synchronized List<PlayerCountEntry> getAllPlayerCountEntries() {
-        List<PlayerCountEntry> rows = new ArrayList<>();
-        for (Map.Entry<String, Integer> entry : playerCounts.entrySet()) {
-            ParsedPlayerKey parsed = parsePlayerKey(entry.getKey());
-            if (parsed == null) continue;
-            rows.add(new PlayerCountEntry(parsed.uuid(), parsed.itemKey(), Math.max(0, entry.getValue())));
-        }
-        rows.sort(java.util.Comparator
-                .comparing(PlayerCountEntry::uuid, String.CASE_INSENSITIVE_ORDER)
-                .thenComparing(PlayerCountEntry::itemKey, String.CASE_INSENSITIVE_ORDER));
-        return rows;
-    }
-
-    public synchronized List<GlobalCountEntry> getAllGlobalCountEntries() {
-        List<GlobalCountEntry> rows = new ArrayList<>();
-        for (Map.Entry<String, Integer> entry : globalCounts.entrySet()) {
-            rows.add(new GlobalCountEntry(entry.getKey(), Math.max(0, entry.getValue())));
+        if (writer == null) {
+            flushDirtyData();
+            return;
         }
-        rows.sort(java.util.Comparator.comparing(GlobalCountEntry::itemKey, String.CASE_INSENSITIVE_ORDER));
-        return rows;
-    }
-
-    public synchronized List<StockResetEntry> getAllStockResetEntries() {
-        List<StockResetEntry> rows = new ArrayList<>();
-        for (Map.Entry<String, Long> entry : stockResets.entrySet()) {
-            String storedKey = entry.getKey();
-            rows.add(new StockResetEntry(
-                    storedKey,
-                    decodeBase64UrlOrOriginal(storedKey),
-                    Math.max(0L, entry.getValue())
-            ));
+        DirtySnapshot snapshot = drainDirty();
+        if (!snapshot.isEmpty() && !writer.submit(snapshot)) {
+            restoreDirty(snapshot);
         }
-        rows.sort(java.util.Comparator.comparing(StockResetEntry::resetId, String.CASE_INSENSITIVE_ORDER));
-        return rows;
-    }
-
-    public synchronized void setPlayerCount(String uuid, String itemKey, int value, boolean saveNow) {
-        if (uuid == null || uuid.isBlank() || itemKey == null || itemKey.isBlank()) return;
-        String key = playerKey(uuid.trim(), itemKey.trim());
-        playerCounts.put(key, Math.max(0, value));
-        dirtyPlayerKeys.add(key);
-        if (saveNow) save();
-    }
-
-    public synchronized void setGlobalCount(String itemKey, int value, boolean saveNow) {
-        if (itemKey == null || itemKey.isBlank()) return;
-        itemKey = itemKey.trim();
-        globalCounts.put(itemKey, Math.max(0, value));
-        dirtyGlobalKeys.add(itemKey);
-        if (saveNow) save();
-    }
-
-    public synchronized void resetGlobalCount(String itemKey, boolean saveNow) {
-        setGlobalCount(itemKey, 0, saveNow);
-    }
-
-    public synchronized long getLastStockReset(String resetId) {
-        return stockResets.getOrDefault(encode(resetId), 0L);
-    }
-
-    public synchronized void setLastStockResetStored(String storedResetId, long epochMillis, boolean saveNow) {
-        if (storedResetId == null || storedResetId.isBlank()) return;
-        String key = storedResetId.trim();
-        stockResets.put(key, Math.max(0L, epochMillis));
-        dirtyStockKeys.add(key);
-        if (saveNow) save();
-    }
-
-    public synchronized void setLastStockReset(String resetId, long epochMillis, boolean saveNow) {
-        String key = encode(resetId);
-        stockResets.put(key, Math.max(0L, epochMillis));
-        dirtyStockKeys.add(key);
-        if (saveNow) save();
     }
 
+    @Override
     public synchronized void removePlayerCount(String uuid, String itemKey) {
         if (uuid == null || uuid.isBlank() || itemKey == null || itemKey.isBlank()) return;
-        String cleanUuid = uuid.trim();
+        String cleanUuid = normalizePlayerKey(uuid);
         String cleanItemKey = itemKey.trim();
-        playerCounts.remove(playerKey(cleanUuid, cleanItemKey));
-        dirtyPlayerKeys.remove(playerKey(cleanUuid, cleanItemKey));
-        if (connection == null) return;
-        try (PreparedStatement ps = connection.prepareStatement(
-                "DELETE FROM player_counts WHERE uuid = ? AND item_key = ?")) {
-            ps.setString(1, cleanUuid);
-            ps.setString(2, cleanItemKey);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed deleting player count row", e);
-        }
+        super.removePlayerCount(cleanUuid, cleanItemKey);
+        deleteRow("DELETE FROM player_counts WHERE uuid = ? AND item_key = ?", "Failed deleting player count row", cleanUuid, cleanItemKey);
     }
 
+    @Override
     public synchronized void removeGlobalCount(String itemKey) {
         if (itemKey == null || itemKey.isBlank()) return;
         String cleanItemKey = itemKey.trim();
-        globalCounts.remove(cleanItemKey);
-        dirtyGlobalKeys.remove(cleanItemKey);
-        if (connection == null) return;
-        try (PreparedStatement ps = connection.prepareStatement(
-                "DELETE FROM global_counts WHERE item_key = ?")) {
-            ps.setString(1, cleanItemKey);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed deleting global count row", e);
-        }
+        super.removeGlobalCount(cleanItemKey);
+        deleteRow("DELETE FROM global_counts WHERE item_key = ?", "Failed deleting global count row", cleanItemKey);
     }
 
+    @Override
     public synchronized void removeStockReset(String storedResetId) {
         if (storedResetId == null || storedResetId.isBlank()) return;
         String key = storedResetId.trim();
-        stockResets.remove(key);
-        dirtyStockKeys.remove(key);
+        super.removeStockReset(key);
+        deleteRow("DELETE FROM stock_resets WHERE reset_id = ?", "Failed deleting stock reset row", key);
+    }
+
+    /**
+     * Appends a completed trade to the transaction ledger without waiting on disk.
+     * Quantity is in items and total in currency; the unit price is derived per item.
+     */
+    public void recordTransaction(Player player, String shopKey, String itemKey, String action, int quantity, double total) {
+        TransactionLedger ledger = transactionLedger;
+        if (ledger != null) {
+            ledger.record(player, shopKey, itemKey, action, quantity, total);
+        }
+    }
+
+    public TransactionLedger getTransactionLedger() {
+        return transactionLedger;
+    }
+
+    private void deleteRow(String sql, String failureMessage, String... params) {
+        // Deletes go through the writer so they cannot overtake an upsert queued before them.
+        if (writer != null && writer.submitDelete(sql, params)) return;
         if (connection == null) return;
-        try (PreparedStatement ps = connection.prepareStatement(
-                "DELETE FROM stock_resets WHERE reset_id = ?")) {
-            ps.setString(1, key);
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setString(i + 1, params[i]);
+            }
             ps.executeUpdate();
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed deleting stock reset row", e);
+            plugin.getLogger().log(Level.WARNING, failureMessage, e);
         }
     }
 
+    /**
+     * Drains the writer thread, then writes whatever is still dirty on the main connection.
+     */
+    @Override
     public synchronized void close() {
+        if (transactionLedger != null) {
+            transactionLedger.shutdown(1000L * Math.max(1, plugin.getConfig().getInt("data.write-behind.shutdown-timeout-seconds", 30)));
+            transactionLedger = null;
+        }
+        if (writer != null) {
+            save();
+            long timeoutMillis = 1000L * Math.max(1, plugin.getConfig().getInt("data.write-behind.shutdown-timeout-seconds", 30));
+            for (WriteBehindWriter.WriteTask task : writer.shutdown(timeoutMillis)) {
+                if (connection == null) break;
+                try {
+                    task.write(connection);
+                } catch (SQLException e) {
+                    task.onFailure(e);
+                }
+            }
+            writer = null;
+        }
         flushDirtyData();
         if (connection != null) {
             try {
@@ -362,15 +384,21 @@ public class DataManager implements ShopStateRepository {
 
     private void flushDirtyData() {
         if (connection == null) return;
-        if (dirtyPlayerKeys.isEmpty() && dirtyGlobalKeys.isEmpty() && dirtyStockKeys.isEmpty()) return;
+        DirtySnapshot snapshot = drainDirty();
+        if (snapshot.isEmpty()) return;
 
-        List<String> playerKeys = new ArrayList<>(dirtyPlayerKeys);
-        List<String> globalKeys = new ArrayList<>(dirtyGlobalKeys);
-        List<String> stockKeys = new ArrayList<>(dirtyStockKeys);
-        dirtyPlayerKeys.clear();
-        dirtyGlobalKeys.clear();
-        dirtyStockKeys.clear();
+        try {
+            writeSnapshot(connection, snapshot, Integer.MAX_VALUE);
+        } catch (SQLException e) {
+            restoreDirty(snapshot);
+            plugin.getLogger().log(Level.WARNING, "Failed flushing cached data to SQLite", e);
+        }
+    }
 
+    /**
+     * Upserts a snapshot in one transaction, sending JDBC batches of at most batchSize rows.
+     */
+    static void writeSnapshot(Connection connection, DirtySnapshot snapshot, int batchSize) throws SQLException {
         try {
             connection.setAutoCommit(false);
 
@@ -379,14 +407,13 @@ public class DataManager implements ShopStateRepository {
                     VALUES (?, ?, ?)
                     ON CONFLICT(uuid, item_key) DO UPDATE SET count = excluded.count
                     """)) {
-                for (String key : playerKeys) {
-                    ParsedPlayerKey parsed = parsePlayerKey(key);
-                    if (parsed == null) continue;
-                    int value = Math.max(0, playerCounts.getOrDefault(key, 0));
-                    playerPs.setString(1, parsed.uuid());
-                    playerPs.setString(2, parsed.itemKey());
-                    playerPs.setInt(3, value);
+                int batched = 0;
+                for (PlayerCountEntry entry : snapshot.players()) {
+                    playerPs.setString(1, entry.uuid());
+                    playerPs.setString(2, entry.itemKey());
+                    playerPs.setInt(3, entry.count());
                     playerPs.addBatch();
+                    if (++batched % batchSize == 0) playerPs.executeBatch();
                 }
                 playerPs.executeBatch();
             }
@@ -396,11 +423,12 @@ public class DataManager implements ShopStateRepository {
                     VALUES (?, ?)
                     ON CONFLICT(item_key) DO UPDATE SET count = excluded.count
                     """)) {
-                for (String itemKey : globalKeys) {
-                    int value = Math.max(0, globalCounts.getOrDefault(itemKey, 0));
-                    globalPs.setString(1, itemKey);
-                    globalPs.setInt(2, value);
+                int batched = 0;
+                for (GlobalCountEntry entry : snapshot.globals()) {
+                    globalPs.setString(1, entry.itemKey());
+                    globalPs.setInt(2, entry.count());
                     globalPs.addBatch();
+                    if (++batched % batchSize == 0) globalPs.executeBatch();
                 }
                 globalPs.executeBatch();
             }
@@ -410,11 +438,12 @@ public class DataManager implements ShopStateRepository {
                     VALUES (?, ?)
                     ON CONFLICT(reset_id) DO UPDATE SET last_run = excluded.last_run
                     """)) {
-                for (String resetKey : stockKeys) {
-                    long value = Math.max(0L, stockResets.getOrDefault(resetKey, 0L));
-                    stockPs.setString(1, resetKey);
-                    stockPs.setLong(2, value);
+                int batched = 0;
+                for (StockResetEntry entry : snapshot.stockResets()) {
+                    stockPs.setString(1, entry.storedResetId());
+                    stockPs.setLong(2, entry.lastRun());
                     stockPs.addBatch();
+                    if (++batched % batchSize == 0) stockPs.executeBatch();
                 }
                 stockPs.executeBatch();
             }
@@ -427,10 +456,7 @@ public class DataManager implements ShopStateRepository {
                 connection.setAutoCommit(true);
             } catch (SQLException ignored) {
             }
-            dirtyPlayerKeys.addAll(playerKeys);
-            dirtyGlobalKeys.addAll(globalKeys);
-            dirtyStockKeys.addAll(stockKeys);
-            plugin.getLogger().log(Level.WARNING, "Failed flushing cached data to SQLite", e);
+            throw e;
         }
     }
 
@@ -480,42 +506,6 @@ public class DataManager implements ShopStateRepository {
         }
     }
 
-    private String encode(String raw) {
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
-    }
-
-    private String decodeBase64UrlOrOriginal(String raw) {
-        if (raw == null || raw.isBlank()) return "";
-        String value = raw.trim();
-        try {
-            int mod = value.length() % 4;
-            if (mod == 2) value += "==";
-            else if (mod == 3) value += "=";
-            else if (mod == 1) return raw;
-            byte[] decoded = Base64.getUrlDecoder().decode(value);
-            String out = new String(decoded, StandardCharsets.UTF_8);
-            return out.isEmpty() ? raw : out;
-        } catch (IllegalArgumentException ignored) {
-            return raw;
-        }
-    }
-
-    private String playerKey(UUID uuid, String itemKey) {
-        return playerKey(uuid.toString(), itemKey);
-    }
-
-    private String playerKey(String uuid, String itemKey) {
-        return uuid + "|" + itemKey;
-    }
-
-    private ParsedPlayerKey parsePlayerKey(String key) {
-        int idx = key.indexOf('|');
-        if (idx <= 0 || idx >= key.length() - 1) return null;
-        return new ParsedPlayerKey(key.substring(0, idx), key.substring(idx + 1));
-    }
-
-    private record ParsedPlayerKey(String uuid, String itemKey) {}
-
     public record PlayerCountEntry(String uuid, String itemKey, int count) {}
     public record GlobalCountEntry(String itemKey, int count) {}
     public record StockResetEntry(String storedResetId, String resetId, long lastRun) {}
@@ -0,0 +1,426 @@
+package me.dralle.shop.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link ShopStateRepository} built for concurrent access.
+ * Counters are mutable int cells in striped concurrent maps. Player counters are keyed by
+ * (UUID, interned item id) instead of concatenated strings, and changed cells are queued
+ * lock-free, so reads and increments never wait on a flush in progress.
+ * Writes go through the map's per-bin lock, so a removal can never strand an increment on
+ * a cell that is no longer mapped. Player keys that are not UUIDs (old name-keyed rows) are
+ * kept in a separate map so they survive a load/save round trip.
+ * Persistence is left to subclasses through {@link #drainDirty()} and {@link #restoreDirty(DirtySnapshot)}.
+ */
+public class StripedCounterRepository implements ShopStateRepository {
+
+    private static final int STRIPES = 16;
+
+    private final Map<String, Integer> itemIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextItemId = new AtomicInteger();
+    @SuppressWarnings("unchecked")
+    private final Map<PlayerKey, CounterCell>[] playerStripes = new Map[STRIPES];
+    private final Map<NamedKey, CounterCell> namedPlayerCells = new ConcurrentHashMap<>();
+    private final Map<String, CounterCell> globalCells = new ConcurrentHashMap<>();
+    private final Map<String, Long> stockResets = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<CounterCell> dirtyCells = new ConcurrentLinkedQueue<>();
+    private final Set<String> dirtyStockKeys = ConcurrentHashMap.newKeySet();
+
+    public StripedCounterRepository() {
+        for (int i = 0; i < STRIPES; i++) {
+            playerStripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Override
+    public int getPlayerCount(UUID uuid, String itemKey) {
+        if (uuid == null || itemKey == null) return 0;
+        CounterCell cell = findPlayerCell(uuid, itemKey);
+        return cell != null ? cell.value.get() : 0;
+    }
+
+    @Override
+    public void incrementPlayerCount(UUID uuid, String itemKey, int amount) {
+        if (uuid == null || itemKey == null) return;
+        markDirty(updatePlayerCell(uuid, itemKey, cell -> add(cell, amount)));
+    }
+
+    @Override
+    public int getGlobalCount(String itemKey) {
+        if (itemKey == null) return 0;
+        CounterCell cell = globalCells.get(itemKey);
+        return cell != null ? cell.value.get() : 0;
+    }
+
+    @Override
+    public void incrementGlobalCount(String itemKey, int amount) {
+        if (itemKey == null) return;
+        markDirty(updateGlobalCell(itemKey, cell -> add(cell, amount)));
+    }
+
+    @Override
+    public Map<String, Integer> getAllGlobalCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (CounterCell cell : globalCells.values()) {
+            counts.put(cell.itemKey, cell.value.get());
+        }
+        return counts;
+    }
+
+    @Override
+    public List<DataManager.PlayerCountEntry> getAllPlayerCountEntries() {
+        List<DataManager.PlayerCountEntry> rows = new ArrayList<>();
+        for (Map<PlayerKey, CounterCell> stripe : playerStripes) {
+            for (CounterCell cell : stripe.values()) {
+                rows.add(new DataManager.PlayerCountEntry(cell.owner, cell.itemKey, Math.max(0, cell.value.get())));
+            }
+        }
+        for (CounterCell cell : namedPlayerCells.values()) {
+            rows.add(new DataManager.PlayerCountEntry(cell.owner, cell.itemKey, Math.max(0, cell.value.get())));
+        }
+        rows.sort(java.util.Comparator
+                .comparing(DataManager.PlayerCountEntry::uuid, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(DataManager.PlayerCountEntry::itemKey, String.CASE_INSENSITIVE_ORDER));
+        return rows;
+    }
+
+    @Override
+    public List<DataManager.GlobalCountEntry> getAllGlobalCountEntries() {
+        List<DataManager.GlobalCountEntry> rows = new ArrayList<>();
+        for (CounterCell cell : globalCells.values()) {
+            rows.add(new DataManager.GlobalCountEntry(cell.itemKey, Math.max(0, cell.value.get())));
+        }
+        rows.sort(java.util.Comparator.comparing(DataManager.GlobalCountEntry::itemKey, String.CASE_INSENSITIVE_ORDER));
+        return rows;
+    }
+
+    @Override
+    public List<DataManager.StockResetEntry> getAllStockResetEntries() {
+        List<DataManager.StockResetEntry> rows = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : stockResets.entrySet()) {
+            String storedKey = entry.getKey();
+            rows.add(new DataManager.StockResetEntry(
+                    storedKey,
+                    decodeBase64UrlOrOriginal(storedKey),
+                    Math.max(0L, entry.getValue())
+            ));
+        }
+        rows.sort(java.util.Comparator.comparing(DataManager.StockResetEntry::resetId, String.CASE_INSENSITIVE_ORDER));
+        return rows;
+    }
+
+    @Override
+    public void setPlayerCount(String uuid, String itemKey, int value, boolean saveNow) {
+        if (uuid == null || uuid.isBlank() || itemKey == null || itemKey.isBlank()) return;
+        markDirty(updatePlayerCell(uuid.trim(), itemKey.trim(), cell -> cell.value.set(Math.max(0, value))));
+        if (saveNow) save();
+    }
+
+    @Override
+    public void setGlobalCount(String itemKey, int value, boolean saveNow) {
+        if (itemKey == null || itemKey.isBlank()) return;
+        markDirty(updateGlobalCell(itemKey.trim(), cell -> cell.value.set(Math.max(0, value))));
+        if (saveNow) save();
+    }
+
+    @Override
+    public void resetGlobalCount(String itemKey, boolean saveNow) {
+        setGlobalCount(itemKey, 0, saveNow);
+    }
+
+    @Override
+    public long getLastStockReset(String resetId) {
+        return stockResets.getOrDefault(encode(resetId), 0L);
+    }
+
+    @Override
+    public void setLastStockResetStored(String storedResetId, long epochMillis, boolean saveNow) {
+        if (storedResetId == null || storedResetId.isBlank()) return;
+        String key = storedResetId.trim();
+        stockResets.put(key, Math.max(0L, epochMillis));
+        dirtyStockKeys.add(key);
+        if (saveNow) save();
+    }
+
+    @Override
+    public void setLastStockReset(String resetId, long epochMillis, boolean saveNow) {
+        String key = encode(resetId);
+        stockResets.put(key, Math.max(0L, epochMillis));
+        dirtyStockKeys.add(key);
+        if (saveNow) save();
+    }
+
+    @Override
+    public void removePlayerCount(String uuid, String itemKey) {
+        if (uuid == null || uuid.isBlank() || itemKey == null || itemKey.isBlank()) return;
+        String owner = uuid.trim();
+        String item = itemKey.trim();
+        UUID parsed = parseUuid(owner);
+        if (parsed == null) {
+            namedPlayerCells.remove(new NamedKey(owner, item));
+            return;
+        }
+        Integer id = itemIds.get(item);
+        if (id != null) {
+            playerStripe(parsed).remove(new PlayerKey(parsed, id));
+        }
+    }
+
+    @Override
+    public void removeGlobalCount(String itemKey) {
+        if (itemKey == null || itemKey.isBlank()) return;
+        globalCells.remove(itemKey.trim());
+    }
+
+    @Override
+    public void removeStockReset(String storedResetId) {
+        if (storedResetId == null || storedResetId.isBlank()) return;
+        String key = storedResetId.trim();
+        stockResets.remove(key);
+        dirtyStockKeys.remove(key);
+    }
+
+    @Override
+    public void save() {
+        // Nothing to persist in memory.
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release in memory.
+    }
+
+    /**
+     * Takes every changed value since the last drain. Cells that change again while the
+     * snapshot is being written are queued anew, so nothing is lost.
+     */
+    protected DirtySnapshot drainDirty() {
+        List<DataManager.PlayerCountEntry> players = new ArrayList<>();
+        List<DataManager.GlobalCountEntry> globals = new ArrayList<>();
+        List<DataManager.StockResetEntry> resets = new ArrayList<>();
+
+        CounterCell cell;
+        while ((cell = dirtyCells.poll()) != null) {
+            cell.dirty.set(false);
+            if (!isMapped(cell)) continue; // removed since it was queued
+            int value = Math.max(0, cell.value.get());
+            if (cell.owner != null) {
+                players.add(new DataManager.PlayerCountEntry(cell.owner, cell.itemKey, value));
+            } else {
+                globals.add(new DataManager.GlobalCountEntry(cell.itemKey, value));
+            }
+        }
+
+        for (String key : dirtyStockKeys) {
+            if (!dirtyStockKeys.remove(key)) continue;
+            Long value = stockResets.get(key);
+            if (value == null) continue;
+            resets.add(new DataManager.StockResetEntry(key, key, Math.max(0L, value)));
+        }
+        return new DirtySnapshot(players, globals, resets);
+    }
+
+    /**
+     * Marks the entries of a snapshot that could not be written as dirty again.
+     */
+    protected void restoreDirty(DirtySnapshot snapshot) {
+        for (DataManager.PlayerCountEntry entry : snapshot.players()) {
+            CounterCell cell = findPlayerCell(entry.uuid(), entry.itemKey());
+            if (cell != null) markDirty(cell);
+        }
+        for (DataManager.GlobalCountEntry entry : snapshot.globals()) {
+            CounterCell cell = globalCells.get(entry.itemKey());
+            if (cell != null) markDirty(cell);
+        }
+        for (DataManager.StockResetEntry entry : snapshot.stockResets()) {
+            if (stockResets.containsKey(entry.storedResetId())) {
+                dirtyStockKeys.add(entry.storedResetId());
+            }
+        }
+    }
+
+    /**
+     * Drops all counters without marking anything dirty, used before loading persisted state.
+     * Interned item ids go too, so keys of removed or renamed items do not pile up across reloads.
+     */
+    protected void clearState() {
+        for (Map<PlayerKey, CounterCell> stripe : playerStripes) {
+            stripe.clear();
+        }
+        namedPlayerCells.clear();
+        itemIds.clear();
+        globalCells.clear();
+        stockResets.clear();
+        dirtyCells.clear();
+        dirtyStockKeys.clear();
+    }
+
+    protected void putLoadedPlayerCount(String uuid, String itemKey, int count) {
+        if (uuid == null || uuid.isBlank() || itemKey == null) return;
+        updatePlayerCell(uuid.trim(), itemKey, cell -> cell.value.set(Math.max(0, count)));
+    }
+
+    protected boolean hasPlayerCount(String uuid, String itemKey) {
+        if (uuid == null || itemKey == null) return false;
+        return findPlayerCell(uuid.trim(), itemKey) != null;
+    }
+
+    protected void putLoadedGlobalCount(String itemKey, int count) {
+        if (itemKey == null) return;
+        updateGlobalCell(itemKey, cell -> cell.value.set(Math.max(0, count)));
+    }
+
+    /**
+     * The spelling a player key is stored under: lowercase UUID form when it parses as one,
+     * otherwise the trimmed key as given.
+     */
+    protected static String normalizePlayerKey(String raw) {
+        String trimmed = raw.trim();
+        UUID parsed = parseUuid(trimmed);
+        return parsed != null ? parsed.toString() : trimmed;
+    }
+
+    protected void putLoadedStockReset(String storedResetId, long lastRun) {
+        if (storedResetId == null) return;
+        stockResets.put(storedResetId, Math.max(0L, lastRun));
+    }
+
+    protected String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeBase64UrlOrOriginal(String raw) {
+        if (raw == null || raw.isBlank()) return "";
+        String value = raw.trim();
+        try {
+            int mod = value.length() % 4;
+            if (mod == 2) value += "==";
+            else if (mod == 3) value += "=";
+            else if (mod == 1) return raw;
+            byte[] decoded = Base64.getUrlDecoder().decode(value);
+            String out = new String(decoded, StandardCharsets.UTF_8);
+            return out.isEmpty() ? raw : out;
+        } catch (IllegalArgumentException ignored) {
+            return raw;
+        }
+    }
+
+    private int itemId(String itemKey) {
+        Integer id = itemIds.get(itemKey);
+        if (id != null) return id;
+        return itemIds.computeIfAbsent(itemKey, k -> nextItemId.getAndIncrement());
+    }
+
+    private Map<PlayerKey, CounterCell> playerStripe(UUID uuid) {
+        int h = uuid.hashCode();
+        return playerStripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private CounterCell findPlayerCell(UUID uuid, String itemKey) {
+        Integer id = itemIds.get(itemKey);
+        return id != null ? playerStripe(uuid).get(new PlayerKey(uuid, id)) : null;
+    }
+
+    private CounterCell findPlayerCell(String owner, String itemKey) {
+        UUID parsed = parseUuid(owner);
+        return parsed != null ? findPlayerCell(parsed, itemKey) : namedPlayerCells.get(new NamedKey(owner, itemKey));
+    }
+
+    // The update runs inside compute(), under the same bin lock remove() takes.
+    private CounterCell updatePlayerCell(UUID uuid, String itemKey, Consumer<CounterCell> update) {
+        return playerStripe(uuid).compute(new PlayerKey(uuid, itemId(itemKey)), (k, cell) -> {
+            if (cell == null) cell = new CounterCell(uuid, uuid.toString(), itemKey);
+            update.accept(cell);
+            return cell;
+        });
+    }
+
+    private CounterCell updatePlayerCell(String owner, String itemKey, Consumer<CounterCell> update) {
+        UUID parsed = parseUuid(owner);
+        if (parsed != null) return updatePlayerCell(parsed, itemKey, update);
+        return namedPlayerCells.compute(new NamedKey(owner, itemKey), (k, cell) -> {
+            if (cell == null) cell = new CounterCell(null, owner, itemKey);
+            update.accept(cell);
+            return cell;
+        });
+    }
+
+    private CounterCell updateGlobalCell(String itemKey, Consumer<CounterCell> update) {
+        return globalCells.compute(itemKey, (k, cell) -> {
+            if (cell == null) cell = new CounterCell(null, null, k);
+            update.accept(cell);
+            return cell;
+        });
+    }
+
+    private boolean isMapped(CounterCell cell) {
+        if (cell.owner == null) {
+            return globalCells.get(cell.itemKey) == cell;
+        }
+        if (cell.uuid == null) {
+            return namedPlayerCells.get(new NamedKey(cell.owner, cell.itemKey)) == cell;
+        }
+        return findPlayerCell(cell.uuid, cell.itemKey) == cell;
+    }
+
+    private void markDirty(CounterCell cell) {
+        if (cell.dirty.compareAndSet(false, true)) {
+            dirtyCells.add(cell);
+        }
+    }
+
+    private static void add(CounterCell cell, int amount) {
+        int current;
+        int next;
+        do {
+            current = cell.value.get();
+            next = Math.max(0, current + amount);
+        } while (!cell.value.compareAndSet(current, next));
+    }
+
+    private static UUID parseUuid(String raw) {
+        try {
+            return UUID.fromString(raw);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record PlayerKey(UUID uuid, int itemId) {}
+
+    private record NamedKey(String owner, String itemKey) {}
+
+    private static final class CounterCell {
+        private final UUID uuid; // null for global counters and non-UUID player keys
+        private final String owner; // stored player key, null for global counters
+        private final String itemKey;
+        private final AtomicInteger value = new AtomicInteger();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private CounterCell(UUID uuid, String owner, String itemKey) {
+            this.uuid = uuid;
+            this.owner = owner;
+            this.itemKey = itemKey;
+        }
+    }
+
+    public record DirtySnapshot(List<DataManager.PlayerCountEntry> players,
+                                List<DataManager.GlobalCountEntry> globals,
+                                List<DataManager.StockResetEntry> stockResets) {
+        public boolean isEmpty() {
+            return players.isEmpty() && globals.isEmpty() && stockResets.isEmpty();
+        }
+    }
+}
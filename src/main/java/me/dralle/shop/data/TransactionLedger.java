@@ -0,0 +1,200 @@
+package me.dralle.shop.data;
+
+import me.dralle.shop.ShopPlugin;
+import org.bukkit.entity.Player;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Append-only history of completed trades in the {@code transactions} table.
+ * Callers only enqueue into a bounded queue; a background thread inserts in batches
+ * and prunes rows older than the configured retention.
+ */
+public final class TransactionLedger {
+
+    public record Entry(String playerUuid, String playerName, String shopKey, String itemKey, String action,
+                        int quantity, double unitPrice, double total, long createdAt) {}
+
+    private final ShopPlugin plugin;
+    private final String jdbcUrl;
+    private final ArrayBlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long retentionMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+    private Connection connection; // ledger thread only (or the caller after shutdown)
+
+    TransactionLedger(ShopPlugin plugin, String jdbcUrl) {
+        this.plugin = plugin;
+        this.jdbcUrl = jdbcUrl;
+        this.queue = new ArrayBlockingQueue<>(Math.max(16, plugin.getConfig().getInt("data.transactions.queue-capacity", 10000)));
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("data.transactions.batch-size", 200));
+        this.retentionMillis = TimeUnit.DAYS.toMillis(Math.max(0, plugin.getConfig().getInt("data.transactions.retention-days", 90)));
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "GeniusShop-TransactionLedger");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long flushMillis = Math.max(100L, plugin.getConfig().getLong("data.transactions.flush-interval-ms", 1000L));
+        executor.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        if (retentionMillis > 0) {
+            executor.scheduleWithFixedDelay(this::purgeExpired, 1L, 60L, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Queues a completed trade. Never blocks; if the queue is full the entry is dropped and counted.
+     */
+    public void record(Player player, String shopKey, String itemKey, String action, int quantity, double total) {
+        if (!running || player == null || quantity <= 0) return;
+        Entry entry = new Entry(
+                player.getUniqueId().toString(),
+                player.getName(),
+                shopKey,
+                itemKey,
+                action,
+                quantity,
+                total / quantity,
+                total,
+                System.currentTimeMillis()
+        );
+        if (!queue.offer(entry)) {
+            long droppedSoFar = dropped.incrementAndGet();
+            if (droppedSoFar == 1 || droppedSoFar % 1000 == 0) {
+                me.dralle.shop.util.ConsoleLog.warn(plugin, "Transaction ledger queue is full, " + droppedSoFar + " entries dropped so far.");
+            }
+            return;
+        }
+        if (queue.size() >= batchSize && flushQueued.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    flushQueued.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushQueued.set(false);
+            }
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops the background thread, then writes whatever is still queued.
+     */
+    void shutdown(long timeoutMillis) {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(Math.max(0L, timeoutMillis), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+                plugin.getLogger().warning("Transaction ledger did not stop in time; " + queue.size() + " queued entries may be lost.");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        flush();
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+            connection = null;
+        }
+    }
+
+    private void flush() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    private void insert(List<Entry> batch) {
+        try {
+            Connection c = connection();
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement("""
+                    INSERT INTO transactions(player_uuid, player_name, shop_key, item_key, action, quantity, unit_price, total, created_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    """)) {
+                for (Entry entry : batch) {
+                    ps.setString(1, entry.playerUuid());
+                    ps.setString(2, entry.playerName());
+                    ps.setString(3, entry.shopKey());
+                    ps.setString(4, entry.itemKey());
+                    ps.setString(5, entry.action());
+                    ps.setInt(6, entry.quantity());
+                    ps.setDouble(7, entry.unitPrice());
+                    ps.setDouble(8, entry.total());
+                    ps.setLong(9, entry.createdAt());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            c.commit();
+            c.setAutoCommit(true);
+        } catch (SQLException e) {
+            rollbackQuietly();
+            dropped.addAndGet(batch.size());
+            plugin.getLogger().log(Level.WARNING, "Failed writing " + batch.size() + " transaction ledger entries", e);
+        }
+    }
+
+    /**
+     * Deletes rows older than the retention window. Scheduled hourly on the ledger thread;
+     * only call it directly once the ledger has been shut down.
+     */
+    void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        try (PreparedStatement ps = connection().prepareStatement("DELETE FROM transactions WHERE created_at < ?")) {
+            ps.setLong(1, cutoff);
+            int removed = ps.executeUpdate();
+            if (removed > 0) {
+                plugin.debug("[Ledger] Pruned " + removed + " transactions older than retention");
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed pruning old transaction ledger entries", e);
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DriverManager.getConnection(jdbcUrl);
+            try (PreparedStatement pragma = connection.prepareStatement("PRAGMA busy_timeout=5000")) {
+                pragma.execute();
+            }
+        }
+        return connection;
+    }
+
+    private void rollbackQuietly() {
+        if (connection == null) return;
+        try {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package me.dralle.shop.data;
+
+import me.dralle.shop.ShopPlugin;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Single background thread that writes {@link DataManager} changes to SQLite on its own connection,
+ * so batched upserts never run on the server thread. Tasks run strictly in submission order.
+ */
+final class WriteBehindWriter {
+
+    private final ShopPlugin plugin;
+    private final StripedCounterRepository owner;
+    private final String jdbcUrl;
+    private final int batchSize;
+    private final int maxPendingEntries;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger pendingEntries = new AtomicInteger();
+    private Connection connection; // writer thread only
+
+    WriteBehindWriter(ShopPlugin plugin, StripedCounterRepository owner, String jdbcUrl, int batchSize, int maxPendingEntries) {
+        this.plugin = plugin;
+        this.owner = owner;
+        this.jdbcUrl = jdbcUrl;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPendingEntries = Math.max(1, maxPendingEntries);
+        this.executor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "GeniusShop-DataWriter");
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+    }
+
+    /**
+     * Queues a snapshot for writing. Returns false when the writer is too far behind;
+     * the caller should then keep the changes dirty so they coalesce until the next attempt.
+     */
+    boolean submit(StripedCounterRepository.DirtySnapshot snapshot) {
+        int size = snapshot.players().size() + snapshot.globals().size() + snapshot.stockResets().size();
+        int pending = pendingEntries.get();
+        if (pending > 0 && pending + size > maxPendingEntries) {
+            plugin.debug("[Data] Writer backlog at " + pending + " entries, deferring " + size + " changes");
+            return false;
+        }
+        pendingEntries.addAndGet(size);
+        try {
+            executor.execute(new SnapshotTask(snapshot, size));
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingEntries.addAndGet(-size);
+            return false;
+        }
+    }
+
+    /**
+     * Queues a delete statement behind every write submitted before it.
+     */
+    boolean submitDelete(String sql, String... params) {
+        try {
+            executor.execute(new DeleteTask(sql, params));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    int getPendingEntries() {
+        return pendingEntries.get();
+    }
+
+    /**
+     * Stops accepting work and waits for queued tasks to finish. The writer is never interrupted:
+     * if the queue has not drained in time, tasks that have not started are taken back and returned
+     * so the caller can apply them itself, once the write in progress has completed.
+     */
+    List<WriteTask> shutdown(long timeoutMillis) {
+        executor.shutdown();
+        long timeout = Math.max(0L, timeoutMillis);
+        List<WriteTask> leftover = new ArrayList<>();
+        try {
+            if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                List<Runnable> queued = new ArrayList<>();
+                executor.getQueue().drainTo(queued);
+                for (Runnable runnable : queued) {
+                    if (runnable instanceof WriteTask task) {
+                        leftover.add(task);
+                    }
+                }
+                plugin.getLogger().warning("Data writer did not drain in time, finishing " + leftover.size() + " queued writes on shutdown.");
+                if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                    plugin.getLogger().warning("Data writer is still busy with a write; its connection is left to close on exit.");
+                    return leftover;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (executor.isTerminated()) {
+            closeConnection(); // the writer thread is gone, so its connection is ours now
+        }
+        return leftover;
+    }
+
+    private Connection writerConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DriverManager.getConnection(jdbcUrl);
+            try (PreparedStatement pragma = connection.prepareStatement("PRAGMA busy_timeout=5000")) {
+                pragma.execute();
+            }
+            try (PreparedStatement pragma = connection.prepareStatement("PRAGMA synchronous=NORMAL")) {
+                pragma.execute();
+            }
+        }
+        return connection;
+    }
+
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+            connection = null;
+        }
+    }
+
+    abstract class WriteTask implements Runnable {
+        abstract void write(Connection target) throws SQLException;
+
+        void onFailure(SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed writing cached data to SQLite", e);
+        }
+
+        @Override
+        public void run() {
+            try {
+                write(writerConnection());
+            } catch (SQLException e) {
+                onFailure(e);
+            }
+        }
+    }
+
+    private final class SnapshotTask extends WriteTask {
+        private final StripedCounterRepository.DirtySnapshot snapshot;
+        private final int size;
+
+        private SnapshotTask(StripedCounterRepository.DirtySnapshot snapshot, int size) {
+            this.snapshot = snapshot;
+            this.size = size;
+        }
+
+        @Override
+        void write(Connection target) throws SQLException {
+            try {
+                DataManager.writeSnapshot(target, snapshot, batchSize);
+            } finally {
+                pendingEntries.addAndGet(-size);
+            }
+        }
+
+        @Override
+        void onFailure(SQLException e) {
+            owner.restoreDirty(snapshot);
+            super.onFailure(e);
+        }
+    }
+
+    private final class DeleteTask extends WriteTask {
+        private final String sql;
+        private final String[] params;
+
+        private DeleteTask(String sql, String[] params) {
+            this.sql = sql;
+            this.params = params;
+        }
+
+        @Override
+        void write(Connection target) throws SQLException {
+            try (PreparedStatement ps = target.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    ps.setString(i + 1, params[i]);
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+}
@@ -17,13 +17,20 @@ public class EconomyHook {
     private String fallbackSymbol;
 
     public EconomyHook(ShopPlugin plugin) {
+        this(plugin, null);
+        setupEconomy();
+    }
+
+    /**
+     * Wraps a given provider instead of looking one up through Vault.
+     */
+    EconomyHook(ShopPlugin plugin, Economy economy) {
         this.plugin = plugin;
+        this.economy = economy;
 
         // Read config values
         overrideSymbol = plugin.getConfig().getString("eco.override-currency-symbol", "");
         fallbackSymbol = plugin.getConfig().getString("fallback-currency-symbol", "$");
-
-        setupEconomy();
     }
 
     private void setupEconomy() {
@@ -0,0 +1,62 @@
+package me.dralle.shop.economy;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * The economy-safety section of config.yml, read once per config load.
+ * Guards read these fields instead of walking the configuration on every transaction.
+ */
+public record EconomySafetySettings(
+        boolean enabled,
+        double maxTransactionValue,
+        double maxUnitPrice,
+        boolean antiSpikeEnabled,
+        double maxBaseMultiplier,
+        double minBaseMultiplier,
+        double maxStepChangeRatio,
+        boolean cooldownsEnabled,
+        long buyCooldownMs,
+        long sellCooldownMs,
+        long bulkSellCooldownMs,
+        boolean largePurchaseConfirmation,
+        double largePurchaseThreshold,
+        long largePurchaseTimeoutSeconds,
+        boolean adminAlertsEnabled,
+        String adminNotifyPermission,
+        long adminAlertRateLimitMs
+) {
+
+    public static EconomySafetySettings from(FileConfiguration cfg) {
+        return new EconomySafetySettings(
+                cfg.getBoolean("economy-safety.enabled", true),
+                cfg.getDouble("economy-safety.max-transaction-value", 0D),
+                cfg.getDouble("economy-safety.max-unit-price", 0D),
+                cfg.getBoolean("economy-safety.anti-spike.enabled", true),
+                cfg.getDouble("economy-safety.anti-spike.max-base-multiplier", 10.0D),
+                cfg.getDouble("economy-safety.anti-spike.min-base-multiplier", 0.0D),
+                cfg.getDouble("economy-safety.anti-spike.max-step-change-ratio", 5.0D),
+                cfg.getBoolean("economy-safety.cooldowns.enabled", true),
+                cfg.getLong("economy-safety.cooldowns.buy-ms", 0L),
+                cfg.getLong("economy-safety.cooldowns.sell-ms", 0L),
+                cfg.getLong("economy-safety.cooldowns.bulk-sell-ms", 0L),
+                cfg.getBoolean("economy-safety.large-purchase-confirmation.enabled", false),
+                cfg.getDouble("economy-safety.large-purchase-confirmation.threshold", 0D),
+                Math.max(1L, cfg.getLong("economy-safety.large-purchase-confirmation.timeout-seconds", 10L)),
+                cfg.getBoolean("economy-safety.admin-alerts.enabled", false),
+                cfg.getString("economy-safety.admin-alerts.notify-permission", "geniusshop.admin"),
+                Math.max(0L, cfg.getLong("economy-safety.admin-alerts.rate-limit-ms", 3000L))
+        );
+    }
+
+    /**
+     * @param action one of the {@code TransactionSafetyGuard.ACTION_*} constants
+     */
+    public long cooldownMs(String action) {
+        return switch (action) {
+            case TransactionSafetyGuard.ACTION_BUY -> buyCooldownMs;
+            case TransactionSafetyGuard.ACTION_SELL -> sellCooldownMs;
+            case TransactionSafetyGuard.ACTION_BULK_SELL -> bulkSellCooldownMs;
+            default -> 0L;
+        };
+    }
+}
@@ -0,0 +1,234 @@
+package me.dralle.shop.economy;
+
+import me.dralle.shop.ShopPlugin;
+import me.dralle.shop.util.ConsoleLog;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Pays out sale proceeds in batches instead of one provider call per sale.
+ * Deposits queued during a tick are summed per player and settled on the next tick. The provider
+ * call runs on a dedicated thread when the provider is listed as thread-safe, and results are
+ * reconciled on the main thread, where failed deposits run their compensation (items back, counters reverted).
+ * Results are never reconciled on the provider thread: during shutdown they are handed to the thread
+ * calling {@link #shutdown(long)}.
+ */
+public final class EconomySettlement {
+
+    /**
+     * Undoes a sale whose proceeds could not be paid. Runs on the main thread.
+     */
+    @FunctionalInterface
+    public interface Compensation {
+        void compensate(String reason);
+    }
+
+    private record PendingDeposit(double amount, Runnable onSettled, Compensation onFailed) {}
+
+    private static final class Batch {
+        private final Player player;
+        private final List<PendingDeposit> deposits = new ArrayList<>(2);
+        private double total;
+
+        private Batch(Player player) {
+            this.player = player;
+        }
+    }
+
+    private final ShopPlugin plugin;
+    private final EconomyHook economy;
+    private final Executor mainThread;
+    private final ExecutorService providerExecutor; // null: provider calls stay on the main thread
+    private final boolean coalesce;
+    private Map<UUID, Batch> pending = new LinkedHashMap<>(); // main thread only
+    private final Queue<Reconcile> unreconciled = new ConcurrentLinkedQueue<>();
+    private boolean flushScheduled;
+    private volatile boolean stopping;
+
+    public EconomySettlement(ShopPlugin plugin, EconomyHook economy) {
+        this(
+                plugin,
+                economy,
+                task -> Bukkit.getScheduler().runTask(plugin, task),
+                isDeclaredThreadSafe(plugin, economy) ? Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "GeniusShop-Economy");
+                    t.setDaemon(true);
+                    return t;
+                }) : null
+        );
+    }
+
+    EconomySettlement(ShopPlugin plugin, EconomyHook economy, Executor mainThread, ExecutorService providerExecutor) {
+        this.plugin = plugin;
+        this.economy = economy;
+        this.mainThread = mainThread;
+        this.providerExecutor = providerExecutor;
+        this.coalesce = plugin.getConfig().getBoolean("economy-settlement.coalesce-deposits", true);
+    }
+
+    /**
+     * Vault has no thread-safety flag, so admins declare providers safe for off-thread calls by name.
+     */
+    private static boolean isDeclaredThreadSafe(ShopPlugin plugin, EconomyHook economy) {
+        if (!economy.isReady()) return false;
+        String provider = economy.getProviderName().toLowerCase(Locale.ROOT);
+        for (String name : plugin.getConfig().getStringList("economy-settlement.thread-safe-providers")) {
+            if (name != null && name.trim().toLowerCase(Locale.ROOT).equals(provider)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isAsync() {
+        return providerExecutor != null;
+    }
+
+    /**
+     * Queues a deposit for a sale that has already been applied. Call from the main thread.
+     *
+     * @param onSettled runs once the money has been paid
+     * @param onFailed  undoes the sale if the provider rejects the (coalesced) deposit
+     */
+    public void deposit(Player player, double amount, Runnable onSettled, Compensation onFailed) {
+        Batch batch;
+        if (!coalesce || stopping) {
+            batch = new Batch(player);
+            add(batch, amount, onSettled, onFailed);
+            settle(batch);
+            return;
+        }
+        batch = pending.computeIfAbsent(player.getUniqueId(), k -> new Batch(player));
+        add(batch, amount, onSettled, onFailed);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            try {
+                mainThread.execute(this::flush);
+            } catch (RuntimeException e) {
+                flushScheduled = false;
+                flush();
+            }
+        }
+    }
+
+    private static void add(Batch batch, double amount, Runnable onSettled, Compensation onFailed) {
+        batch.deposits.add(new PendingDeposit(amount, onSettled, onFailed));
+        batch.total += amount;
+    }
+
+    /**
+     * Settles everything queued so far; one provider call per player.
+     */
+    void flush() {
+        flushScheduled = false;
+        if (pending.isEmpty()) return;
+        Map<UUID, Batch> batches = pending;
+        pending = new LinkedHashMap<>();
+        for (Batch batch : batches.values()) {
+            settle(batch);
+        }
+    }
+
+    private void settle(Batch batch) {
+        if (providerExecutor == null || stopping) {
+            reconcile(batch, economy.tryDeposit(batch.player, batch.total));
+            return;
+        }
+        try {
+            providerExecutor.execute(() -> {
+                Reconcile task = new Reconcile(batch, economy.tryDeposit(batch.player, batch.total));
+                unreconciled.add(task);
+                if (stopping) return; // shutdown() runs it on the calling thread
+                try {
+                    mainThread.execute(task);
+                } catch (RuntimeException ignored) {
+                    // The scheduler refuses work once the plugin is disabling; shutdown() picks it up
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reconcile(batch, economy.tryDeposit(batch.player, batch.total));
+        }
+    }
+
+    private void reconcile(Batch batch, EconomyHook.EconomyOperationResult result) {
+        boolean success = result.success();
+        if (!success && batch.deposits.size() > 1) {
+            plugin.debug("[Economy] Coalesced deposit of " + batch.total + " for " + batch.player.getName()
+                    + " failed, compensating " + batch.deposits.size() + " sales");
+        }
+        for (PendingDeposit deposit : batch.deposits) {
+            try {
+                if (success) {
+                    if (deposit.onSettled() != null) deposit.onSettled().run();
+                } else {
+                    deposit.onFailed().compensate(result.errorMessage());
+                }
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed reconciling a deposit for " + batch.player.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Settles what is still queued on the calling thread, waits for in-flight provider calls, then
+     * reconciles their results on the calling thread too, including ones whose main-thread task
+     * was scheduled but will not run anymore.
+     */
+    public void shutdown(long timeoutMillis) {
+        stopping = true;
+        flush();
+        if (providerExecutor != null) {
+            providerExecutor.shutdown();
+            try {
+                if (!providerExecutor.awaitTermination(Math.max(0L, timeoutMillis), TimeUnit.MILLISECONDS)) {
+                    providerExecutor.shutdownNow();
+                    ConsoleLog.warn(plugin, "Economy settlement did not finish in time; some deposits may not have been paid.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Reconcile task;
+        while ((task = unreconciled.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * A provider result waiting to be reconciled. Runs once, whichever of the main-thread task
+     * and {@link #shutdown(long)} gets to it first.
+     */
+    private final class Reconcile implements Runnable {
+        private final Batch batch;
+        private final EconomyHook.EconomyOperationResult result;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Reconcile(Batch batch, EconomyHook.EconomyOperationResult result) {
+            this.batch = batch;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            if (!done.compareAndSet(false, true)) return;
+            unreconciled.remove(this);
+            reconcile(batch, result);
+        }
+    }
+}
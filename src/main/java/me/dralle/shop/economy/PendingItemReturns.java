@@ -0,0 +1,91 @@
+package me.dralle.shop.economy;
+
+import me.dralle.shop.ShopPlugin;
+import me.dralle.shop.util.ConsoleLog;
+import me.dralle.shop.util.YamlUtil;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Items from failed sales that could not be handed back because the player had already left.
+ * They are kept in {@code pending-returns.yml} and given back the next time the player joins,
+ * so they survive a restart. Main thread only.
+ */
+public class PendingItemReturns implements Listener {
+
+    private final ShopPlugin plugin;
+    private final File file;
+    private final YamlConfiguration data;
+
+    public PendingItemReturns(ShopPlugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "pending-returns.yml");
+        this.data = file.exists() ? YamlUtil.loadUtf8(file) : new YamlConfiguration();
+    }
+
+    /**
+     * Queues stacks for a player who is offline and writes them to disk right away.
+     */
+    public void add(Player player, List<ItemStack> stacks) {
+        if (stacks.isEmpty()) return;
+        String path = "players." + player.getUniqueId();
+        List<ItemStack> items = new ArrayList<>(stacksAt(path));
+        int amount = 0;
+        for (ItemStack stack : stacks) {
+            items.add(stack.clone());
+            amount += stack.getAmount();
+        }
+        data.set(path + ".name", player.getName());
+        data.set(path + ".items", items);
+        save();
+        ConsoleLog.warn(plugin, "Player " + player.getName() + " is offline; " + amount + " sold items will be returned when they rejoin.");
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent e) {
+        Player player = e.getPlayer();
+        String path = "players." + player.getUniqueId();
+        if (!data.isConfigurationSection(path)) return;
+
+        List<ItemStack> items = stacksAt(path);
+        data.set(path, null);
+        save();
+        for (ItemStack stack : items) {
+            for (ItemStack leftover : player.getInventory().addItem(stack).values()) {
+                player.getWorld().dropItem(player.getLocation(), leftover);
+            }
+        }
+        plugin.debug("[Economy] Returned " + items.size() + " pending stacks to " + player.getName());
+    }
+
+    private List<ItemStack> stacksAt(String path) {
+        List<ItemStack> out = new ArrayList<>();
+        ConfigurationSection section = data.getConfigurationSection(path);
+        if (section == null) return out;
+        for (Object value : section.getList("items", List.of())) {
+            if (value instanceof ItemStack stack) {
+                out.add(stack);
+            }
+        }
+        return out;
+    }
+
+    private void save() {
+        try {
+            YamlUtil.saveUtf8(data, file);
+        } catch (IOException e) {
+            ConsoleLog.error(plugin, "Failed to save pending-returns.yml: " + e.getMessage(), e);
+        }
+    }
+}
@@ -7,6 +7,11 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -18,9 +23,15 @@ public final class TransactionSafetyGuard {
     public static final String ACTION_BULK_SELL = "bulk-sell";
 
     private static final double HARD_MAX_MONEY = 1_000_000_000_000D;
-    private static final Map<String, Long> COOLDOWNS = new ConcurrentHashMap<>();
-    private static final Map<String, Double> LAST_UNIT_PRICE = new ConcurrentHashMap<>();
-    private static final Map<UUID, PendingLargePurchase> PENDING_LARGE_PURCHASES = new ConcurrentHashMap<>();
+    // Remembered prices per action; the least recently traded items are forgotten first
+    private static final int PRICE_TABLE_CAPACITY = 4096;
+    private static final Map<UUID, CooldownRecord> COOLDOWNS = new ConcurrentHashMap<>();
+    private static final PriceTable[] LAST_UNIT_PRICE = {
+            new PriceTable(PRICE_TABLE_CAPACITY),
+            new PriceTable(PRICE_TABLE_CAPACITY),
+            new PriceTable(PRICE_TABLE_CAPACITY)
+    };
+    private static final ConfirmationWheel PENDING_LARGE_PURCHASES = new ConfirmationWheel();
     private static volatile long LAST_ADMIN_ALERT_AT = 0L;
 
     private TransactionSafetyGuard() {}
@@ -37,6 +48,128 @@ public final class TransactionSafetyGuard {
 
     private record PendingLargePurchase(String fingerprint, long expiresAtMillis, double total) {}
 
+    /**
+     * Last trade time of one player, one slot per action.
+     */
+    private static final class CooldownRecord {
+        private final long[] lastAt = new long[3];
+
+        synchronized long tryAcquire(int action, long now, long cooldownMs) {
+            long delta = now - lastAt[action];
+            if (delta < cooldownMs) {
+                return cooldownMs - delta;
+            }
+            lastAt[action] = now;
+            return 0L;
+        }
+    }
+
+    /**
+     * Pending confirmations bucketed by expiry second. Each call sweeps the buckets of the
+     * seconds that passed since the last one, so abandoned confirmations do not pile up.
+     */
+    private static final class ConfirmationWheel {
+        private static final int SLOTS = 64;
+
+        private final Map<UUID, PendingLargePurchase> pending = new HashMap<>();
+        private final List<List<UUID>> buckets = new ArrayList<>(SLOTS);
+        private long cursorSecond = -1L;
+
+        ConfirmationWheel() {
+            for (int i = 0; i < SLOTS; i++) {
+                buckets.add(new ArrayList<>(2));
+            }
+        }
+
+        synchronized PendingLargePurchase get(UUID playerId, long now) {
+            sweep(now);
+            return pending.get(playerId);
+        }
+
+        synchronized void put(UUID playerId, PendingLargePurchase purchase, long now) {
+            sweep(now);
+            pending.put(playerId, purchase);
+            buckets.get(slot(purchase.expiresAtMillis() / 1000L)).add(playerId);
+        }
+
+        synchronized void remove(UUID playerId) {
+            // Its bucket entry is dropped when the wheel passes it
+            pending.remove(playerId);
+        }
+
+        private void sweep(long now) {
+            long second = now / 1000L;
+            if (cursorSecond < 0L || second - cursorSecond > SLOTS) {
+                cursorSecond = second - SLOTS;
+            }
+            for (; cursorSecond < second; cursorSecond++) {
+                int slot = slot(cursorSecond);
+                Iterator<UUID> it = buckets.get(slot).iterator();
+                while (it.hasNext()) {
+                    UUID playerId = it.next();
+                    PendingLargePurchase purchase = pending.get(playerId);
+                    if (purchase == null || slot(purchase.expiresAtMillis() / 1000L) != slot) {
+                        it.remove(); // confirmed, replaced or removed
+                    } else if (purchase.expiresAtMillis() < now) {
+                        pending.remove(playerId);
+                        it.remove();
+                    }
+                }
+            }
+        }
+
+        private static int slot(long second) {
+            return (int) Math.floorMod(second, (long) SLOTS);
+        }
+    }
+
+    /**
+     * Last successful unit price per item for one action, bounded to a fixed number of items.
+     */
+    private static final class PriceTable {
+        private final Map<String, Double> prices;
+
+        PriceTable(int capacity) {
+            this.prices = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized Double get(String itemKey) {
+            return prices.get(itemKey);
+        }
+
+        synchronized void put(String itemKey, double unitPrice) {
+            prices.put(itemKey, unitPrice);
+        }
+    }
+
+    /**
+     * Drops a player's cooldowns and pending confirmation, e.g. when they leave.
+     */
+    public static void forget(UUID playerId) {
+        COOLDOWNS.remove(playerId);
+        PENDING_LARGE_PURCHASES.remove(playerId);
+    }
+
+    private static EconomySafetySettings settings(ShopPlugin plugin) {
+        EconomySafetySettings settings = plugin.getEconomySafetySettings();
+        // Not published yet (or a bare plugin in tests): read the live config
+        return settings != null ? settings : EconomySafetySettings.from(plugin.getConfig());
+    }
+
+    private static int actionIndex(String action) {
+        return switch (action) {
+            case ACTION_BUY -> 0;
+            case ACTION_SELL -> 1;
+            case ACTION_BULK_SELL -> 2;
+            default -> -1;
+        };
+    }
+
     public static GuardResult validateTransaction(
             ShopPlugin plugin,
             Player player,
@@ -67,16 +200,17 @@ public final class TransactionSafetyGuard {
             return reject(plugin, player, action, shopKey, itemKey, material, total, "Unit price violates configured floor/ceiling.");
         }
 
-        if (!plugin.getConfig().getBoolean("economy-safety.enabled", true)) {
+        EconomySafetySettings settings = settings(plugin);
+        if (!settings.enabled()) {
             return GuardResult.ok();
         }
 
-        double maxTransactionValue = plugin.getConfig().getDouble("economy-safety.max-transaction-value", 0D);
+        double maxTransactionValue = settings.maxTransactionValue();
         if (maxTransactionValue > 0D && total > maxTransactionValue) {
             return reject(plugin, player, action, shopKey, itemKey, material, total, "Transaction exceeds max-transaction-value.");
         }
 
-        double maxUnitPrice = plugin.getConfig().getDouble("economy-safety.max-unit-price", 0D);
+        double maxUnitPrice = settings.maxUnitPrice();
         if (maxUnitPrice > 0D && unitPrice > maxUnitPrice) {
             return reject(plugin, player, action, shopKey, itemKey, material, total, "Unit price exceeds max-unit-price.");
         }
@@ -90,9 +224,9 @@ public final class TransactionSafetyGuard {
             }
         }
 
-        if (plugin.getConfig().getBoolean("economy-safety.anti-spike.enabled", true)) {
-            double maxBaseMultiplier = plugin.getConfig().getDouble("economy-safety.anti-spike.max-base-multiplier", 10.0D);
-            double minBaseMultiplier = plugin.getConfig().getDouble("economy-safety.anti-spike.min-base-multiplier", 0.0D);
+        if (settings.antiSpikeEnabled()) {
+            double maxBaseMultiplier = settings.maxBaseMultiplier();
+            double minBaseMultiplier = settings.minBaseMultiplier();
             if (baseUnitPrice > 0D) {
                 if (maxBaseMultiplier > 0D && unitPrice > baseUnitPrice * maxBaseMultiplier) {
                     return reject(plugin, player, action, shopKey, itemKey, material, total, "Anti-spike: unit price above base multiplier.");
@@ -102,10 +236,10 @@ public final class TransactionSafetyGuard {
                 }
             }
 
-            if (itemKey != null && !itemKey.isEmpty()) {
-                String priceKey = action + ":" + itemKey;
-                Double previous = LAST_UNIT_PRICE.get(priceKey);
-                double maxStepChangeRatio = plugin.getConfig().getDouble("economy-safety.anti-spike.max-step-change-ratio", 5.0D);
+            int actionIndex = actionIndex(action);
+            if (itemKey != null && !itemKey.isEmpty() && actionIndex >= 0) {
+                Double previous = LAST_UNIT_PRICE[actionIndex].get(itemKey);
+                double maxStepChangeRatio = settings.maxStepChangeRatio();
                 if (previous != null && previous > 0D && maxStepChangeRatio >= 0D) {
                     double step = Math.abs(unitPrice - previous) / previous;
                     if (step > maxStepChangeRatio) {
@@ -119,34 +253,26 @@ public final class TransactionSafetyGuard {
     }
 
     public static GuardResult checkCooldown(ShopPlugin plugin, Player player, String action) {
-        if (!plugin.getConfig().getBoolean("economy-safety.enabled", true)) {
-            return GuardResult.ok();
-        }
-        if (!plugin.getConfig().getBoolean("economy-safety.cooldowns.enabled", true)) {
+        EconomySafetySettings settings = settings(plugin);
+        if (!settings.enabled() || !settings.cooldownsEnabled()) {
             return GuardResult.ok();
         }
 
-        long cooldownMs = switch (action) {
-            case ACTION_BUY -> plugin.getConfig().getLong("economy-safety.cooldowns.buy-ms", 0L);
-            case ACTION_SELL -> plugin.getConfig().getLong("economy-safety.cooldowns.sell-ms", 0L);
-            case ACTION_BULK_SELL -> plugin.getConfig().getLong("economy-safety.cooldowns.bulk-sell-ms", 0L);
-            default -> 0L;
-        };
+        long cooldownMs = settings.cooldownMs(action);
         if (cooldownMs <= 0L) return GuardResult.ok();
 
+        int actionIndex = actionIndex(action);
         long now = System.currentTimeMillis();
-        String key = player.getUniqueId() + ":" + action;
-        long last = COOLDOWNS.getOrDefault(key, 0L);
-        long delta = now - last;
-        if (delta < cooldownMs) {
-            long remaining = Math.max(1L, (cooldownMs - delta + 999L) / 1000L);
+        CooldownRecord record = COOLDOWNS.computeIfAbsent(player.getUniqueId(), k -> new CooldownRecord());
+        long waitMs = record.tryAcquire(actionIndex, now, cooldownMs);
+        if (waitMs > 0L) {
+            long remaining = Math.max(1L, (waitMs + 999L) / 1000L);
             return GuardResult.fail(
                     plugin.getMessages().getMessage("safety-cooldown")
                             .replace("%seconds%", String.valueOf(remaining))
                             .replace("%action%", action)
             );
         }
-        COOLDOWNS.put(key, now);
         return GuardResult.ok();
     }
 
@@ -158,30 +284,28 @@ public final class TransactionSafetyGuard {
             int amount,
             double total
     ) {
-        if (!plugin.getConfig().getBoolean("economy-safety.enabled", true)) {
-            return GuardResult.ok();
-        }
-        if (!plugin.getConfig().getBoolean("economy-safety.large-purchase-confirmation.enabled", false)) {
+        EconomySafetySettings settings = settings(plugin);
+        if (!settings.enabled() || !settings.largePurchaseConfirmation()) {
             return GuardResult.ok();
         }
 
-        double threshold = plugin.getConfig().getDouble("economy-safety.large-purchase-confirmation.threshold", 0D);
+        double threshold = settings.largePurchaseThreshold();
         if (threshold <= 0D || total < threshold) {
             PENDING_LARGE_PURCHASES.remove(player.getUniqueId());
             return GuardResult.ok();
         }
 
-        long timeoutSeconds = Math.max(1L, plugin.getConfig().getLong("economy-safety.large-purchase-confirmation.timeout-seconds", 10L));
+        long timeoutSeconds = settings.largePurchaseTimeoutSeconds();
         long now = System.currentTimeMillis();
         String fingerprint = buildFingerprint(itemKey, material, amount, total);
-        PendingLargePurchase pending = PENDING_LARGE_PURCHASES.get(player.getUniqueId());
+        PendingLargePurchase pending = PENDING_LARGE_PURCHASES.get(player.getUniqueId(), now);
         if (pending != null && pending.expiresAtMillis() >= now && pending.fingerprint().equals(fingerprint)) {
             PENDING_LARGE_PURCHASES.remove(player.getUniqueId());
             return GuardResult.ok();
         }
 
         long expiresAt = now + (timeoutSeconds * 1000L);
-        PENDING_LARGE_PURCHASES.put(player.getUniqueId(), new PendingLargePurchase(fingerprint, expiresAt, total));
+        PENDING_LARGE_PURCHASES.put(player.getUniqueId(), new PendingLargePurchase(fingerprint, expiresAt, total), now);
         return GuardResult.fail(
                 plugin.getMessages().getMessage("safety-large-purchase-confirm")
                         .replace("%total%", plugin.formatCurrency(total))
@@ -192,7 +316,9 @@ public final class TransactionSafetyGuard {
     public static void rememberSuccessfulUnitPrice(String action, String itemKey, double unitPrice) {
         if (itemKey == null || itemKey.isEmpty()) return;
         if (!isValidMoney(unitPrice)) return;
-        LAST_UNIT_PRICE.put(action + ":" + itemKey, unitPrice);
+        int actionIndex = actionIndex(action);
+        if (actionIndex < 0) return;
+        LAST_UNIT_PRICE[actionIndex].put(itemKey, unitPrice);
     }
 
     private static GuardResult reject(
@@ -254,14 +380,15 @@ public final class TransactionSafetyGuard {
             double total,
             String reason
     ) {
-        if (!plugin.getConfig().getBoolean("economy-safety.admin-alerts.enabled", false)) return;
+        EconomySafetySettings settings = settings(plugin);
+        if (!settings.adminAlertsEnabled()) return;
 
-        long rateLimitMs = Math.max(0L, plugin.getConfig().getLong("economy-safety.admin-alerts.rate-limit-ms", 3000L));
+        long rateLimitMs = settings.adminAlertRateLimitMs();
         long now = System.currentTimeMillis();
         if (rateLimitMs > 0L && now - LAST_ADMIN_ALERT_AT < rateLimitMs) return;
         LAST_ADMIN_ALERT_AT = now;
 
-        String permission = plugin.getConfig().getString("economy-safety.admin-alerts.notify-permission", "geniusshop.admin");
+        String permission = settings.adminNotifyPermission();
         String msg = ShopItemUtil.color(
                 "&c[Shop Safety] &7" + action
                         + " &fplayer=&e" + playerName
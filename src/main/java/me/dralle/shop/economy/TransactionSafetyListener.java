@@ -0,0 +1,17 @@
+package me.dralle.shop.economy;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Releases per-player safety state when a player leaves.
+ */
+public class TransactionSafetyListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        TransactionSafetyGuard.forget(e.getPlayer().getUniqueId());
+    }
+}
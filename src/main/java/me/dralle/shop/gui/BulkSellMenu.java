@@ -1,7 +1,6 @@
 package me.dralle.shop.gui;
 
 import me.dralle.shop.ShopPlugin;
-import me.dralle.shop.ShopManager;
 import me.dralle.shop.economy.EconomyHook;
 import me.dralle.shop.economy.TransactionSafetyGuard;
 import me.dralle.shop.model.ShopData;
@@ -104,16 +103,16 @@ public class BulkSellMenu implements Listener {
 
     private void processSell(Player player, Inventory inv) {
         class SalePlan {
-            final int slot;
+            final InventorySellEngine.Sale sale;
             final int soldAmount;
             final double earned;
-            final ShopManager.SellInfo sellInfo;
+            boolean adjustedGlobal;
+            List<ItemStack> removed = List.of();
 
-            SalePlan(int slot, int soldAmount, double earned, ShopManager.SellInfo sellInfo) {
-                this.slot = slot;
+            SalePlan(InventorySellEngine.Sale sale, int soldAmount, double earned) {
+                this.sale = sale;
                 this.soldAmount = soldAmount;
                 this.earned = earned;
-                this.sellInfo = sellInfo;
             }
         }
 
@@ -130,85 +129,68 @@ public class BulkSellMenu implements Listener {
             return;
         }
 
-        for (int i = 0; i < inv.getSize(); i++) {
-            if (i == confirmSlot) continue;
-            ItemStack item = inv.getItem(i);
-            if (item == null || item.getType() == Material.AIR) continue;
-
-            ShopManager.SellInfo sellInfo = plugin.getShopManager().getBestSellInfo(player, item);
-            if (sellInfo != null) {
-                int amountToSell = item.getAmount();
-
-                // Check player limit
-                if (sellInfo.item.getLimit() > 0) {
-                    int current = plugin.getDataManager().getPlayerCount(player.getUniqueId(), sellInfo.item.getUniqueKey());
-                    if (current >= sellInfo.item.getLimit()) {
-                        continue; // Already at limit
-                    }
-                    if (current + amountToSell > sellInfo.item.getLimit()) {
-                        amountToSell = sellInfo.item.getLimit() - current;
-                    }
+        // One offer lookup and price resolution per distinct item, however many stacks it spans
+        List<InventorySellEngine.Group> groups = InventorySellEngine.scan(inv, confirmSlot);
+        for (InventorySellEngine.Sale sale : InventorySellEngine.plan(plugin, player, groups)) {
+            InventorySellEngine.Offer offer = sale.offer();
+            ShopItem shopItem = offer.item();
+            int amountToSell = sale.available();
+
+            // Check player limit
+            if (shopItem.getLimit() > 0) {
+                int current = plugin.getDataManager().getPlayerCount(player.getUniqueId(), shopItem.getUniqueKey());
+                if (current >= shopItem.getLimit()) {
+                    continue; // Already at limit
                 }
-
-                // Note: We don't check globalLimit here because selling generally INCREASES the available global limit (replenishes stock).
-                ShopData shopData = sellInfo.shopKey != null ? plugin.getShopManager().getShop(sellInfo.shopKey) : null;
-                boolean sellAddsToStock = resolveSellAddsToStock(shopData, sellInfo.item);
-                boolean allowSellStockOverflow = resolveAllowSellStockOverflow(shopData, sellInfo.item);
-                if (sellAddsToStock && sellInfo.item.getGlobalLimit() > 0 && !allowSellStockOverflow) {
-                    int current = plugin.getDataManager().getGlobalCount(sellInfo.item.getUniqueKey());
-                    int maxCanReplenish = Math.max(0, current);
-                    if (maxCanReplenish <= 0) {
-                        stockLimitSkipped = true;
-                        continue;
-                    }
-                    if (amountToSell > maxCanReplenish) {
-                        amountToSell = maxCanReplenish;
-                        stockLimitSkipped = true;
-                    }
+                if (current + amountToSell > shopItem.getLimit()) {
+                    amountToSell = shopItem.getLimit() - current;
                 }
-                if (amountToSell <= 0) {
+            }
+
+            // Note: We don't check globalLimit here because selling generally INCREASES the available global limit (replenishes stock).
+            boolean sellAddsToStock = resolveSellAddsToStock(offer.shop(), shopItem);
+            boolean allowSellStockOverflow = resolveAllowSellStockOverflow(offer.shop(), shopItem);
+            if (sellAddsToStock && shopItem.getGlobalLimit() > 0 && !allowSellStockOverflow) {
+                int current = plugin.getDataManager().getGlobalCount(shopItem.getUniqueKey());
+                int maxCanReplenish = Math.max(0, current);
+                if (maxCanReplenish <= 0) {
                     stockLimitSkipped = true;
                     continue;
                 }
-
-                int sellUnitAmount = Math.max(1, sellInfo.item.getAmount());
-                ShopData priceShop = sellInfo.shopKey != null ? plugin.getShopManager().getShop(sellInfo.shopKey) : null;
-                double effectiveUnitPrice = calculateCurrentSellPrice(priceShop, sellInfo.item);
-                double price = sellInfo.item.isSellPricePerItem()
-                        ? effectiveUnitPrice * amountToSell
-                        : effectiveUnitPrice * (amountToSell / (double) sellUnitAmount);
-                double effectiveMinPrice = sellInfo.item.getMinPrice();
-                double effectiveMaxPrice = sellInfo.item.getMaxPrice();
-                double campaignMultiplier = CampaignUtil.getActiveSellMultiplier(priceShop, sellInfo.item);
-                if (effectiveMinPrice > 0D) effectiveMinPrice *= campaignMultiplier;
-                if (effectiveMaxPrice > 0D) effectiveMaxPrice *= campaignMultiplier;
-
-                boolean effectiveDynamicPricing = sellInfo.item.isDynamicPricing()
-                        || (sellInfo.item.getSellPriceFormula() != null && !sellInfo.item.getSellPriceFormula().trim().isEmpty());
-                TransactionSafetyGuard.GuardResult perItemGuard = TransactionSafetyGuard.validateTransaction(
-                        plugin,
-                        player,
-                        TransactionSafetyGuard.ACTION_SELL,
-                        sellInfo.shopKey,
-                        sellInfo.item.getUniqueKey(),
-                        sellInfo.item.getMaterial(),
-                        amountToSell,
-                        effectiveUnitPrice,
-                        PriceFormulaUtil.resolveSellBasePrice(plugin, sellInfo.item),
-                        price,
-                        effectiveDynamicPricing,
-                        effectiveMinPrice,
-                        effectiveMaxPrice
-                );
-                if (!perItemGuard.allowed()) {
-                    safetySkipped = true;
-                    continue;
+                if (amountToSell > maxCanReplenish) {
+                    amountToSell = maxCanReplenish;
+                    stockLimitSkipped = true;
                 }
+            }
+            if (amountToSell <= 0) {
+                stockLimitSkipped = true;
+                continue;
+            }
 
-                totalEarned += price;
-                totalItemsSold += amountToSell;
-                plans.add(new SalePlan(i, amountToSell, price, sellInfo));
+            double price = offer.total(amountToSell);
+            TransactionSafetyGuard.GuardResult perItemGuard = TransactionSafetyGuard.validateTransaction(
+                    plugin,
+                    player,
+                    TransactionSafetyGuard.ACTION_SELL,
+                    offer.shopKey(),
+                    shopItem.getUniqueKey(),
+                    shopItem.getMaterial(),
+                    amountToSell,
+                    offer.unitPrice(),
+                    offer.baseUnitPrice(),
+                    price,
+                    offer.dynamicPricing(),
+                    offer.minPrice(),
+                    offer.maxPrice()
+            );
+            if (!perItemGuard.allowed()) {
+                safetySkipped = true;
+                continue;
             }
+
+            totalEarned += price;
+            totalItemsSold += amountToSell;
+            plans.add(new SalePlan(sale, amountToSell, price));
         }
 
         if (totalEarned > 0) {
@@ -232,8 +214,8 @@ public class BulkSellMenu implements Listener {
                 return;
             }
 
-            EconomyHook.EconomyOperationResult depositResult = plugin.getEconomy().tryDeposit(player, totalEarned);
-            if (!depositResult.success()) {
+            EconomyHook eco = plugin.getEconomy();
+            if (!eco.isReady()) {
                 TransactionSafetyGuard.auditEconomyFailure(
                         plugin,
                         player,
@@ -242,49 +224,81 @@ public class BulkSellMenu implements Listener {
                         null,
                         Material.AIR,
                         totalEarned,
-                        depositResult.errorMessage()
+                        "Economy provider is not ready."
                 );
                 player.sendMessage(plugin.getMessages().getMessage("economy-error-bulk-sell"));
                 return;
             }
 
             for (SalePlan plan : plans) {
+                InventorySellEngine.Offer offer = plan.sale.offer();
+                ShopItem shopItem = offer.item();
+
                 // Fire ShopSellEvent
-                ShopSellEvent sellEvent = new ShopSellEvent(player, plan.sellInfo.item, plan.soldAmount, plan.earned, plan.sellInfo.shopKey);
+                ShopSellEvent sellEvent = new ShopSellEvent(player, shopItem, plan.soldAmount, plan.earned, offer.shopKey());
                 Bukkit.getPluginManager().callEvent(sellEvent);
 
                 // Update counts
-                plugin.getDataManager().incrementPlayerCount(player.getUniqueId(), plan.sellInfo.item.getUniqueKey(), plan.soldAmount);
-                ShopData shopData = plan.sellInfo.shopKey != null ? plugin.getShopManager().getShop(plan.sellInfo.shopKey) : null;
-                boolean sellAddsToStock = resolveSellAddsToStock(shopData, plan.sellInfo.item);
-                boolean adjustForStock = plan.sellInfo.item.getGlobalLimit() > 0 && sellAddsToStock;
-                boolean adjustForDynamicPricingOnly = plan.sellInfo.item.isDynamicPricing() && plan.sellInfo.item.getGlobalLimit() <= 0;
-                if (adjustForStock || adjustForDynamicPricingOnly) {
-                    plugin.getDataManager().incrementGlobalCount(plan.sellInfo.item.getUniqueKey(), -plan.soldAmount);
+                plugin.getDataManager().incrementPlayerCount(player.getUniqueId(), shopItem.getUniqueKey(), plan.soldAmount);
+                boolean sellAddsToStock = resolveSellAddsToStock(offer.shop(), shopItem);
+                boolean adjustForStock = shopItem.getGlobalLimit() > 0 && sellAddsToStock;
+                boolean adjustForDynamicPricingOnly = shopItem.isDynamicPricing() && shopItem.getGlobalLimit() <= 0;
+                plan.adjustedGlobal = adjustForStock || adjustForDynamicPricingOnly;
+                if (plan.adjustedGlobal) {
+                    plugin.getDataManager().incrementGlobalCount(shopItem.getUniqueKey(), -plan.soldAmount);
                 }
+                plugin.getGenericShopGui().requestRefresh(offer.shopKey(), shopItem.getUniqueKey());
                 TransactionSafetyGuard.rememberSuccessfulUnitPrice(
                         TransactionSafetyGuard.ACTION_SELL,
-                        plan.sellInfo.item.getUniqueKey(),
-                        plan.sellInfo.item.isDynamicPricing()
-                                ? calculateCurrentSellPrice(
-                                        plan.sellInfo.shopKey != null ? plugin.getShopManager().getShop(plan.sellInfo.shopKey) : null,
-                                        plan.sellInfo.item
-                                )
-                                : CampaignUtil.applySellCampaign(
-                                        plan.sellInfo.shopKey != null ? plugin.getShopManager().getShop(plan.sellInfo.shopKey) : null,
-                                        plan.sellInfo.item,
-                                        plan.sellInfo.item.getSellPrice()
-                                )
+                        shopItem.getUniqueKey(),
+                        shopItem.isDynamicPricing()
+                                ? calculateCurrentSellPrice(offer.shop(), shopItem)
+                                : CampaignUtil.applySellCampaign(offer.shop(), shopItem, shopItem.getSellPrice())
                 );
 
-                ItemStack original = inv.getItem(plan.slot);
-                if (original == null || original.getType() == Material.AIR) continue;
-                if (plan.soldAmount < original.getAmount()) {
-                    original.setAmount(original.getAmount() - plan.soldAmount);
-                } else {
-                    inv.setItem(plan.slot, null); // Clear from GUI so it's not returned on close
-                }
+                // Clear sold stacks from the GUI so they are not returned on close
+                plan.removed = InventorySellEngine.take(inv, plan.sale.groups(), plan.soldAmount);
             }
+
+            double settledTotal = totalEarned;
+            plugin.getEconomySettlement().deposit(
+                    player,
+                    totalEarned,
+                    () -> {
+                        for (SalePlan plan : plans) {
+                            plugin.getDataManager().recordTransaction(
+                                    player,
+                                    plan.sale.offer().shopKey(),
+                                    plan.sale.offer().item().getUniqueKey(),
+                                    TransactionSafetyGuard.ACTION_BULK_SELL,
+                                    plan.soldAmount,
+                                    plan.earned
+                            );
+                        }
+                    },
+                    reason -> {
+                        TransactionSafetyGuard.auditEconomyFailure(
+                                plugin,
+                                player,
+                                "bulk-deposit",
+                                null,
+                                null,
+                                Material.AIR,
+                                settledTotal,
+                                reason
+                        );
+                        for (SalePlan plan : plans) {
+                            String itemKey = plan.sale.offer().item().getUniqueKey();
+                            plugin.getDataManager().incrementPlayerCount(player.getUniqueId(), itemKey, -plan.soldAmount);
+                            if (plan.adjustedGlobal) {
+                                plugin.getDataManager().incrementGlobalCount(itemKey, plan.soldAmount);
+                            }
+                            InventorySellEngine.giveBack(plugin, player, plan.removed);
+                            plugin.getGenericShopGui().requestRefresh(plan.sale.offer().shopKey(), itemKey);
+                        }
+                        player.sendMessage(plugin.getMessages().getMessage("economy-error-bulk-sell"));
+                    }
+            );
             
             String msg = plugin.getMessages().getMessage("sell-all-success")
                     .replace("%amount%", String.valueOf(totalItemsSold))
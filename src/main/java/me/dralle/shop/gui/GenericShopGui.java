@@ -25,9 +25,12 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.metadata.FixedMetadataValue;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.time.Instant;
 import java.time.Duration;
 
@@ -36,6 +39,7 @@ public class GenericShopGui implements Listener {
     public static class GenericShopHolder implements InventoryHolder {
         private final String shopKey;
         private final int page;
+        private RenderSnapshot renderSnapshot; // main thread only
 
         public GenericShopHolder(String shopKey, int page) {
             this.shopKey = shopKey;
@@ -68,10 +72,49 @@ public class GenericShopGui implements Listener {
         public Inventory getInventory() { return null; }
     }
 
+    /**
+     * What the shop slots of an open page were last rendered from, so a refresh only
+     * touches slots whose lore inputs changed.
+     */
+    private static final class RenderSnapshot {
+        private final ShopData shop;
+        private final LoreTemplate template;
+        private final long[] slotHashes;
+        // Unique keys each slot was rendered from (several for a variant group)
+        private final String[][] slotItemKeys;
+
+        private RenderSnapshot(ShopData shop, LoreTemplate template, long[] slotHashes, String[][] slotItemKeys) {
+            this.shop = shop;
+            this.template = template;
+            this.slotHashes = slotHashes;
+            this.slotItemKeys = slotItemKeys;
+        }
+    }
+
+    private record SharedSlot(long hash, ItemStack stack) {}
+
+    /**
+     * Rendered stacks of one shop, by absolute slot, shared by every viewer whose slot inputs match.
+     */
+    private static final class ShopRenderCache {
+        private final ShopData shop;
+        private final LoreTemplate template;
+        private final Map<Integer, SharedSlot> slots = new HashMap<>();
+
+        private ShopRenderCache(ShopData shop, LoreTemplate template) {
+            this.shop = shop;
+            this.template = template;
+        }
+    }
+
+    private static final String[] NO_KEYS = new String[0];
+
     private final ShopPlugin plugin;
+    private final ShopRefreshBus refreshBus = new ShopRefreshBus();
+    private final Map<String, ShopRenderCache> sharedRenders = new HashMap<>(); // main thread only
     private int refreshTaskId = -1;
-    private volatile boolean refreshDirty = true;
     private volatile long lastRefreshAtMillis = 0L;
+    private volatile LoreTemplate loreTemplate;
 
     public GenericShopGui(ShopPlugin plugin) {
         this.plugin = plugin;
@@ -83,11 +126,11 @@ public class GenericShopGui implements Listener {
      */
     private ItemStack createGuiItem(Player viewer, ShopItem si, String shopKey, String availableTimesStr, String currency, ShopData shop) {
         List<String> lore = new ArrayList<>();
-        List<String> format = plugin.getMenuManager().getGuiSettingsConfig().getStringList("gui.item-lore.lore-format");
+        LoreTemplate template = loreTemplate();
 
-        if (format == null || format.isEmpty()) {
+        if (template.legacyLayout) {
             // Default legacy behavior
-            addPriceLines(lore, si, currency, shop);
+            addPriceLines(lore, template, si, shop);
 
             // Check if item has special properties (spawner, potion, enchantments, or custom lore)
             boolean hasSpecialProperties = si.getSpawnerType() != null ||
@@ -102,11 +145,11 @@ public class GenericShopGui implements Listener {
             }
 
             // Add custom item lore from shop config
-            addCustomLore(lore, viewer, si, availableTimesStr);
+            addCustomLore(lore, template, viewer, si, availableTimesStr);
 
-            addSpawnerTypeLine(lore, si);
-            addSpawnerItemLine(lore, si);
-            addPotionTypeLine(lore, si);
+            addSpawnerTypeLine(lore, template, si);
+            addSpawnerItemLine(lore, template, si);
+            addPotionTypeLine(lore, template, si);
 
             // Add empty line after special properties if they exist
             if (hasSpecialProperties) {
@@ -114,66 +157,30 @@ public class GenericShopGui implements Listener {
             }
 
             // Configurable hint lines
-            addHintLines(lore, si, currency, shop);
+            addHintLines(lore, template, si, shop);
         } else {
-            for (String line : format) {
-                switch (line) {
-                    case "%price-line%":
-                        addPriceLines(lore, si, currency, shop);
-                        break;
-                    case "%buy-price-line%":
-                        addPriceLine(lore, si, currency, true, shop);
-                        break;
-                    case "%sell-price-line%":
-                        addPriceLine(lore, si, currency, false, shop);
-                        break;
-                    case "%custom-lore%":
-                        addCustomLore(lore, viewer, si, availableTimesStr);
-                        break;
-                    case "%spawner-type-line%":
-                        addSpawnerTypeLine(lore, si);
-                        break;
-                    case "%spawner-item-line%":
-                        addSpawnerItemLine(lore, si);
-                        break;
-                    case "%potion-type-line%":
-                        addPotionTypeLine(lore, si);
-                        break;
-                    case "%stock-reset-timer-line%":
-                    case "%stock-reset-timer%":
-                        addStockResetTimerLine(lore, si, shopKey);
-                        break;
-                    case "%global-limit%":
-                    case "%global-limit-line%":
-                        addGlobalLimitLine(lore, si);
-                        break;
-                    case "%player-limit%":
-                    case "%player-limit-line%":
-                        addPlayerLimitLine(lore, viewer, si);
-                        break;
-                    case "%hint-line%":
-                        addHintLines(lore, si, currency, shop);
-                        break;
-                    case "%buy-hint-line%":
-                        addHintLine(lore, si, currency, true, shop);
-                        break;
-                    case "%sell-hint-line%":
-                        addHintLine(lore, si, currency, false, shop);
-                        break;
-                    default:
-                        if (line.isEmpty()) {
-                            lore.add("");
-                        } else {
-                            lore.add(ShopItemUtil.color(line));
-                        }
-                        break;
+            for (LoreTemplate.Segment segment : template.segments) {
+                switch (segment.slot()) {
+                    case PRICE_LINES -> addPriceLines(lore, template, si, shop);
+                    case BUY_PRICE_LINE -> addPriceLine(lore, template, si, true, shop);
+                    case SELL_PRICE_LINE -> addPriceLine(lore, template, si, false, shop);
+                    case CUSTOM_LORE -> addCustomLore(lore, template, viewer, si, availableTimesStr);
+                    case SPAWNER_TYPE_LINE -> addSpawnerTypeLine(lore, template, si);
+                    case SPAWNER_ITEM_LINE -> addSpawnerItemLine(lore, template, si);
+                    case POTION_TYPE_LINE -> addPotionTypeLine(lore, template, si);
+                    case STOCK_RESET_TIMER_LINE -> addStockResetTimerLine(lore, template, si, shopKey);
+                    case GLOBAL_LIMIT_LINE -> addGlobalLimitLine(lore, template, si);
+                    case PLAYER_LIMIT_LINE -> addPlayerLimitLine(lore, template, viewer, si);
+                    case HINT_LINES -> addHintLines(lore, template, si, shop);
+                    case BUY_HINT_LINE -> addHintLine(lore, template, si, true, shop);
+                    case SELL_HINT_LINE -> addHintLine(lore, template, si, false, shop);
+                    case STATIC -> lore.add(segment.line());
                 }
             }
         }
 
-        ItemStack item = ShopItemUtil.deserializeItemStack(si.getItemStackData());
+        ItemStack item = si.copyTemplateStack();
         if (item != null) {
-            item = item.clone();
             item.setAmount(Math.max(1, Math.min(si.getAmount(), item.getMaxStackSize())));
             item = ShopItemUtil.create(item, si.getName(), lore);
         } else if (si.isSpawner()) {
@@ -308,7 +315,7 @@ public class GenericShopGui implements Listener {
             }
         }
 
-        if (!ShopTimeUtil.isShopAvailable(item.getAvailableTimes())) {
+        if (!item.getTimeRestriction().isOpen()) {
             String available = ShopTimeUtil.formatAvailableTimes(item.getAvailableTimes(), plugin);
             player.sendMessage(plugin.getMessages().getMessage("shop-not-available")
                     .replace("%shop%", item.getName() != null ? ShopItemUtil.color(item.getName()) : item.getMaterial().name())
@@ -367,7 +374,7 @@ public class GenericShopGui implements Listener {
         }
 
         // Time restriction check
-        if (!ShopTimeUtil.isShopAvailable(shop.getAvailableTimes())) {
+        if (!shop.getTimeRestriction().isOpen()) {
             String availableTimes = ShopTimeUtil.formatAvailableTimes(shop.getAvailableTimes(), plugin);
             plugin.debug("Shop " + shopKey + " not available. Restrictions: " + shop.getAvailableTimes());
             player.sendMessage(
@@ -407,32 +414,11 @@ public class GenericShopGui implements Listener {
         if (page > totalPages) page = totalPages;
 
         String title = me.dralle.shop.util.BedrockUtil.formatTitle(player, ShopItemUtil.color(shop.getGuiName() + " &7(" + page + "/" + totalPages + ")"));
-        Inventory inv = Bukkit.createInventory(new GenericShopHolder(shopKey, page), totalSlots, title);
-
-        String currency = plugin.getCurrencySymbol();
-        String availableTimesStr = ShopTimeUtil.formatAvailableTimes(shop.getAvailableTimes(), plugin);
+        GenericShopHolder holder = new GenericShopHolder(shopKey, page);
+        Inventory inv = Bukkit.createInventory(holder, totalSlots, title);
 
         // Fill items
-        int start = (page - 1) * usableSlots;
-        int end = start + usableSlots;
-        Map<Integer, VariantGroupData> variantGroupsBySlot = buildVariantGroups(shop, player, start, end);
-
-        for (int absoluteSlot = start; absoluteSlot < end; absoluteSlot++) {
-            ShopItem si = shop.getItemBySlot(absoluteSlot);
-            if (si == null) continue;
-
-            if (si.getPermission() != null && !si.getPermission().isEmpty() && !player.hasPermission(si.getPermission())) {
-                continue;
-            }
-            ItemConditionUtil.ConditionResult condition = ItemConditionUtil.check(plugin, player, si);
-            if (!condition.allowed()) continue;
-
-            inv.setItem(absoluteSlot - start, createGuiItem(player, si, shopKey, availableTimesStr, currency, shop));
-        }
-
-        for (VariantGroupData group : variantGroupsBySlot.values()) {
-            inv.setItem(group.slot - start, createVariantGroupIcon(player, shop, shopKey, availableTimesStr, currency, group));
-        }
+        renderShopSlots(player, inv, holder, shop, usableSlots, null);
 
         // Navigation slots
         int nav = totalSlots - 9;
@@ -574,50 +560,51 @@ if (page < totalPages) {
         ShopItem selected = holder.getVariants().get(slot);
         handleShopItemAction(player, selected, shopKey, returnPage, clickType);
     }
-    private void addPriceLines(List<String> lore, ShopItem si, String currency) {
-        ShopData shop = null;
-        addPriceLine(lore, si, currency, true, shop);
-        addPriceLine(lore, si, currency, false, shop);
-    }
-
-    private void addPriceLines(List<String> lore, ShopItem si, String currency, ShopData shop) {
-        addPriceLine(lore, si, currency, true, shop);
-        addPriceLine(lore, si, currency, false, shop);
+    private void addPriceLines(List<String> lore, LoreTemplate template, ShopItem si, ShopData shop) {
+        addPriceLine(lore, template, si, true, shop);
+        addPriceLine(lore, template, si, false, shop);
     }
 
-    private void addPriceLine(List<String> lore, ShopItem si, String currency, boolean buy, ShopData shop) {
+    private void addPriceLine(List<String> lore, LoreTemplate template, ShopItem si, boolean buy, ShopData shop) {
         if (buy) {
+            if (!template.showBuyPrice) return;
             double displayBuy = getDisplayBuyPriceForAmount(shop, si);
-            if (plugin.getMenuManager().getGuiSettingsConfig().getBoolean("gui.item-lore.show-buy-price", true) && displayBuy > 0) {
-                String buyPriceLine = plugin.getMenuManager().getGuiSettingsConfig().getString("gui.item-lore.buy-price-line", "&6Buy Price: &a%price%");
+            if (displayBuy > 0) {
                 double baseBuy = getBaseBuyPriceForAmount(si);
                 String displayText = formatCampaignPrice(baseBuy, displayBuy);
-                String processed = buyPriceLine.replace("%price%", displayText);
-                lore.addAll(ShopItemUtil.splitAndColor(processed));
+                lore.addAll(ShopItemUtil.splitAndColor(template.buyPriceLine.fill(displayText)));
             }
         } else {
+            if (!template.showSellPrice) return;
             Double displaySell = getDisplaySellPriceForAmount(shop, si);
-            if (plugin.getMenuManager().getGuiSettingsConfig().getBoolean("gui.item-lore.show-sell-price", true) && displaySell != null && displaySell > 0) {
-                String sellPriceLine = plugin.getMenuManager().getGuiSettingsConfig().getString("gui.item-lore.sell-price-line", "&cSell Price: &a%sell-price%");
+            if (displaySell != null && displaySell > 0) {
                 Double baseSell = getBaseSellPriceForAmount(si);
                 String displayText = formatCampaignPrice(baseSell != null ? baseSell : displaySell, displaySell);
-                String processed = sellPriceLine.replace("%sell-price%", displayText);
-                lore.addAll(ShopItemUtil.splitAndColor(processed));
+                lore.addAll(ShopItemUtil.splitAndColor(template.sellPriceLine.fill(displayText)));
             }
         }
     }
 
-    private void addCustomLore(List<String> lore, Player viewer, ShopItem si, String shopAvailableTimesStr) {
+    private void addCustomLore(List<String> lore, LoreTemplate template, Player viewer, ShopItem si, String shopAvailableTimesStr) {
         if (si.getLore() != null && !si.getLore().isEmpty()) {
-            String itemAvailableTimesStr = shopAvailableTimesStr;
-            if (si.getAvailableTimes() != null && !si.getAvailableTimes().isEmpty()) {
-                itemAvailableTimesStr = ShopTimeUtil.formatAvailableTimes(si.getAvailableTimes(), plugin);
-            }
-
-            String globalLimitStr = si.getGlobalLimit() > 0 ? formatGlobalLimitValue(si) : "";
-            String playerLimitStr = si.getLimit() > 0 ? formatPlayerLimitValue(viewer, si) : "";
+            String itemAvailableTimesStr = null;
+            String globalLimitStr = null;
+            String playerLimitStr = null;
 
             for (String loreLine : si.getLore()) {
+                if (loreLine.indexOf('%') < 0) {
+                    lore.addAll(ShopItemUtil.splitAndColor(loreLine));
+                    continue;
+                }
+                // Placeholder values are resolved once per item, and only when some line uses them
+                if (itemAvailableTimesStr == null) {
+                    itemAvailableTimesStr = shopAvailableTimesStr;
+                    if (si.getAvailableTimes() != null && !si.getAvailableTimes().isEmpty()) {
+                        itemAvailableTimesStr = ShopTimeUtil.formatAvailableTimes(si.getAvailableTimes(), plugin);
+                    }
+                    globalLimitStr = si.getGlobalLimit() > 0 ? formatGlobalLimitValue(template, si) : "";
+                    playerLimitStr = si.getLimit() > 0 ? formatPlayerLimitValue(template, viewer, si) : "";
+                }
                 String processed = loreLine
                         .replace("%available-times%", itemAvailableTimesStr)
                         .replace("%global-limit%", globalLimitStr)
@@ -629,7 +616,7 @@ if (page < totalPages) {
         }
     }
 
-    private String getStockResetTimerText(ShopItem item, String shopKey) {
+    private String getStockResetTimerText(LoreTemplate template, ShopItem item, String shopKey) {
         if (!item.isShowStockResetTimer()) return "";
         StockResetRule rule = item.getStockResetRule();
         if (rule == null || !rule.isEnabled()) return "";
@@ -640,10 +627,8 @@ if (page < totalPages) {
         Instant next = rule.getNextResetInstant(now, lastRun);
         if (next == null) return "";
 
-        String countdown = formatCountdownLocalized(now, next);
-        String valueTemplate = plugin.getMenuManager().getGuiSettingsConfig()
-                .getString("gui.item-lore.stock-reset-timer-value-format", "Stock resets in %time%");
-        return valueTemplate.replace("%time%", countdown);
+        if (!template.stockResetTimerValue.uses(0)) return template.stockResetTimerValue.fill();
+        return template.stockResetTimerValue.fill(formatCountdownLocalized(now, next));
     }
 
     private String formatCountdownLocalized(Instant now, Instant target) {
@@ -696,53 +681,49 @@ if (page < totalPages) {
                 .replace("%unit%", unit);
     }
 
-    private void addStockResetTimerLine(List<String> lore, ShopItem item, String shopKey) {
+    private void addStockResetTimerLine(List<String> lore, LoreTemplate template, ShopItem item, String shopKey) {
         if (!item.isShowStockResetTimer()) return;
-        String timerText = getStockResetTimerText(item, shopKey);
+        String timerText = getStockResetTimerText(template, item, shopKey);
         if (timerText == null || timerText.isEmpty()) return;
 
-        String template = plugin.getMenuManager().getGuiSettingsConfig()
-                .getString("gui.item-lore.stock-reset-timer-line", "&7%stock-reset-timer%");
-        String processed = template.replace("%stock-reset-timer%", timerText);
-        lore.addAll(ShopItemUtil.splitAndColor(processed));
+        lore.addAll(ShopItemUtil.splitAndColor(template.stockResetTimerLine.fill(timerText)));
     }
 
-    private void addGlobalLimitLine(List<String> lore, ShopItem item) {
+    private void addGlobalLimitLine(List<String> lore, LoreTemplate template, ShopItem item) {
         if (!item.isShowStock()) return;
         if (item.getGlobalLimit() <= 0) return;
 
-        String value = formatGlobalLimitValue(item);
-        String template = plugin.getMenuManager().getGuiSettingsConfig()
-                .getString("gui.item-lore.global-limit-line", "&7Stock: &e%global-limit%");
-        lore.addAll(ShopItemUtil.splitAndColor(template.replace("%global-limit%", value)));
+        String value = formatGlobalLimitValue(template, item);
+        lore.addAll(ShopItemUtil.splitAndColor(template.globalLimitLine.fill(value)));
     }
 
-    private void addPlayerLimitLine(List<String> lore, Player viewer, ShopItem item) {
+    private void addPlayerLimitLine(List<String> lore, LoreTemplate template, Player viewer, ShopItem item) {
         if (item.getLimit() <= 0) return;
-        String value = formatPlayerLimitValue(viewer, item);
-        String template = plugin.getMenuManager().getGuiSettingsConfig()
-                .getString("gui.item-lore.player-limit-line", "&7Your limit: &e%player-limit%");
-        lore.addAll(ShopItemUtil.splitAndColor(template.replace("%player-limit%", value)));
+        String value = formatPlayerLimitValue(template, viewer, item);
+        lore.addAll(ShopItemUtil.splitAndColor(template.playerLimitLine.fill(value)));
     }
 
-    private String formatGlobalLimitValue(ShopItem item) {
+    private String formatGlobalLimitValue(LoreTemplate template, ShopItem item) {
         int current = plugin.getDataManager().getGlobalCount(item.getUniqueKey());
-        int limit = item.getGlobalLimit();
-        String valueTemplate = plugin.getMenuManager().getGuiSettingsConfig()
-                .getString("gui.item-lore.global-limit-value-format", "%current%/%limit%");
-        return valueTemplate
-                .replace("%current%", String.valueOf(current))
-                .replace("%limit%", String.valueOf(limit));
+        return template.globalLimitValue.fill(String.valueOf(current), String.valueOf(item.getGlobalLimit()));
     }
 
-    private String formatPlayerLimitValue(Player viewer, ShopItem item) {
+    private String formatPlayerLimitValue(LoreTemplate template, Player viewer, ShopItem item) {
         int current = plugin.getDataManager().getPlayerCount(viewer.getUniqueId(), item.getUniqueKey());
-        int limit = item.getLimit();
-        String valueTemplate = plugin.getMenuManager().getGuiSettingsConfig()
-                .getString("gui.item-lore.player-limit-value-format", "%current%/%limit%");
-        return valueTemplate
-                .replace("%current%", String.valueOf(current))
-                .replace("%limit%", String.valueOf(limit));
+        return template.playerLimitValue.fill(String.valueOf(current), String.valueOf(item.getLimit()));
+    }
+
+    /**
+     * The compiled lore layout for the current gui-settings.yml; recompiled only after a config load.
+     */
+    private LoreTemplate loreTemplate() {
+        FileConfiguration settings = plugin.getMenuManager().getGuiSettingsConfig();
+        LoreTemplate template = loreTemplate;
+        if (template == null || template.source != settings) {
+            template = LoreTemplate.compile(settings);
+            loreTemplate = template;
+        }
+        return template;
     }
 
     private void startLiveRefreshTask() {
@@ -752,58 +733,233 @@ if (page < totalPages) {
         refreshTaskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this::maybeRefreshOpenShopInventories, 20L, 20L);
     }
 
+    /**
+     * Marks every shop as changed, e.g. after a reload.
+     */
     public void requestRefresh() {
-        refreshDirty = true;
+        refreshBus.publishAll();
+    }
+
+    /**
+     * Marks a whole shop as changed; only its viewers are re-checked on the next refresh pass.
+     */
+    public void requestRefresh(String shopKey) {
+        refreshBus.publish(shopKey, null);
+    }
+
+    /**
+     * Marks one item as changed; only slots showing that unique key are re-checked on the next refresh pass.
+     */
+    public void requestRefresh(String shopKey, String itemKey) {
+        refreshBus.publish(shopKey, itemKey);
     }
 
     private void maybeRefreshOpenShopInventories() {
         long now = System.currentTimeMillis();
         long fallbackMs = Math.max(1L, plugin.getConfig().getLong("gui.live-refresh-fallback-seconds", 5L)) * 1000L;
-        if (!refreshDirty && (now - lastRefreshAtMillis) < fallbackMs) {
-            return;
+        ShopRefreshBus.Batch batch = refreshBus.drain();
+        if ((now - lastRefreshAtMillis) >= fallbackMs) {
+            // Time-driven lore (timers, campaigns, conditions) only changes here, so check everything
+            refreshOpenShopInventories(null);
+            sharedRenders.entrySet().removeIf(entry -> plugin.getShopManager().getShop(entry.getKey()) != entry.getValue().shop);
+            lastRefreshAtMillis = now;
+        } else if (!batch.isEmpty()) {
+            refreshOpenShopInventories(batch);
         }
-        refreshOpenShopInventories();
-        refreshDirty = false;
-        lastRefreshAtMillis = now;
     }
 
-    private void refreshOpenShopInventories() {
+    /**
+     * Re-renders open shop pages. With a batch, only slots bound to its item keys are re-checked,
+     * and viewers of shops it does not touch are skipped; a null batch re-checks every slot.
+     */
+    private void refreshOpenShopInventories(ShopRefreshBus.Batch batch) {
         for (Player player : Bukkit.getOnlinePlayers()) {
             Inventory top = player.getOpenInventory().getTopInventory();
             if (!(top.getHolder() instanceof GenericShopHolder holder)) continue;
 
+            Set<String> itemKeys = null;
+            if (batch != null && !batch.coversShop(holder.getShopKey())) {
+                if (batch.itemKeys().isEmpty()) continue;
+                itemKeys = batch.itemKeys();
+            }
+
             ShopData shop = plugin.getShopManager().getShop(holder.getShopKey());
             if (shop == null) continue;
 
             int configuredRows = shop.getRows();
             int usableRows = Math.max(configuredRows, 1);
-            int totalRows = Math.min(usableRows + 1, 6);
             int usableSlots = Math.min(usableRows * 9, 45);
-            int start = (holder.getPage() - 1) * usableSlots;
-            int end = start + usableSlots;
-            String currency = plugin.getCurrencySymbol();
-            String availableTimesStr = ShopTimeUtil.formatAvailableTimes(shop.getAvailableTimes(), plugin);
-            Map<Integer, VariantGroupData> variantGroupsBySlot = buildVariantGroups(shop, player, start, end);
-
-            for (int slot = 0; slot < usableSlots; slot++) {
-                top.setItem(slot, null);
+            renderShopSlots(player, top, holder, shop, usableSlots, itemKeys);
+        }
+    }
+
+    /**
+     * Renders the shop slots of a page, calling {@code setItem} only for slots whose lore inputs
+     * differ from the holder's previous render. When {@code onlyItemKeys} is set, slots not bound
+     * to one of those keys keep their previous render without being looked at.
+     */
+    private void renderShopSlots(Player player, Inventory inv, GenericShopHolder holder, ShopData shop, int usableSlots, Set<String> onlyItemKeys) {
+        RenderSnapshot previous = holder.renderSnapshot;
+        LoreTemplate template = loreTemplate();
+        boolean comparable = previous != null
+                && previous.shop == shop
+                && previous.template == template
+                && previous.slotHashes.length == usableSlots;
+        if (comparable && onlyItemKeys != null && !boundToAny(previous, onlyItemKeys)) {
+            return;
+        }
+
+        String shopKey = holder.getShopKey();
+        int start = (holder.getPage() - 1) * usableSlots;
+        int end = start + usableSlots;
+        String currency = plugin.getCurrencySymbol();
+        String availableTimesStr = ShopTimeUtil.formatAvailableTimes(shop.getAvailableTimes(), plugin);
+        Map<Integer, VariantGroupData> variantGroupsBySlot = buildVariantGroups(shop, player, start, end);
+
+        long[] hashes = new long[usableSlots];
+        String[][] itemKeys = new String[usableSlots][];
+
+        ShopRenderCache cache = renderCache(shopKey, shop, template);
+
+        for (int slot = 0; slot < usableSlots; slot++) {
+            if (comparable && onlyItemKeys != null && !boundToAny(previous.slotItemKeys[slot], onlyItemKeys)) {
+                hashes[slot] = previous.slotHashes[slot];
+                itemKeys[slot] = previous.slotItemKeys[slot];
+                continue;
             }
 
-            for (int absoluteSlot = start; absoluteSlot < end; absoluteSlot++) {
-                ShopItem si = shop.getItemBySlot(absoluteSlot);
-                if (si == null) continue;
-                if (si.getPermission() != null && !si.getPermission().isEmpty() && !player.hasPermission(si.getPermission())) {
-                    continue;
-                }
-                ItemConditionUtil.ConditionResult condition = ItemConditionUtil.check(plugin, player, si);
-                if (!condition.allowed()) continue;
-                top.setItem(absoluteSlot - start, createGuiItem(player, si, holder.getShopKey(), availableTimesStr, currency, shop));
+            int absoluteSlot = start + slot;
+            VariantGroupData group = variantGroupsBySlot.get(absoluteSlot);
+            ShopItem si = group == null ? visibleItem(player, shop.getItemBySlot(absoluteSlot)) : null;
+
+            long hash = 0L;
+            boolean personalized = false;
+            if (group != null) {
+                ShopItem first = group.options.get(0);
+                personalized = isPersonalized(template, first);
+                hash = mix(slotInputsHash(player, first, shopKey, availableTimesStr, shop, personalized), group.options.size());
+                itemKeys[slot] = group.options.stream().map(ShopItem::getUniqueKey).toArray(String[]::new);
+            } else if (si != null) {
+                personalized = isPersonalized(template, si);
+                hash = slotInputsHash(player, si, shopKey, availableTimesStr, shop, personalized);
+                itemKeys[slot] = new String[]{si.getUniqueKey()};
+            } else {
+                itemKeys[slot] = NO_KEYS;
+            }
+            hashes[slot] = hash;
+            if (comparable && previous.slotHashes[slot] == hash) continue;
+
+            if (group != null) {
+                inv.setItem(slot, sharedRender(cache, absoluteSlot, hash, personalized,
+                        () -> createVariantGroupIcon(player, shop, shopKey, availableTimesStr, currency, group)));
+            } else if (si != null) {
+                inv.setItem(slot, sharedRender(cache, absoluteSlot, hash, personalized,
+                        () -> createGuiItem(player, si, shopKey, availableTimesStr, currency, shop)));
+            } else if (previous != null) {
+                inv.setItem(slot, null);
             }
+        }
+        holder.renderSnapshot = new RenderSnapshot(shop, template, hashes, itemKeys);
+    }
+
+    private static boolean boundToAny(RenderSnapshot snapshot, Set<String> itemKeys) {
+        for (String[] keys : snapshot.slotItemKeys) {
+            if (boundToAny(keys, itemKeys)) return true;
+        }
+        return false;
+    }
+
+    private static boolean boundToAny(String[] slotKeys, Set<String> itemKeys) {
+        for (String key : slotKeys) {
+            if (itemKeys.contains(key)) return true;
+        }
+        return false;
+    }
+
+    private ShopItem visibleItem(Player player, ShopItem si) {
+        if (si == null) return null;
+        if (si.getPermission() != null && !si.getPermission().isEmpty() && !player.hasPermission(si.getPermission())) {
+            return null;
+        }
+        ItemConditionUtil.ConditionResult condition = ItemConditionUtil.check(plugin, player, si);
+        return condition.allowed() ? si : null;
+    }
 
-            for (VariantGroupData group : variantGroupsBySlot.values()) {
-                top.setItem(group.slot - start, createVariantGroupIcon(player, shop, holder.getShopKey(), availableTimesStr, currency, group));
+    /**
+     * Hash of everything {@link #createGuiItem} reads that can change while the page is open.
+     * The item's static config is covered by its identity, since a reload builds new items.
+     * The viewer only contributes for personalized items. Never 0, which marks an empty slot.
+     */
+    private long slotInputsHash(Player viewer, ShopItem si, String shopKey, String availableTimesStr, ShopData shop, boolean personalized) {
+        long hash = System.identityHashCode(si);
+        hash = mix(hash, Double.doubleToLongBits(getDisplayBuyPriceForAmount(shop, si)));
+        hash = mix(hash, Double.doubleToLongBits(getBaseBuyPriceForAmount(si)));
+        if (si.getSellPrice() != null) {
+            Double displaySell = getDisplaySellPriceForAmount(shop, si);
+            Double baseSell = getBaseSellPriceForAmount(si);
+            hash = mix(hash, displaySell != null ? Double.doubleToLongBits(displaySell) : 0L);
+            hash = mix(hash, baseSell != null ? Double.doubleToLongBits(baseSell) : 0L);
+        }
+        if (si.getGlobalLimit() > 0) {
+            hash = mix(hash, plugin.getDataManager().getGlobalCount(si.getUniqueKey()));
+        }
+        if (personalized) {
+            hash = mix(hash, plugin.getDataManager().getPlayerCount(viewer.getUniqueId(), si.getUniqueKey()));
+        }
+        if (si.isShowStockResetTimer()) {
+            hash = mix(hash, getStockResetTimerText(loreTemplate(), si, shopKey).hashCode());
+        }
+        if (si.getLore() != null && !si.getLore().isEmpty()) {
+            hash = mix(hash, availableTimesStr != null ? availableTimesStr.hashCode() : 0);
+        }
+        return hash == 0L ? 1L : hash;
+    }
+
+    /**
+     * Whether the item's lore shows the viewer's own purchase count. Everything else in a shop
+     * item is the same for every viewer; permissions and conditions only decide whether it shows.
+     */
+    private static boolean isPersonalized(LoreTemplate template, ShopItem si) {
+        if (si.getLimit() <= 0) return false;
+        if (template.usesPlayerLimitLine) return true;
+        if (si.getLore() != null) {
+            for (String line : si.getLore()) {
+                if (line.contains("%player-limit%")) return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * Returns the page slot's shared stack when it was rendered from the same inputs, otherwise renders
+     * and (unless personalized) stores it. Inventories copy stacks on {@code setItem}, so one instance
+     * can be handed to every viewer.
+     */
+    private ItemStack sharedRender(ShopRenderCache cache, int absoluteSlot, long hash, boolean personalized, Supplier<ItemStack> render) {
+        if (personalized) {
+            return render.get();
+        }
+        SharedSlot cached = cache.slots.get(absoluteSlot);
+        if (cached != null && cached.hash == hash) {
+            return cached.stack;
+        }
+        ItemStack stack = render.get();
+        cache.slots.put(absoluteSlot, new SharedSlot(hash, stack));
+        return stack;
+    }
+
+    private ShopRenderCache renderCache(String shopKey, ShopData shop, LoreTemplate template) {
+        ShopRenderCache cache = sharedRenders.get(shopKey);
+        if (cache == null || cache.shop != shop || cache.template != template) {
+            cache = new ShopRenderCache(shop, template);
+            sharedRenders.put(shopKey, cache);
+        }
+        return cache;
+    }
+
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
     }
 
     private int getDisplayMaxSlot(ShopData shop) {
@@ -833,57 +989,43 @@ if (page < totalPages) {
         return maxSlot;
     }
 
-    private void addSpawnerTypeLine(List<String> lore, ShopItem si) {
+    private void addSpawnerTypeLine(List<String> lore, LoreTemplate template, ShopItem si) {
         if (si.getSpawnerType() != null) {
-            String template = plugin.getMenuManager().getGuiSettingsConfig()
-                    .getString("gui.item-lore.spawner-type-line", "&7Spawner Type: &e%type%");
-            String processed = template.replace("%type%", si.getSpawnerType());
-            lore.addAll(ShopItemUtil.splitAndColor(processed));
+            lore.addAll(ShopItemUtil.splitAndColor(template.spawnerTypeLine.fill(si.getSpawnerType())));
         }
     }
 
-    private void addSpawnerItemLine(List<String> lore, ShopItem si) {
+    private void addSpawnerItemLine(List<String> lore, LoreTemplate template, ShopItem si) {
         if (si.getSpawnerItem() != null) {
-            String template = plugin.getMenuManager().getGuiSettingsConfig()
-                    .getString("gui.item-lore.spawner-item-line", "&7Spawner Item: &e%item%");
-            String processed = template.replace("%item%", si.getSpawnerItem());
-            lore.addAll(ShopItemUtil.splitAndColor(processed));
+            lore.addAll(ShopItemUtil.splitAndColor(template.spawnerItemLine.fill(si.getSpawnerItem())));
         }
     }
 
-    private void addPotionTypeLine(List<String> lore, ShopItem si) {
+    private void addPotionTypeLine(List<String> lore, LoreTemplate template, ShopItem si) {
         if (si.getPotionType() != null) {
-            String template = plugin.getMenuManager().getGuiSettingsConfig()
-                    .getString("gui.item-lore.potion-type-line", "&7Potion Type: &d%type%");
-            String processed = template.replace("%type%", si.getPotionType());
-            lore.addAll(ShopItemUtil.splitAndColor(processed));
+            lore.addAll(ShopItemUtil.splitAndColor(template.potionTypeLine.fill(si.getPotionType())));
         }
     }
 
-    private void addHintLines(List<String> lore, ShopItem si, String currency) {
-        addHintLine(lore, si, currency, true, null);
-        addHintLine(lore, si, currency, false, null);
+    private void addHintLines(List<String> lore, LoreTemplate template, ShopItem si, ShopData shop) {
+        addHintLine(lore, template, si, true, shop);
+        addHintLine(lore, template, si, false, shop);
     }
 
-    private void addHintLines(List<String> lore, ShopItem si, String currency, ShopData shop) {
-        addHintLine(lore, si, currency, true, shop);
-        addHintLine(lore, si, currency, false, shop);
-    }
-
-    private void addHintLine(List<String> lore, ShopItem si, String currency, boolean buy, ShopData shop) {
+    private void addHintLine(List<String> lore, LoreTemplate template, ShopItem si, boolean buy, ShopData shop) {
         if (buy) {
+            if (!template.showBuyHint) return;
             double displayBuy = getDisplayBuyPriceForAmount(shop, si);
-            if (plugin.getMenuManager().getGuiSettingsConfig().getBoolean("gui.item-lore.show-buy-hint", true) && displayBuy > 0) {
-                String buyHint = plugin.getMenuManager().getGuiSettingsConfig().getString("gui.item-lore.buy-hint-line", "&aLeft-click to buy");
-                String processed = buyHint.replace("%price%", plugin.formatCurrency(displayBuy));
-                lore.addAll(ShopItemUtil.splitAndColor(processed));
+            if (displayBuy > 0) {
+                String price = template.buyHintLine.uses(0) ? plugin.formatCurrency(displayBuy) : null;
+                lore.addAll(ShopItemUtil.splitAndColor(template.buyHintLine.fill(price)));
             }
         } else {
+            if (!template.showSellHint) return;
             Double displaySell = getDisplaySellPriceForAmount(shop, si);
-            if (plugin.getMenuManager().getGuiSettingsConfig().getBoolean("gui.item-lore.show-sell-hint", true) && displaySell != null) {
-                String sellHint = plugin.getMenuManager().getGuiSettingsConfig().getString("gui.item-lore.sell-hint-line", "&eRight-click to sell");
-                String processed = sellHint.replace("%sell-price%", plugin.formatCurrency(displaySell));
-                lore.addAll(ShopItemUtil.splitAndColor(processed));
+            if (displaySell != null) {
+                String price = template.sellHintLine.uses(0) ? plugin.formatCurrency(displaySell) : null;
+                lore.addAll(ShopItemUtil.splitAndColor(template.sellHintLine.fill(price)));
             }
         }
     }
@@ -0,0 +1,245 @@
+package me.dralle.shop.gui;
+
+import me.dralle.shop.ShopManager;
+import me.dralle.shop.ShopPlugin;
+import me.dralle.shop.economy.PendingItemReturns;
+import me.dralle.shop.model.ShopData;
+import me.dralle.shop.model.ShopItem;
+import me.dralle.shop.util.CampaignUtil;
+import me.dralle.shop.util.ConsoleLog;
+import me.dralle.shop.util.PriceFormulaUtil;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Inventory side of selling, shared by {@link SellMenu} and {@link BulkSellMenu}.
+ * One pass over the inventory groups similar stacks, so matching, offer lookup and pricing
+ * run once per distinct item instead of once per stack, and removal reuses the recorded slots.
+ */
+final class InventorySellEngine {
+
+    private InventorySellEngine() {}
+
+    /**
+     * Similar stacks of one inventory, in slot order.
+     */
+    static final class Group {
+        private final ItemStack sample;
+        private int[] slots = new int[4];
+        private int slotCount;
+        private int amount;
+
+        private Group(ItemStack sample) {
+            this.sample = sample;
+        }
+
+        private void add(int slot, int stackAmount) {
+            if (slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, slotCount * 2);
+            }
+            slots[slotCount++] = slot;
+            amount += stackAmount;
+        }
+
+        ItemStack sample() {
+            return sample;
+        }
+
+        int amount() {
+            return amount;
+        }
+    }
+
+    /**
+     * Sell terms of one shop item, resolved once per sale.
+     */
+    record Offer(String shopKey, ShopData shop, ShopItem item, double unitPrice, double baseUnitPrice,
+                 double minPrice, double maxPrice, boolean dynamicPricing) {
+
+        static Offer resolve(ShopPlugin plugin, String shopKey, ShopItem item) {
+            ShopData shop = shopKey != null ? plugin.getShopManager().getShop(shopKey) : null;
+            double basePrice = PriceFormulaUtil.resolveSellBasePrice(plugin, item);
+            double unitPrice = item.getSellPrice() != null ? CampaignUtil.applySellCampaign(shop, item, basePrice) : 0D;
+            double campaignMultiplier = CampaignUtil.getActiveSellMultiplier(shop, item);
+            double minPrice = item.getMinPrice();
+            double maxPrice = item.getMaxPrice();
+            if (minPrice > 0D) minPrice *= campaignMultiplier;
+            if (maxPrice > 0D) maxPrice *= campaignMultiplier;
+            boolean dynamicPricing = item.isDynamicPricing()
+                    || (item.getSellPriceFormula() != null && !item.getSellPriceFormula().trim().isEmpty());
+            return new Offer(shopKey, shop, item, unitPrice, basePrice, minPrice, maxPrice, dynamicPricing);
+        }
+
+        double total(int quantity) {
+            if (item.isSellPricePerItem()) {
+                return unitPrice * quantity;
+            }
+            return unitPrice * (quantity / (double) Math.max(1, item.getAmount()));
+        }
+    }
+
+    /**
+     * Stacks that sell through the same offer, with their combined amount.
+     */
+    record Sale(Offer offer, List<Group> groups, int available) {}
+
+    /**
+     * Groups the inventory's stacks by similarity in one pass. Stacks are first bucketed by
+     * material, so {@link ItemStack#isSimilar} only runs against groups of the same type.
+     */
+    static List<Group> scan(Inventory inventory, int skipSlot) {
+        ItemStack[] contents = inventory.getContents();
+        Map<Material, List<Group>> byMaterial = new HashMap<>();
+        List<Group> groups = new ArrayList<>();
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (slot == skipSlot) continue;
+            ItemStack stack = contents[slot];
+            if (stack == null || stack.getType() == Material.AIR || stack.getAmount() <= 0) continue;
+
+            List<Group> bucket = byMaterial.computeIfAbsent(stack.getType(), k -> new ArrayList<>(1));
+            Group group = null;
+            for (Group candidate : bucket) {
+                if (candidate.sample.isSimilar(stack)) {
+                    group = candidate;
+                    break;
+                }
+            }
+            if (group == null) {
+                // Inventories may hand out live mirrors; keep a copy that later removals cannot empty
+                group = new Group(stack.clone());
+                bucket.add(group);
+                groups.add(group);
+            }
+            group.add(slot, stack.getAmount());
+        }
+        return groups;
+    }
+
+    static List<Group> matching(List<Group> groups, Predicate<ItemStack> matcher) {
+        List<Group> matched = new ArrayList<>();
+        for (Group group : groups) {
+            if (matcher.test(group.sample)) {
+                matched.add(group);
+            }
+        }
+        return matched;
+    }
+
+    static int amount(List<Group> groups) {
+        int total = 0;
+        for (Group group : groups) {
+            total += group.amount;
+        }
+        return total;
+    }
+
+    /**
+     * Resolves the best offer once per group and merges groups that sell through the same shop item,
+     * so per-item limits apply to everything the player is selling of it. Keeps inventory order.
+     */
+    static List<Sale> plan(ShopPlugin plugin, Player player, List<Group> groups) {
+        Map<ShopItem, List<Group>> byItem = new LinkedHashMap<>();
+        Map<ShopItem, String> shopKeys = new HashMap<>();
+        for (Group group : groups) {
+            ShopManager.SellInfo sellInfo = plugin.getShopManager().getBestSellInfo(player, group.sample);
+            if (sellInfo == null) continue;
+            byItem.computeIfAbsent(sellInfo.item, k -> new ArrayList<>(1)).add(group);
+            shopKeys.putIfAbsent(sellInfo.item, sellInfo.shopKey);
+        }
+
+        List<Sale> sales = new ArrayList<>(byItem.size());
+        for (Map.Entry<ShopItem, List<Group>> entry : byItem.entrySet()) {
+            Offer offer = Offer.resolve(plugin, shopKeys.get(entry.getKey()), entry.getKey());
+            sales.add(new Sale(offer, entry.getValue(), amount(entry.getValue())));
+        }
+        return sales;
+    }
+
+    /**
+     * Removes up to {@code amount} items from the groups' recorded slots, lowest slot first.
+     * Slots are re-read, so stacks that changed since the scan are handled safely.
+     *
+     * @return copies of what was removed, so a failed settlement can hand it back
+     */
+    static List<ItemStack> take(Inventory inventory, List<Group> groups, int amount) {
+        int slotTotal = 0;
+        for (Group group : groups) {
+            slotTotal += group.slotCount;
+        }
+        int[] slots = new int[slotTotal];
+        int index = 0;
+        for (Group group : groups) {
+            System.arraycopy(group.slots, 0, slots, index, group.slotCount);
+            index += group.slotCount;
+        }
+        if (groups.size() > 1) {
+            Arrays.sort(slots);
+        }
+
+        List<ItemStack> removed = new ArrayList<>();
+        int toRemove = amount;
+        for (int slot : slots) {
+            if (toRemove <= 0) break;
+            ItemStack stack = inventory.getItem(slot);
+            if (stack == null || stack.getType() == Material.AIR) continue;
+            if (!belongsTo(stack, groups)) continue;
+
+            int size = stack.getAmount();
+            int taken = Math.min(size, toRemove);
+            ItemStack copy = stack.clone();
+            copy.setAmount(taken);
+            removed.add(copy);
+            if (size <= toRemove) {
+                inventory.setItem(slot, null);
+            } else {
+                stack.setAmount(size - toRemove);
+                inventory.setItem(slot, stack);
+            }
+            toRemove -= taken;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns previously taken items to the player, dropping what does not fit.
+     * If the player has left, the items are kept until they join again.
+     */
+    static void giveBack(ShopPlugin plugin, Player player, List<ItemStack> stacks) {
+        if (stacks.isEmpty()) return;
+        if (!player.isOnline()) {
+            PendingItemReturns returns = plugin.getPendingItemReturns();
+            if (returns != null) {
+                returns.add(player, stacks);
+                return;
+            }
+            int amount = 0;
+            for (ItemStack stack : stacks) {
+                amount += stack.getAmount();
+            }
+            ConsoleLog.warn(plugin, "Could not return " + amount + " sold items to " + player.getName() + ": player is offline.");
+            return;
+        }
+        for (ItemStack stack : stacks) {
+            for (ItemStack leftover : player.getInventory().addItem(stack).values()) {
+                player.getWorld().dropItem(player.getLocation(), leftover);
+            }
+        }
+    }
+
+    private static boolean belongsTo(ItemStack stack, List<Group> groups) {
+        for (Group group : groups) {
+            if (group.sample.isSimilar(stack)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,182 @@
+package me.dralle.shop.gui;
+
+import me.dralle.shop.util.ShopItemUtil;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The shop item lore layout from gui-settings.yml, compiled once per config load.
+ * Static lines are colored up front; dynamic lines are typed slots whose text templates
+ * are pre-split around their placeholders, so rendering an item only fills in values.
+ */
+final class LoreTemplate {
+
+    enum Slot {
+        STATIC,
+        PRICE_LINES,
+        BUY_PRICE_LINE,
+        SELL_PRICE_LINE,
+        CUSTOM_LORE,
+        SPAWNER_TYPE_LINE,
+        SPAWNER_ITEM_LINE,
+        POTION_TYPE_LINE,
+        STOCK_RESET_TIMER_LINE,
+        GLOBAL_LIMIT_LINE,
+        PLAYER_LIMIT_LINE,
+        HINT_LINES,
+        BUY_HINT_LINE,
+        SELL_HINT_LINE
+    }
+
+    /**
+     * One entry of lore-format; {@code line} is the pre-colored text of a static entry.
+     */
+    record Segment(Slot slot, String line) {}
+
+    final FileConfiguration source;
+    // Empty lore-format: the built-in layout
+    final boolean legacyLayout;
+    final List<Segment> segments;
+    final boolean usesPlayerLimitLine;
+
+    final boolean showBuyPrice;
+    final boolean showSellPrice;
+    final boolean showBuyHint;
+    final boolean showSellHint;
+    final Text buyPriceLine;
+    final Text sellPriceLine;
+    final Text buyHintLine;
+    final Text sellHintLine;
+    final Text spawnerTypeLine;
+    final Text spawnerItemLine;
+    final Text potionTypeLine;
+    final Text stockResetTimerLine;
+    final Text stockResetTimerValue;
+    final Text globalLimitLine;
+    final Text playerLimitLine;
+    final Text globalLimitValue;
+    final Text playerLimitValue;
+
+    private LoreTemplate(FileConfiguration settings) {
+        this.source = settings;
+        List<String> format = settings.getStringList("gui.item-lore.lore-format");
+        this.legacyLayout = format == null || format.isEmpty();
+        List<Segment> compiled = new ArrayList<>();
+        if (!legacyLayout) {
+            for (String line : format) {
+                Slot slot = slotFor(line);
+                compiled.add(new Segment(slot, slot == Slot.STATIC ? (line.isEmpty() ? "" : ShopItemUtil.color(line)) : null));
+            }
+        }
+        this.segments = List.copyOf(compiled);
+        this.usesPlayerLimitLine = compiled.stream().anyMatch(segment -> segment.slot() == Slot.PLAYER_LIMIT_LINE);
+
+        this.showBuyPrice = settings.getBoolean("gui.item-lore.show-buy-price", true);
+        this.showSellPrice = settings.getBoolean("gui.item-lore.show-sell-price", true);
+        this.showBuyHint = settings.getBoolean("gui.item-lore.show-buy-hint", true);
+        this.showSellHint = settings.getBoolean("gui.item-lore.show-sell-hint", true);
+        this.buyPriceLine = Text.compile(settings.getString("gui.item-lore.buy-price-line", "&6Buy Price: &a%price%"), "%price%");
+        this.sellPriceLine = Text.compile(settings.getString("gui.item-lore.sell-price-line", "&cSell Price: &a%sell-price%"), "%sell-price%");
+        this.buyHintLine = Text.compile(settings.getString("gui.item-lore.buy-hint-line", "&aLeft-click to buy"), "%price%");
+        this.sellHintLine = Text.compile(settings.getString("gui.item-lore.sell-hint-line", "&eRight-click to sell"), "%sell-price%");
+        this.spawnerTypeLine = Text.compile(settings.getString("gui.item-lore.spawner-type-line", "&7Spawner Type: &e%type%"), "%type%");
+        this.spawnerItemLine = Text.compile(settings.getString("gui.item-lore.spawner-item-line", "&7Spawner Item: &e%item%"), "%item%");
+        this.potionTypeLine = Text.compile(settings.getString("gui.item-lore.potion-type-line", "&7Potion Type: &d%type%"), "%type%");
+        this.stockResetTimerLine = Text.compile(settings.getString("gui.item-lore.stock-reset-timer-line", "&7%stock-reset-timer%"), "%stock-reset-timer%");
+        this.stockResetTimerValue = Text.compile(settings.getString("gui.item-lore.stock-reset-timer-value-format", "Stock resets in %time%"), "%time%");
+        this.globalLimitLine = Text.compile(settings.getString("gui.item-lore.global-limit-line", "&7Stock: &e%global-limit%"), "%global-limit%");
+        this.playerLimitLine = Text.compile(settings.getString("gui.item-lore.player-limit-line", "&7Your limit: &e%player-limit%"), "%player-limit%");
+        this.globalLimitValue = Text.compile(settings.getString("gui.item-lore.global-limit-value-format", "%current%/%limit%"), "%current%", "%limit%");
+        this.playerLimitValue = Text.compile(settings.getString("gui.item-lore.player-limit-value-format", "%current%/%limit%"), "%current%", "%limit%");
+    }
+
+    static LoreTemplate compile(FileConfiguration settings) {
+        return new LoreTemplate(settings);
+    }
+
+    private static Slot slotFor(String line) {
+        return switch (line) {
+            case "%price-line%" -> Slot.PRICE_LINES;
+            case "%buy-price-line%" -> Slot.BUY_PRICE_LINE;
+            case "%sell-price-line%" -> Slot.SELL_PRICE_LINE;
+            case "%custom-lore%" -> Slot.CUSTOM_LORE;
+            case "%spawner-type-line%" -> Slot.SPAWNER_TYPE_LINE;
+            case "%spawner-item-line%" -> Slot.SPAWNER_ITEM_LINE;
+            case "%potion-type-line%" -> Slot.POTION_TYPE_LINE;
+            case "%stock-reset-timer-line%", "%stock-reset-timer%" -> Slot.STOCK_RESET_TIMER_LINE;
+            case "%global-limit%", "%global-limit-line%" -> Slot.GLOBAL_LIMIT_LINE;
+            case "%player-limit%", "%player-limit-line%" -> Slot.PLAYER_LIMIT_LINE;
+            case "%hint-line%" -> Slot.HINT_LINES;
+            case "%buy-hint-line%" -> Slot.BUY_HINT_LINE;
+            case "%sell-hint-line%" -> Slot.SELL_HINT_LINE;
+            default -> Slot.STATIC;
+        };
+    }
+
+    /**
+     * A text template split around a fixed set of placeholders. Filling it gives the same
+     * result as chained {@link String#replace} calls, without rescanning the template.
+     */
+    static final class Text {
+        private final String raw;
+        private final String[] literals;
+        private final int[] placeholders;
+        private final boolean[] used;
+
+        private Text(String raw, String[] literals, int[] placeholders, boolean[] used) {
+            this.raw = raw;
+            this.literals = literals;
+            this.placeholders = placeholders;
+            this.used = used;
+        }
+
+        static Text compile(String template, String... names) {
+            String raw = template != null ? template : "";
+            List<String> literals = new ArrayList<>();
+            List<Integer> placeholders = new ArrayList<>();
+            boolean[] used = new boolean[names.length];
+            int from = 0;
+            while (true) {
+                int best = -1;
+                int bestIndex = -1;
+                for (int i = 0; i < names.length; i++) {
+                    int at = raw.indexOf(names[i], from);
+                    if (at >= 0 && (best < 0 || at < best)) {
+                        best = at;
+                        bestIndex = i;
+                    }
+                }
+                if (best < 0) break;
+                literals.add(raw.substring(from, best));
+                placeholders.add(bestIndex);
+                used[bestIndex] = true;
+                from = best + names[bestIndex].length();
+            }
+            literals.add(raw.substring(from));
+            return new Text(
+                    raw,
+                    literals.toArray(new String[0]),
+                    placeholders.stream().mapToInt(Integer::intValue).toArray(),
+                    used
+            );
+        }
+
+        /**
+         * Whether the template contains the placeholder at {@code index}; lets callers skip formatting unused values.
+         */
+        boolean uses(int index) {
+            return used[index];
+        }
+
+        String fill(String... values) {
+            if (placeholders.length == 0) return raw;
+            StringBuilder out = new StringBuilder(raw.length() + 16);
+            for (int i = 0; i < placeholders.length; i++) {
+                out.append(literals[i]).append(values[placeholders[i]]);
+            }
+            return out.append(literals[placeholders.length]).toString();
+        }
+    }
+}
@@ -271,7 +271,7 @@ public class MainMenu implements Listener {
             }
 
             // Check time restrictions
-            if (!ShopTimeUtil.isShopAvailable(shop.getAvailableTimes())) {
+            if (!shop.getTimeRestriction().isOpen()) {
                 String availableTimes = ShopTimeUtil.formatAvailableTimes(shop.getAvailableTimes(), plugin);
                 player.sendMessage(
                         plugin.getMessages()
@@ -733,7 +733,7 @@ public class PurchaseMenu implements Listener {
             ShopData shop = plugin.getShopManager().getShop(shopKey);
             if (shop != null) {
                 // Shop availability
-                if (!ShopTimeUtil.isShopAvailable(shop.getAvailableTimes())) {
+                if (!shop.getTimeRestriction().isOpen()) {
                     player.sendMessage(plugin.getMessages().getMessage("shop-not-available")
                             .replace("%shop%", ShopItemUtil.color(shop.getGuiName()))
                             .replace("%available-times%", ShopTimeUtil.formatAvailableTimes(shop.getAvailableTimes(), plugin)));
@@ -743,7 +743,7 @@ public class PurchaseMenu implements Listener {
                 // Item availability
                 if (itemKey != null) {
                     ShopItem si = shop.getItemByUniqueKey(itemKey);
-                    if (si != null && !ShopTimeUtil.isShopAvailable(si.getAvailableTimes())) {
+                    if (si != null && !si.getTimeRestriction().isOpen()) {
                         player.sendMessage(plugin.getMessages().getMessage("shop-not-available")
                                 .replace("%shop%", si.getName() != null ? ShopItemUtil.color(si.getName()) : si.getMaterial().name())
                                 .replace("%available-times%", ShopTimeUtil.formatAvailableTimes(si.getAvailableTimes(), plugin)));
@@ -898,7 +898,7 @@ public class PurchaseMenu implements Listener {
                       String headTexture = player.hasMetadata("buy.headTexture") ? player.getMetadata("buy.headTexture").getFirst().asString() : null;
                       String headOwner = player.hasMetadata("buy.headOwner") ? player.getMetadata("buy.headOwner").getFirst().asString() : null;
                       if (matchedItem != null && matchedItem.getItemStackData() != null && !matchedItem.getItemStackData().isEmpty()) {
-                          if (!giveSerializedItemSafe(player, matchedItem.getItemStackData(), amount)) {
+                          if (!giveSerializedItemSafe(player, matchedItem.getTemplateStack(), amount)) {
                               giveItemSafe(player, material, amount, spawnerType, spawnerItem, potionType, potionLevel, nameToApply, loreToApply, enchantments, hideAttr, hideAdd, unstableTnt, headTexture, headOwner);
                           }
                       } else {
@@ -941,7 +941,8 @@ public class PurchaseMenu implements Listener {
                 plugin.getDataManager().incrementGlobalCount(itemKey, amount);
             }
         }
-        plugin.getGenericShopGui().requestRefresh();
+        plugin.getDataManager().recordTransaction(player, shopKey, itemKey, TransactionSafetyGuard.ACTION_BUY, amount, total);
+        plugin.getGenericShopGui().requestRefresh(shopKey, itemKey);
         TransactionSafetyGuard.rememberSuccessfulUnitPrice(TransactionSafetyGuard.ACTION_BUY, itemKey, effectiveUnitPrice);
 
         plugin.itemsBought += amount;
@@ -1014,8 +1015,7 @@ public class PurchaseMenu implements Listener {
     /* ============================================================
      * GIVE ITEM (With Overflow Drop)
      * ============================================================ */
-    private static boolean giveSerializedItemSafe(Player player, String itemStackData, int amount) {
-        ItemStack template = ShopItemUtil.deserializeItemStack(itemStackData);
+    private static boolean giveSerializedItemSafe(Player player, ItemStack template, int amount) {
         if (template == null) {
             return false;
         }
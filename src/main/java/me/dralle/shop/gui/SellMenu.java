@@ -664,7 +664,7 @@ public class SellMenu implements Listener {
         if (clicked.getType() == confirmMat &&
                 name.equals(ShopItemUtil.color(confirmName))) {
 
-            sellItems(player, material, spawnerType, spawnerItem, potionType, enchantments, owned, amount, sellPrice, priceUnitAmount, customName, customLore, hideAttr, hideAdd, requireName, requireLore, sellPricePerItem, itemKey, limit, globalLimit, dynamicPricing, minPrice, maxPrice, priceChange, shopKey, permission);
+            sellItems(player, material, spawnerType, spawnerItem, potionType, enchantments, amount, sellPrice, priceUnitAmount, customName, customLore, hideAttr, hideAdd, requireName, requireLore, sellPricePerItem, itemKey, limit, globalLimit, dynamicPricing, minPrice, maxPrice, priceChange, shopKey, permission);
             return;
         }
 
@@ -673,7 +673,7 @@ public class SellMenu implements Listener {
                 name.equals(ShopItemUtil.color(sellAllName))) {
 
             int sellAmount = Math.min(owned, maxAmount);
-            sellItems(player, material, spawnerType, spawnerItem, potionType, enchantments, owned, sellAmount, sellPrice, priceUnitAmount, customName, customLore, hideAttr, hideAdd, requireName, requireLore, sellPricePerItem, itemKey, limit, globalLimit, dynamicPricing, minPrice, maxPrice, priceChange, shopKey, permission);
+            sellItems(player, material, spawnerType, spawnerItem, potionType, enchantments, sellAmount, sellPrice, priceUnitAmount, customName, customLore, hideAttr, hideAdd, requireName, requireLore, sellPricePerItem, itemKey, limit, globalLimit, dynamicPricing, minPrice, maxPrice, priceChange, shopKey, permission);
             return;
         }
 
@@ -715,13 +715,15 @@ public class SellMenu implements Listener {
      *  SELL LOGIC
      * ============================================================ */
     private void sellItems(Player player, Material material, String spawnerType, String spawnerItem, String potionType,
-                           Map<String, Integer> enchantments, int ownedBefore, int amount, double sellPrice, int priceUnitAmount, String customName,
+                           Map<String, Integer> enchantments, int amount, double sellPrice, int priceUnitAmount, String customName,
                            List<String> customLore, boolean hideAttr, boolean hideAdd, boolean requireName, boolean requireLore,
                            boolean sellPricePerItem,
                            String itemKey, int limit, int globalLimit, boolean dynamicPricing, double minPrice, double maxPrice, double priceChange, String shopKey, String permission) {
 
-        int owned = Math.max(0, ownedBefore);
         ShopPlugin plugin = ShopPlugin.getInstance();
+        // One scan serves the ownership check, the removal and the refreshed count
+        List<InventorySellEngine.Group> stacks = findPlayerStacks(player, material, spawnerType, spawnerItem, potionType, enchantments, customName, customLore, requireName, requireLore);
+        int owned = InventorySellEngine.amount(stacks);
 
         // Safety permission check
         if (permission != null && !permission.isEmpty()) {
@@ -737,7 +739,7 @@ public class SellMenu implements Listener {
             ShopData shop = plugin.getShopManager().getShop(shopKey);
             if (shop != null) {
                 // Shop availability
-                if (!ShopTimeUtil.isShopAvailable(shop.getAvailableTimes())) {
+                if (!shop.getTimeRestriction().isOpen()) {
                     player.sendMessage(plugin.getMessages().getMessage("shop-not-available")
                             .replace("%shop%", ShopItemUtil.color(shop.getGuiName()))
                             .replace("%available-times%", ShopTimeUtil.formatAvailableTimes(shop.getAvailableTimes(), plugin)));
@@ -747,7 +749,7 @@ public class SellMenu implements Listener {
                 // Item availability
                 if (itemKey != null) {
                     ShopItem si = shop.getItemByUniqueKey(itemKey);
-                    if (si != null && !ShopTimeUtil.isShopAvailable(si.getAvailableTimes())) {
+                    if (si != null && !si.getTimeRestriction().isOpen()) {
                         player.sendMessage(plugin.getMessages().getMessage("shop-not-available")
                                 .replace("%shop%", si.getName() != null ? ShopItemUtil.color(si.getName()) : si.getMaterial().name())
                                 .replace("%available-times%", ShopTimeUtil.formatAvailableTimes(si.getAvailableTimes(), plugin)));
@@ -823,21 +825,16 @@ public class SellMenu implements Listener {
         boolean effectiveDynamicPricing = dynamicPricing;
         double effectiveMinPrice = minPrice;
         double effectiveMaxPrice = maxPrice;
+        double baseUnitPrice = sellPrice;
         if (matchedItem != null && matchedItem.getSellPrice() != null) {
-            ShopData matchedShop = shopKey != null ? plugin.getShopManager().getShop(shopKey) : null;
-            effectiveDynamicPricing = matchedItem.isDynamicPricing()
-                    || (matchedItem.getSellPriceFormula() != null && !matchedItem.getSellPriceFormula().trim().isEmpty());
-            effectiveMinPrice = matchedItem.getMinPrice();
-            effectiveMaxPrice = matchedItem.getMaxPrice();
-            double campaignMultiplier = CampaignUtil.getActiveSellMultiplier(matchedShop, matchedItem);
-            if (effectiveMinPrice > 0D) effectiveMinPrice *= campaignMultiplier;
-            if (effectiveMaxPrice > 0D) effectiveMaxPrice *= campaignMultiplier;
-            effectiveUnitPrice = calculateSellPrice(matchedShop, matchedItem);
+            InventorySellEngine.Offer offer = InventorySellEngine.Offer.resolve(plugin, shopKey, matchedItem);
+            effectiveDynamicPricing = offer.dynamicPricing();
+            effectiveMinPrice = offer.minPrice();
+            effectiveMaxPrice = offer.maxPrice();
+            effectiveUnitPrice = offer.unitPrice();
+            baseUnitPrice = offer.baseUnitPrice();
         }
         double total = calculateTransactionTotal(effectiveUnitPrice, amount, sellPricePerItem, priceUnitAmount);
-        double baseUnitPrice = matchedItem != null && matchedItem.getSellPrice() != null
-                ? PriceFormulaUtil.resolveSellBasePrice(plugin, matchedItem)
-                : effectiveUnitPrice;
 
         TransactionSafetyGuard.GuardResult transactionGuard = TransactionSafetyGuard.validateTransaction(
                 plugin,
@@ -861,38 +858,46 @@ public class SellMenu implements Listener {
 
         EconomyHook eco = plugin.getEconomy();
 
-        if (eco.isReady()) {
-            EconomyHook.EconomyOperationResult depositResult = eco.tryDeposit(player, total);
-            if (!depositResult.success()) {
-                TransactionSafetyGuard.auditEconomyFailure(
-                        plugin,
-                        player,
-                        "deposit",
-                        shopKey,
-                        itemKey,
-                        material,
-                        total,
-                        depositResult.errorMessage()
-                );
-                player.sendMessage(plugin.getMessages().getMessage("economy-error-sell"));
-                return;
-            }
-        }
-
-        removeItems(player, material, spawnerType, spawnerItem, potionType, enchantments, amount, customName, customLore, requireName, requireLore);
+        // The sale is applied now and paid out by the settlement; a failed payout undoes it
+        List<ItemStack> removed = InventorySellEngine.take(player.getInventory(), stacks, amount);
 
         // Update counts
+        boolean adjustGlobal = false;
         if (itemKey != null) {
             plugin.getDataManager().incrementPlayerCount(player.getUniqueId(), itemKey, amount);
             boolean adjustForStock = globalLimit > 0 && sellAddsToStock;
             boolean adjustForDynamicPricingOnly = effectiveDynamicPricing && globalLimit <= 0;
-            if (adjustForStock || adjustForDynamicPricingOnly) {
+            adjustGlobal = adjustForStock || adjustForDynamicPricingOnly;
+            if (adjustGlobal) {
                 plugin.getDataManager().incrementGlobalCount(itemKey, -amount);
             }
         }
-        plugin.getGenericShopGui().requestRefresh();
+        plugin.getGenericShopGui().requestRefresh(shopKey, itemKey);
         TransactionSafetyGuard.rememberSuccessfulUnitPrice(TransactionSafetyGuard.ACTION_SELL, itemKey, effectiveUnitPrice);
 
+        if (eco.isReady()) {
+            boolean revertGlobal = adjustGlobal;
+            plugin.getEconomySettlement().deposit(
+                    player,
+                    total,
+                    () -> plugin.getDataManager().recordTransaction(player, shopKey, itemKey, TransactionSafetyGuard.ACTION_SELL, amount, total),
+                    reason -> {
+                        TransactionSafetyGuard.auditEconomyFailure(plugin, player, "deposit", shopKey, itemKey, material, total, reason);
+                        if (itemKey != null) {
+                            plugin.getDataManager().incrementPlayerCount(player.getUniqueId(), itemKey, -amount);
+                            if (revertGlobal) {
+                                plugin.getDataManager().incrementGlobalCount(itemKey, amount);
+                            }
+                        }
+                        InventorySellEngine.giveBack(plugin, player, removed);
+                        plugin.getGenericShopGui().requestRefresh(shopKey, itemKey);
+                        player.sendMessage(plugin.getMessages().getMessage("economy-error-sell"));
+                    }
+            );
+        } else {
+            plugin.getDataManager().recordTransaction(player, shopKey, itemKey, TransactionSafetyGuard.ACTION_SELL, amount, total);
+        }
+
         plugin.itemsSold++;
         plugin.debug("Sell successful: " + player.getName() + " sold " + amount + "x " + material + " for $" + total);
 
@@ -929,7 +934,7 @@ public class SellMenu implements Listener {
 
         // Refresh the menu so "You own: X" updates
         // We recalculate amount to ensure it doesn't exceed new owned count
-        int newOwned = countPlayerItems(player, material, spawnerType, spawnerItem, potionType, enchantments, customName, customLore, requireName, requireLore);
+        int newOwned = Math.max(0, owned - amount);
         int newAmount = Math.min(amount, newOwned);
         if (newAmount <= 0) newAmount = 1; // Default to 1 if they sold everything, just for display
 
@@ -974,40 +979,51 @@ public class SellMenu implements Listener {
      *  UTILITIES
      * ============================================================ */
     private static int countPlayerItems(Player player, Material material, String spawnerType, String spawnerItem, String potionType, Map<String, Integer> enchantments, String customName, List<String> customLore, boolean requireName, boolean requireLore) {
-        int count = 0;
-        for (ItemStack it : player.getInventory().getContents()) {
-            if (it == null || it.getType() != material) continue;
-
-            if (material == Material.SPAWNER) {
-                if (spawnerItem != null && !spawnerItem.isEmpty()) {
-                    if (!ShopItemUtil.spawnerMatches(it, "ITEM:" + spawnerItem)) continue;
-                } else if (spawnerType != null && !spawnerType.isEmpty()) {
-                    if (!ShopItemUtil.spawnerMatches(it, spawnerType)) continue;
-                }
-            }
+        return InventorySellEngine.amount(findPlayerStacks(player, material, spawnerType, spawnerItem, potionType, enchantments, customName, customLore, requireName, requireLore));
+    }
 
-            if ((material == Material.POTION || material == Material.SPLASH_POTION ||
-                 material == Material.LINGERING_POTION || material == Material.TIPPED_ARROW) && potionType != null) {
-                if (!ShopItemUtil.potionMatches(it, potionType)) continue;
-            }
+    /**
+     * Groups of similar stacks in the player's inventory that count as the item being sold.
+     * Matching runs once per group, not once per stack.
+     */
+    private static List<InventorySellEngine.Group> findPlayerStacks(Player player, Material material, String spawnerType, String spawnerItem, String potionType, Map<String, Integer> enchantments, String customName, List<String> customLore, boolean requireName, boolean requireLore) {
+        return InventorySellEngine.matching(
+                InventorySellEngine.scan(player.getInventory(), -1),
+                it -> matchesSellTarget(it, material, spawnerType, spawnerItem, potionType, enchantments, customName, customLore, requireName, requireLore)
+        );
+    }
 
-            if (enchantments != null && !enchantments.isEmpty()) {
-                if (!ShopItemUtil.enchantmentsMatch(it, enchantments)) continue;
-            }
+    private static boolean matchesSellTarget(ItemStack it, Material material, String spawnerType, String spawnerItem, String potionType, Map<String, Integer> enchantments, String customName, List<String> customLore, boolean requireName, boolean requireLore) {
+        if (it == null || it.getType() != material) return false;
 
-            // Check custom name if enabled
-            if (requireName && customName != null) {
-                if (!ShopItemUtil.nameMatches(it, customName)) continue;
+        if (material == Material.SPAWNER) {
+            if (spawnerItem != null && !spawnerItem.isEmpty()) {
+                if (!ShopItemUtil.spawnerMatches(it, "ITEM:" + spawnerItem)) return false;
+            } else if (spawnerType != null && !spawnerType.isEmpty()) {
+                if (!ShopItemUtil.spawnerMatches(it, spawnerType)) return false;
             }
+        }
 
-            // Check custom lore if enabled
-            if (requireLore && customLore != null && !customLore.isEmpty()) {
-                if (!ShopItemUtil.loreMatches(it, customLore)) continue;
-            }
+        if ((material == Material.POTION || material == Material.SPLASH_POTION ||
+             material == Material.LINGERING_POTION || material == Material.TIPPED_ARROW) && potionType != null) {
+            if (!ShopItemUtil.potionMatches(it, potionType)) return false;
+        }
 
-            count += it.getAmount();
+        if (enchantments != null && !enchantments.isEmpty()) {
+            if (!ShopItemUtil.enchantmentsMatch(it, enchantments)) return false;
         }
-        return count;
+
+        // Check custom name if enabled
+        if (requireName && customName != null) {
+            if (!ShopItemUtil.nameMatches(it, customName)) return false;
+        }
+
+        // Check custom lore if enabled
+        if (requireLore && customLore != null && !customLore.isEmpty()) {
+            if (!ShopItemUtil.loreMatches(it, customLore)) return false;
+        }
+
+        return true;
     }
 
     private static boolean spawnerMatches(ItemStack it, String type) {
@@ -1030,52 +1046,6 @@ public class SellMenu implements Listener {
         return ShopItemUtil.loreMatches(it, requiredLore);
     }
 
-    private static void removeItems(Player player, Material material, String spawnerType, String spawnerItem, String potionType, Map<String, Integer> enchantments, int amount, String customName, List<String> customLore, boolean requireName, boolean requireLore) {
-        int toRemove = amount;
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-            ItemStack it = player.getInventory().getItem(i);
-            if (it == null || it.getType() != material) continue;
-
-            if (material == Material.SPAWNER) {
-                if (spawnerItem != null && !spawnerItem.isEmpty()) {
-                    if (!ShopItemUtil.spawnerMatches(it, "ITEM:" + spawnerItem)) continue;
-                } else if (spawnerType != null && !spawnerType.isEmpty()) {
-                    if (!ShopItemUtil.spawnerMatches(it, spawnerType)) continue;
-                }
-            }
-
-            if ((material == Material.POTION || material == Material.SPLASH_POTION ||
-                 material == Material.LINGERING_POTION || material == Material.TIPPED_ARROW) && potionType != null) {
-                if (!ShopItemUtil.potionMatches(it, potionType)) continue;
-            }
-
-            if (enchantments != null && !enchantments.isEmpty()) {
-                if (!ShopItemUtil.enchantmentsMatch(it, enchantments)) continue;
-            }
-
-            // Check custom name if enabled
-            if (requireName && customName != null) {
-                if (!ShopItemUtil.nameMatches(it, customName)) continue;
-            }
-
-            // Check custom lore if enabled
-            if (requireLore && customLore != null && !customLore.isEmpty()) {
-                if (!ShopItemUtil.loreMatches(it, customLore)) continue;
-            }
-
-            int stack = it.getAmount();
-            if (stack <= toRemove) {
-                player.getInventory().setItem(i, null);
-                toRemove -= stack;
-            } else {
-                it.setAmount(stack - toRemove);
-                toRemove = 0;
-            }
-
-            if (toRemove <= 0) break;
-        }
-    }
-
     /* ============================================================
      *  METADATA HELPERS
      * ============================================================ */
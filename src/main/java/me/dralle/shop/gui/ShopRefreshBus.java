@@ -0,0 +1,60 @@
+package me.dralle.shop.gui;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects what changed since the last refresh pass: single items by unique key, whole shops,
+ * or everything. Writers publish from any thread; the refresh task drains once per tick.
+ */
+final class ShopRefreshBus {
+
+    /**
+     * Changes published between two drains. Item keys match slots in every shop, because
+     * counters (and so prices and stock) are shared by unique key.
+     */
+    record Batch(boolean all, Set<String> shopKeys, Set<String> itemKeys) {
+        static final Batch EMPTY = new Batch(false, Set.of(), Set.of());
+
+        boolean isEmpty() {
+            return !all && shopKeys.isEmpty() && itemKeys.isEmpty();
+        }
+
+        boolean coversShop(String shopKey) {
+            return all || shopKeys.contains(shopKey);
+        }
+    }
+
+    private boolean all;
+    private Set<String> shopKeys = new HashSet<>();
+    private Set<String> itemKeys = new HashSet<>();
+
+    synchronized void publishAll() {
+        all = true;
+    }
+
+    /**
+     * @param shopKey shop the change happened in
+     * @param itemKey unique key of the touched item, or null when the whole shop changed
+     */
+    synchronized void publish(String shopKey, String itemKey) {
+        if (itemKey != null) {
+            itemKeys.add(itemKey);
+        } else if (shopKey != null) {
+            shopKeys.add(shopKey);
+        } else {
+            all = true;
+        }
+    }
+
+    synchronized Batch drain() {
+        if (!all && shopKeys.isEmpty() && itemKeys.isEmpty()) {
+            return Batch.EMPTY;
+        }
+        Batch batch = new Batch(all, shopKeys, itemKeys);
+        all = false;
+        shopKeys = new HashSet<>();
+        itemKeys = new HashSet<>();
+        return batch;
+    }
+}
@@ -2,6 +2,12 @@ package me.dralle.shop.model;
 
 public class ShopCampaign {
 
+    /** Bound passed for a window without a start. */
+    public static final long NO_START = Long.MIN_VALUE;
+    /** Bound passed for a window without an end. */
+    public static final long NO_END = Long.MAX_VALUE;
+
+
     private final String key;
     private final String name;
     private final String start;
@@ -10,7 +16,19 @@ public class ShopCampaign {
     private final double buyMultiplier;
     private final double sellMultiplier;
 
-    public ShopCampaign(String key, String name, String start, String end, String timezone, double buyMultiplier, double sellMultiplier) {
+    // Window resolved by the loader; active from start through end, both inclusive
+    private final boolean scheduled;
+    private final long startMillis;
+    private final long endMillis;
+
+    /**
+     * @param start       start as written in the config, kept for display and export
+     * @param end         end as written in the config, kept for display and export
+     * @param startMillis resolved start in epoch millis, or {@link #NO_START}
+     * @param endMillis   resolved end in epoch millis, or {@link #NO_END}
+     */
+    public ShopCampaign(String key, String name, String start, String end, String timezone,
+                        double buyMultiplier, double sellMultiplier, long startMillis, long endMillis) {
         this.key = key != null ? key : "";
         this.name = name != null ? name : "";
         this.start = start != null ? start : "";
@@ -18,6 +36,27 @@ public class ShopCampaign {
         this.timezone = timezone != null ? timezone : "";
         this.buyMultiplier = buyMultiplier;
         this.sellMultiplier = sellMultiplier;
+        this.scheduled = startMillis != NO_START || endMillis != NO_END;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+    }
+
+    /**
+     * Whether the campaign runs at {@code now} (epoch millis). Campaigns without a start or end never run.
+     */
+    public boolean isActiveAt(long now) {
+        return scheduled && now >= startMillis && now <= endMillis;
+    }
+
+    /**
+     * Earliest epoch millis after {@code now} at which {@link #isActiveAt(long)} changes, or {@link Long#MAX_VALUE}.
+     */
+    public long nextBoundaryAfter(long now) {
+        if (!scheduled) return Long.MAX_VALUE;
+        long next = Long.MAX_VALUE;
+        if (startMillis != NO_START && startMillis > now) next = startMillis;
+        if (endMillis != NO_END && endMillis >= now) next = Math.min(next, endMillis + 1);
+        return next;
     }
 
     public String getKey() {
@@ -40,6 +79,14 @@ public class ShopCampaign {
         return timezone;
     }
 
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
     public double getBuyMultiplier() {
         return buyMultiplier;
     }
@@ -1,6 +1,8 @@
 package me.dralle.shop.model;
 
 import me.dralle.shop.stock.StockResetRule;
+import me.dralle.shop.util.ShopTimeUtil;
+import me.dralle.shop.util.TimeRestriction;
 
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -18,6 +20,7 @@ public class ShopData {
     private final String permission;    // permission required to open, "" = public
     private final List<ShopItem> items; // items in this shop
     private final List<String> availableTimes; // time restrictions (optional)
+    private final TimeRestriction timeRestriction;
     private final StockResetRule stockResetRule;
     private final boolean sellAddsToStock;
     private final boolean allowSellStockOverflow;
@@ -35,6 +38,7 @@ public class ShopData {
         this.permission = permission;
         this.items = items;
         this.availableTimes = availableTimes;
+        this.timeRestriction = ShopTimeUtil.compile(availableTimes);
         this.stockResetRule = stockResetRule;
         this.sellAddsToStock = sellAddsToStock;
         this.allowSellStockOverflow = allowSellStockOverflow;
@@ -77,6 +81,10 @@ public class ShopData {
         return availableTimes;
     }
 
+    public TimeRestriction getTimeRestriction() {
+        return timeRestriction;
+    }
+
     public StockResetRule getStockResetRule() {
         return stockResetRule;
     }
@@ -1,7 +1,13 @@
 package me.dralle.shop.model;
 
 import me.dralle.shop.stock.StockResetRule;
+import me.dralle.shop.util.CampaignUtil;
+import me.dralle.shop.util.PriceFormulaUtil;
+import me.dralle.shop.util.ShopItemUtil;
+import me.dralle.shop.util.ShopTimeUtil;
+import me.dralle.shop.util.TimeRestriction;
 import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.List;
 import java.util.Map;
@@ -59,18 +65,14 @@ public class ShopItem {
     private final String permission;
     private final boolean campaignEnabled;
     private final String campaignKey;
-    private final String campaignName;
-    private final String campaignStart;
-    private final String campaignEnd;
-    private final String campaignTimezone;
-    private final double campaignBuyMultiplier;
-    private final double campaignSellMultiplier;
+    private final ShopCampaign campaign;
     private final int minPlayerLevel;
     private final int maxPlayerLevel;
     private final String requiredGamemode;
     private final List<String> allowedWorlds;
     private final List<String> deniedWorlds;
     private final List<String> availableTimes;
+    private final TimeRestriction timeRestriction;
     private final StockResetRule stockResetRule;
     private final Boolean sellAddsToStock;
     private final Boolean allowSellStockOverflow;
@@ -82,6 +84,15 @@ public class ShopItem {
     private final Integer variantGroupSlot;
     private Integer slot;
 
+    // Decoded itemStackData, resolved once on first use
+    private volatile ItemStack templateStack;
+    private volatile boolean templateResolved;
+
+    // Cached pricing, see PriceFormulaUtil and CampaignUtil
+    private volatile String uniqueKey;
+    private volatile PriceFormulaUtil.BaseQuote baseQuote;
+    private volatile CampaignUtil.MultiplierQuote campaignQuote;
+
     public ShopItem(
             Material material,
             double price,
@@ -118,12 +129,7 @@ public class ShopItem {
             String permission,
             boolean campaignEnabled,
             String campaignKey,
-            String campaignName,
-            String campaignStart,
-            String campaignEnd,
-            String campaignTimezone,
-            double campaignBuyMultiplier,
-            double campaignSellMultiplier,
+            ShopCampaign campaign,
             int minPlayerLevel,
             int maxPlayerLevel,
             String requiredGamemode,
@@ -176,18 +182,16 @@ public class ShopItem {
         this.permission = permission;
         this.campaignEnabled = campaignEnabled;
         this.campaignKey = campaignKey != null ? campaignKey : "";
-        this.campaignName = campaignName != null ? campaignName : "";
-        this.campaignStart = campaignStart != null ? campaignStart : "";
-        this.campaignEnd = campaignEnd != null ? campaignEnd : "";
-        this.campaignTimezone = campaignTimezone != null ? campaignTimezone : "";
-        this.campaignBuyMultiplier = campaignBuyMultiplier;
-        this.campaignSellMultiplier = campaignSellMultiplier;
+        this.campaign = campaign != null
+                ? campaign
+                : new ShopCampaign("inline-item", "", "", "", "", 1.0D, 1.0D, ShopCampaign.NO_START, ShopCampaign.NO_END);
         this.minPlayerLevel = minPlayerLevel;
         this.maxPlayerLevel = maxPlayerLevel;
         this.requiredGamemode = requiredGamemode != null ? requiredGamemode : "";
         this.allowedWorlds = allowedWorlds != null ? allowedWorlds : new java.util.ArrayList<>();
         this.deniedWorlds = deniedWorlds != null ? deniedWorlds : new java.util.ArrayList<>();
         this.availableTimes = availableTimes != null ? availableTimes : new java.util.ArrayList<>();
+        this.timeRestriction = ShopTimeUtil.compile(this.availableTimes);
         this.stockResetRule = stockResetRule;
         this.sellAddsToStock = sellAddsToStock;
         this.allowSellStockOverflow = allowSellStockOverflow;
@@ -236,6 +240,27 @@ public class ShopItem {
         return itemStackData;
     }
 
+    /**
+     * Returns the decoded itemStackData, or null if there is none or it cannot be decoded.
+     * The returned stack is shared and must not be modified; use {@link #copyTemplateStack()} for that.
+     */
+    public ItemStack getTemplateStack() {
+        if (!templateResolved) {
+            synchronized (this) {
+                if (!templateResolved) {
+                    templateStack = itemStackData.isEmpty() ? null : ShopItemUtil.deserializeItemStack(itemStackData);
+                    templateResolved = true;
+                }
+            }
+        }
+        return templateStack;
+    }
+
+    public ItemStack copyTemplateStack() {
+        ItemStack template = getTemplateStack();
+        return template != null ? template.clone() : null;
+    }
+
     public List<String> getLore() {
         return lore;
     }
@@ -366,7 +391,7 @@ public class ShopItem {
     }
 
     public String getCampaignName() {
-        return campaignName;
+        return campaign.getName();
     }
 
     public String getCampaignKey() {
@@ -374,23 +399,30 @@ public class ShopItem {
     }
 
     public String getCampaignStart() {
-        return campaignStart;
+        return campaign.getStart();
     }
 
     public String getCampaignEnd() {
-        return campaignEnd;
+        return campaign.getEnd();
     }
 
     public String getCampaignTimezone() {
-        return campaignTimezone;
+        return campaign.getTimezone();
     }
 
     public double getCampaignBuyMultiplier() {
-        return campaignBuyMultiplier;
+        return campaign.getBuyMultiplier();
     }
 
     public double getCampaignSellMultiplier() {
-        return campaignSellMultiplier;
+        return campaign.getSellMultiplier();
+    }
+
+    /**
+     * The item's own campaign-* settings as a campaign, or null when campaign-enabled is off.
+     */
+    public ShopCampaign getInlineCampaign() {
+        return campaignEnabled ? campaign : null;
     }
 
     public int getMinPlayerLevel() {
@@ -417,6 +449,10 @@ public class ShopItem {
         return availableTimes;
     }
 
+    public TimeRestriction getTimeRestriction() {
+        return timeRestriction;
+    }
+
     public StockResetRule getStockResetRule() {
         return stockResetRule;
     }
@@ -461,7 +497,32 @@ public class ShopItem {
         this.slot = slot;
     }
 
+    public PriceFormulaUtil.BaseQuote getBaseQuote() {
+        return baseQuote;
+    }
+
+    public void setBaseQuote(PriceFormulaUtil.BaseQuote baseQuote) {
+        this.baseQuote = baseQuote;
+    }
+
+    public CampaignUtil.MultiplierQuote getCampaignQuote() {
+        return campaignQuote;
+    }
+
+    public void setCampaignQuote(CampaignUtil.MultiplierQuote campaignQuote) {
+        this.campaignQuote = campaignQuote;
+    }
+
     public String getUniqueKey() {
+        String key = uniqueKey;
+        if (key == null) {
+            key = buildUniqueKey();
+            uniqueKey = key;
+        }
+        return key;
+    }
+
+    private String buildUniqueKey() {
         StringBuilder sb = new StringBuilder(material.name());
         if (spawnerType != null) sb.append("_").append(spawnerType);
         if (spawnerItem != null) sb.append("_ITEM_").append(spawnerItem);
@@ -68,6 +68,38 @@ public class StockResetRule {
         return type;
     }
 
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public int getDayOfMonth() {
+        return dayOfMonth;
+    }
+
+    public Month getMonth() {
+        return month;
+    }
+
+    public int getMonthDay() {
+        return monthDay;
+    }
+
+    public LocalDateTime getOnceAt() {
+        return onceAt;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
     public boolean shouldReset(long lastRunEpochMillis, Instant nowInstant) {
         if (!isEnabled()) return false;
 
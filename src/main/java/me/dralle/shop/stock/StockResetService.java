@@ -58,7 +58,7 @@ public class StockResetService {
     public int resetShopManual(String shopKey) {
         int count = resetShopStock(shopKey, false);
         plugin.getDataManager().save();
-        plugin.getGenericShopGui().requestRefresh();
+        plugin.getGenericShopGui().requestRefresh(shopKey);
         return count;
     }
 
@@ -70,7 +70,7 @@ public class StockResetService {
             if (item.getSlot() != null && item.getSlot() == slot) {
                 plugin.getDataManager().resetGlobalCount(item.getUniqueKey(), false);
                 plugin.getDataManager().save();
-                plugin.getGenericShopGui().requestRefresh();
+                plugin.getGenericShopGui().requestRefresh(shopKey, item.getUniqueKey());
                 return true;
             }
         }
@@ -137,7 +137,9 @@ public class StockResetService {
         }
 
         plugin.getDataManager().save();
-        plugin.getGenericShopGui().requestRefresh();
+        for (ResetAction action : actions) {
+            plugin.getGenericShopGui().requestRefresh(action.shopKey(), action.shopReset() ? null : action.itemKey());
+        }
     }
 
     private String getItemResetId(String shopKey, ShopItem item) {
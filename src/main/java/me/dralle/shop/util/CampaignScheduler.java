@@ -0,0 +1,74 @@
+package me.dralle.shop.util;
+
+import me.dralle.shop.ShopPlugin;
+import me.dralle.shop.model.ShopData;
+import me.dralle.shop.model.ShopItem;
+import org.bukkit.Bukkit;
+
+/**
+ * Wakes up exactly when a campaign starts or ends, re-resolves the campaign quotes of the
+ * affected shops' items and refreshes their open pages, then sleeps until the next boundary.
+ */
+public class CampaignScheduler {
+
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final ShopPlugin plugin;
+    private int taskId = -1;
+    private long lastRunAt;
+
+    public CampaignScheduler(ShopPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        stop();
+        lastRunAt = System.currentTimeMillis();
+        scheduleNext(lastRunAt);
+    }
+
+    public void stop() {
+        if (taskId != -1) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = -1;
+        }
+    }
+
+    private void runBoundary() {
+        taskId = -1;
+        long now = System.currentTimeMillis();
+        for (String shopKey : plugin.getShopManager().getShopKeys()) {
+            ShopData shop = plugin.getShopManager().getShop(shopKey);
+            if (shop == null) continue;
+            boolean flipped = false;
+            for (ShopItem item : shop.getItems()) {
+                if (CampaignUtil.nextBoundary(shop, item, lastRunAt) <= now) {
+                    CampaignUtil.quote(shop, item, now);
+                    flipped = true;
+                }
+            }
+            if (flipped) {
+                plugin.getGenericShopGui().requestRefresh(shopKey);
+            }
+        }
+        lastRunAt = now;
+        scheduleNext(now);
+    }
+
+    private void scheduleNext(long now) {
+        long next = Long.MAX_VALUE;
+        for (String shopKey : plugin.getShopManager().getShopKeys()) {
+            ShopData shop = plugin.getShopManager().getShop(shopKey);
+            if (shop == null) continue;
+            for (ShopItem item : shop.getItems()) {
+                next = Math.min(next, CampaignUtil.nextBoundary(shop, item, now));
+            }
+        }
+        if (next == Long.MAX_VALUE) return;
+
+        // Round up so we never wake before the boundary
+        long delayTicks = Math.max(1L, (next - now + MILLIS_PER_TICK - 1L) / MILLIS_PER_TICK);
+        taskId = Bukkit.getScheduler().runTaskLater(plugin, this::runBoundary, delayTicks).getTaskId();
+        plugin.debug("Next campaign boundary in " + (delayTicks / 20L) + "s");
+    }
+}
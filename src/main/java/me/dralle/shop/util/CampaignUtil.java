@@ -27,14 +27,8 @@ public final class CampaignUtil {
 
     public static boolean isCampaignActive(ShopItem item, Instant now) {
         if (item == null || !item.isCampaignEnabled()) return false;
-
-        ZoneId zone = parseZone(item.getCampaignTimezone());
-        Instant start = parseDateTime(item.getCampaignStart(), zone);
-        Instant end = parseDateTime(item.getCampaignEnd(), zone);
-
-        if (start != null && now.isBefore(start)) return false;
-        if (end != null && now.isAfter(end)) return false;
-        return start != null || end != null;
+        ShopCampaign inline = item.getInlineCampaign();
+        return inline != null && inline.isActiveAt(now.toEpochMilli());
     }
 
     public static double getActiveBuyMultiplier(ShopItem item) {
@@ -49,20 +43,71 @@ public final class CampaignUtil {
         return m > 0D ? m : 1.0D;
     }
 
+    /**
+     * Campaign multipliers resolved for one shop, valid until the next start or end
+     * of any campaign that could apply to the item.
+     */
+    public record MultiplierQuote(ShopData shop, double buyMultiplier, double sellMultiplier, long validUntil) {}
+
     public static double getActiveBuyMultiplier(ShopData shop, ShopItem item) {
-        ShopCampaign resolved = resolveCampaign(shop, item);
-        if (resolved == null) return 1.0D;
-        double m = resolved.getBuyMultiplier();
-        return m > 0D ? m : 1.0D;
+        if (item == null) return multiplier(resolveCampaign(shop, null), true);
+        return quote(shop, item, System.currentTimeMillis()).buyMultiplier();
     }
 
     public static double getActiveSellMultiplier(ShopData shop, ShopItem item) {
-        ShopCampaign resolved = resolveCampaign(shop, item);
-        if (resolved == null) return 1.0D;
-        double m = resolved.getSellMultiplier();
+        if (item == null) return multiplier(resolveCampaign(shop, null), false);
+        return quote(shop, item, System.currentTimeMillis()).sellMultiplier();
+    }
+
+    /**
+     * Multipliers for the item in the shop at {@code now}; cached on the item until the next campaign boundary.
+     */
+    public static MultiplierQuote quote(ShopData shop, ShopItem item, long now) {
+        MultiplierQuote cached = item.getCampaignQuote();
+        if (cached != null && cached.shop() == shop && now < cached.validUntil()) {
+            return cached;
+        }
+        ShopCampaign resolved = resolveCampaign(shop, item, now);
+        MultiplierQuote fresh = new MultiplierQuote(
+                shop,
+                multiplier(resolved, true),
+                multiplier(resolved, false),
+                nextBoundary(shop, item, now)
+        );
+        item.setCampaignQuote(fresh);
+        return fresh;
+    }
+
+    private static double multiplier(ShopCampaign campaign, boolean buy) {
+        if (campaign == null) return 1.0D;
+        double m = buy ? campaign.getBuyMultiplier() : campaign.getSellMultiplier();
         return m > 0D ? m : 1.0D;
     }
 
+    /**
+     * Earliest epoch millis after {@code now} at which any campaign considered by
+     * {@link #resolveCampaign(ShopData, ShopItem)} starts or ends, or {@link Long#MAX_VALUE}.
+     */
+    public static long nextBoundary(ShopData shop, ShopItem item, long now) {
+        long next = Long.MAX_VALUE;
+        if (item.isCampaignEnabled()) {
+            next = Math.min(next, boundaryAfter(item.getInlineCampaign(), now));
+        }
+        if (shop != null && shop.getCampaigns() != null) {
+            if (item.getCampaignKey() != null && !item.getCampaignKey().isBlank()) {
+                next = Math.min(next, boundaryAfter(shop.getCampaigns().get(item.getCampaignKey()), now));
+            }
+            if (shop.getCampaignKey() != null && !shop.getCampaignKey().isBlank()) {
+                next = Math.min(next, boundaryAfter(shop.getCampaigns().get(shop.getCampaignKey()), now));
+            }
+        }
+        return next;
+    }
+
+    private static long boundaryAfter(ShopCampaign campaign, long now) {
+        return campaign != null ? campaign.nextBoundaryAfter(now) : Long.MAX_VALUE;
+    }
+
     public static double applyBuyCampaign(ShopItem item, double price) {
         return price * getActiveBuyMultiplier(item);
     }
@@ -80,28 +125,27 @@ public final class CampaignUtil {
     }
 
     public static ShopCampaign resolveCampaign(ShopData shop, ShopItem item) {
-        if (item != null && item.isCampaignEnabled() && isCampaignActive(item, Instant.now())) {
-            return new ShopCampaign(
-                    "inline-item",
-                    item.getCampaignName(),
-                    item.getCampaignStart(),
-                    item.getCampaignEnd(),
-                    item.getCampaignTimezone(),
-                    item.getCampaignBuyMultiplier(),
-                    item.getCampaignSellMultiplier()
-            );
+        return resolveCampaign(shop, item, System.currentTimeMillis());
+    }
+
+    private static ShopCampaign resolveCampaign(ShopData shop, ShopItem item, long now) {
+        if (item != null && item.isCampaignEnabled()) {
+            ShopCampaign inline = item.getInlineCampaign();
+            if (inline != null && inline.isActiveAt(now)) {
+                return inline;
+            }
         }
 
         if (shop != null && item != null && item.getCampaignKey() != null && !item.getCampaignKey().isBlank()) {
             ShopCampaign c = shop.getCampaigns() != null ? shop.getCampaigns().get(item.getCampaignKey()) : null;
-            if (c != null && isCampaignActive(c, Instant.now())) {
+            if (c != null && c.isActiveAt(now)) {
                 return c;
             }
         }
 
         if (shop != null && shop.getCampaignKey() != null && !shop.getCampaignKey().isBlank()) {
             ShopCampaign c = shop.getCampaigns() != null ? shop.getCampaigns().get(shop.getCampaignKey()) : null;
-            if (c != null && isCampaignActive(c, Instant.now())) {
+            if (c != null && c.isActiveAt(now)) {
                 return c;
             }
         }
@@ -114,14 +158,31 @@ public final class CampaignUtil {
     }
 
     public static boolean isCampaignActive(ShopCampaign campaign, Instant now) {
-        if (campaign == null) return false;
-        ZoneId zone = parseZone(campaign.getTimezone());
-        Instant start = parseDateTime(campaign.getStart(), zone);
-        Instant end = parseDateTime(campaign.getEnd(), zone);
-
-        if (start != null && now.isBefore(start)) return false;
-        if (end != null && now.isAfter(end)) return false;
-        return start != null || end != null;
+        return campaign != null && campaign.isActiveAt(now.toEpochMilli());
+    }
+
+    /**
+     * Builds a campaign with its window resolved to epoch millis. Called by the catalog loaders so the
+     * model never parses dates; a blank or unparseable bound leaves that side of the window open.
+     */
+    public static ShopCampaign createCampaign(String key, String name, String start, String end, String timezone,
+                                              double buyMultiplier, double sellMultiplier) {
+        Instant startAt = parseInstant(start, timezone);
+        Instant endAt = parseInstant(end, timezone);
+        return new ShopCampaign(key, name, start, end, timezone, buyMultiplier, sellMultiplier,
+                startAt != null ? startAt.toEpochMilli() : ShopCampaign.NO_START,
+                endAt != null ? endAt.toEpochMilli() : ShopCampaign.NO_END);
+    }
+
+    /**
+     * Parses a campaign start/end value in the given timezone (system default when blank or unknown).
+     * Used once per campaign when the catalog loads.
+     *
+     * @return the instant, or null when blank or unparseable
+     */
+    public static Instant parseInstant(String raw, String zoneRaw) {
+        if (raw == null || raw.isBlank()) return null;
+        return parseDateTime(raw, parseZone(zoneRaw));
     }
 
     private static Instant parseDateTime(String raw, ZoneId zone) {
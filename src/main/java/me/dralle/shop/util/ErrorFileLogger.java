@@ -3,27 +3,58 @@ package me.dralle.shop.util;
 import me.dralle.shop.ShopPlugin;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Writes plugin errors/exceptions to a dedicated file for support diagnostics.
+ * Callers only enqueue into a bounded buffer; a background thread formats the records and writes
+ * them through one open channel, rotating (and gzipping) the file by size and by day.
+ * When the buffer is full, records are dropped and counted instead of blocking the caller.
+ * Each start gets its own {@link Writer} with its own buffer and channel, so a writer that outlives
+ * {@link #stop()} can never touch the file state of the next one.
  */
 public final class ErrorFileLogger {
+    private static final DateTimeFormatter ARCHIVE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private record Entry(long timestamp, String source, String message, Throwable throwable) {}
+
+    // Wakes the writer on stop(); never written
+    private static final Entry WAKE_UP = new Entry(0L, null, null, null);
+
     private final ShopPlugin plugin;
+    private volatile AtomicLong dropped = new AtomicLong();
     private volatile boolean enabled;
+    private volatile Writer writer;
     private Path logPath;
     private Handler severeHandler;
-    private final Object writeLock = new Object();
 
     public ErrorFileLogger(ShopPlugin plugin) {
         this.plugin = plugin;
@@ -34,8 +65,7 @@ public final class ErrorFileLogger {
 
         boolean debugEnabled = plugin.getConfig().getBoolean("debug", false);
         boolean fileLoggingEnabled = plugin.getConfig().getBoolean("debug-error-log.enabled", true);
-        this.enabled = debugEnabled && fileLoggingEnabled;
-        if (!this.enabled) {
+        if (!(debugEnabled && fileLoggingEnabled)) {
             return;
         }
 
@@ -45,21 +75,32 @@ public final class ErrorFileLogger {
             resolved = new File(plugin.getDataFolder(), resolved.getPath());
         }
         this.logPath = resolved.toPath();
+        Writer next = new Writer(
+                this.logPath,
+                Math.max(0L, plugin.getConfig().getLong("debug-error-log.max-file-size-kb", 5120L)) * 1024L,
+                plugin.getConfig().getBoolean("debug-error-log.rotate-daily", true),
+                Math.max(0, plugin.getConfig().getInt("debug-error-log.max-archives", 5)),
+                Math.max(50L, plugin.getConfig().getLong("debug-error-log.flush-interval-ms", 1000L)),
+                Math.max(16, plugin.getConfig().getInt("debug-error-log.buffer-size", 1024))
+        );
 
         try {
             Path parent = this.logPath.getParent();
             if (parent != null) {
                 Files.createDirectories(parent);
             }
-            if (Files.notExists(this.logPath)) {
-                Files.createFile(this.logPath);
-            }
+            next.openChannel();
         } catch (Exception e) {
-            this.enabled = false;
+            next.closeChannel();
             plugin.getLogger().warning("Failed to initialize error log file: " + e.getMessage());
             return;
         }
 
+        this.dropped = next.dropped;
+        this.writer = next;
+        this.enabled = true;
+        next.thread.start();
+
         this.severeHandler = new Handler() {
             @Override
             public void publish(LogRecord record) {
@@ -75,12 +116,12 @@ public final class ErrorFileLogger {
 
             @Override
             public void flush() {
-                // No buffering.
+                // Flushed by the writer thread.
             }
 
             @Override
             public void close() {
-                // No resources to release.
+                // Released in stop().
             }
         };
         this.severeHandler.setLevel(Level.SEVERE);
@@ -89,53 +130,245 @@ public final class ErrorFileLogger {
         logError("SYSTEM", "Error file logging initialized", null);
     }
 
+    /**
+     * Stops accepting records and waits briefly for the writer to write out what is buffered.
+     */
     public void stop() {
         this.enabled = false;
         if (this.severeHandler != null) {
             plugin.getLogger().removeHandler(this.severeHandler);
             this.severeHandler = null;
         }
+        Writer current = this.writer;
+        if (current != null) {
+            this.writer = null;
+            current.stopping = true;
+            // No interrupt: it would close the channel mid-write
+            current.buffer.offer(WAKE_UP);
+            try {
+                current.thread.join(2000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (current.thread.isAlive()) {
+                // It keeps its own channel and finishes on its own; the next writer opens a fresh one
+                plugin.getLogger().warning("Error log writer is still flushing; continuing without waiting for it.");
+            }
+        }
     }
 
     public void logError(String source, String message, Throwable throwable) {
-        if (!enabled || logPath == null) {
+        Writer current = writer;
+        if (!enabled || current == null) {
             return;
         }
+        if (!current.buffer.offer(new Entry(System.currentTimeMillis(), source, message, throwable))) {
+            current.dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records dropped because the buffer was full since logging (re)started.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public File getLogFile() {
+        return logPath == null ? null : logPath.toFile();
+    }
+
+    /**
+     * One logging run: its buffer, its thread and the file state only that thread touches.
+     */
+    private final class Writer {
+        private final Path logPath;
+        private final long maxFileBytes;
+        private final boolean rotateDaily;
+        private final int maxArchives;
+        private final long flushIntervalMs;
+        private final BlockingQueue<Entry> buffer;
+        private final AtomicLong dropped = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean stopping;
+
+        // Writer thread only
+        private FileChannel channel;
+        private long fileSize;
+        private LocalDate fileDay;
+
+        private Writer(Path logPath, long maxFileBytes, boolean rotateDaily, int maxArchives, long flushIntervalMs, int bufferSize) {
+            this.logPath = logPath;
+            this.maxFileBytes = maxFileBytes;
+            this.rotateDaily = rotateDaily;
+            this.maxArchives = maxArchives;
+            this.flushIntervalMs = flushIntervalMs;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.thread = new Thread(this::run, "GeniusShop-ErrorLog");
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+            List<Entry> batch = new ArrayList<>();
+            long lastReportedDrops = 0L;
+            try {
+                while (true) {
+                    Entry first = stopping ? null : buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                    }
+                    buffer.drainTo(batch);
+
+                    long drops = dropped.get();
+                    if (drops != lastReportedDrops) {
+                        append(out, format(new Entry(System.currentTimeMillis(), "SYSTEM",
+                                "Dropped " + (drops - lastReportedDrops) + " error records (buffer full)", null)));
+                        lastReportedDrops = drops;
+                    }
+                    for (Entry entry : batch) {
+                        if (entry != WAKE_UP) {
+                            append(out, format(entry));
+                        }
+                    }
+                    batch.clear();
+                    // Flush once the buffer runs dry; append() already flushes when it fills up
+                    flush(out);
+
+                    if (stopping && buffer.isEmpty()) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                if (writer == this) {
+                    enabled = false;
+                }
+                plugin.getLogger().warning("Failed writing to error log file: " + e.getMessage());
+            } finally {
+                closeChannel();
+            }
+        }
+
+        private void append(ByteBuffer out, String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > out.remaining()) {
+                flush(out);
+            }
+            if (bytes.length > out.capacity()) {
+                write(ByteBuffer.wrap(bytes));
+                return;
+            }
+            out.put(bytes);
+        }
+
+        private void flush(ByteBuffer out) throws IOException {
+            if (out.position() == 0) return;
+            out.flip();
+            write(out);
+            out.clear();
+        }
 
+        private void write(ByteBuffer data) throws IOException {
+            rotateIfNeeded(data.remaining());
+            while (data.hasRemaining()) {
+                fileSize += channel.write(data);
+            }
+        }
+
+        private void rotateIfNeeded(int incoming) throws IOException {
+            boolean sizeExceeded = maxFileBytes > 0L && fileSize > 0L && fileSize + incoming > maxFileBytes;
+            boolean dayChanged = rotateDaily && fileSize > 0L && !LocalDate.now().equals(fileDay);
+            if (!sizeExceeded && !dayChanged) return;
+
+            closeChannel();
+            Path parent = logPath.toAbsolutePath().getParent();
+            String name = logPath.getFileName().toString();
+            // A daily archive holds fileDay's records, so it is named after that day rather than now
+            String stamp = sizeExceeded
+                    ? OffsetDateTime.now().format(ARCHIVE_STAMP)
+                    : fileDay.atTime(LocalTime.MAX).format(ARCHIVE_STAMP);
+            Path archive = parent.resolve(name + "." + stamp);
+            try {
+                Files.move(logPath, archive);
+            } catch (IOException e) {
+                // Keep appending to the current file rather than losing records
+                plugin.getLogger().warning("Failed rotating error log file: " + e.getMessage());
+                openChannel();
+                return;
+            }
+            openChannel();
+            compress(archive);
+            try {
+                pruneArchives(parent, name);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed pruning old error logs: " + e.getMessage());
+            }
+        }
+
+        private void compress(Path archive) {
+            Path gz = archive.resolveSibling(archive.getFileName() + ".gz");
+            try (InputStream in = Files.newInputStream(archive);
+                 OutputStream gzOut = new GZIPOutputStream(Files.newOutputStream(gz))) {
+                in.transferTo(gzOut);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed compressing rotated error log: " + e.getMessage());
+                return;
+            }
+            try {
+                Files.deleteIfExists(archive);
+            } catch (IOException ignored) {
+            }
+        }
+
+        private void pruneArchives(Path dir, String name) throws IOException {
+            List<Path> archives = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, name + ".*.gz")) {
+                stream.forEach(archives::add);
+            }
+            if (archives.size() <= maxArchives) return;
+            // Timestamps sort chronologically
+            archives.sort(null);
+            for (int i = 0; i < archives.size() - maxArchives; i++) {
+                Files.deleteIfExists(archives.get(i));
+            }
+        }
+
+        void openChannel() throws IOException {
+            this.channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            this.fileSize = channel.size();
+            this.fileDay = fileSize > 0L
+                    ? Files.getLastModifiedTime(logPath).toInstant().atZone(ZoneId.systemDefault()).toLocalDate()
+                    : LocalDate.now();
+        }
+
+        void closeChannel() {
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+    }
+
+    private static String format(Entry entry) {
         StringBuilder line = new StringBuilder(256);
         line.append('[')
-                .append(OffsetDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+                .append(OffsetDateTime.ofInstant(Instant.ofEpochMilli(entry.timestamp()), ZoneId.systemDefault())
+                        .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
                 .append("] [")
-                .append(source == null || source.isBlank() ? "GENERAL" : source)
+                .append(entry.source() == null || entry.source().isBlank() ? "GENERAL" : entry.source())
                 .append("] ")
-                .append(message == null ? "(no message)" : message)
+                .append(entry.message() == null ? "(no message)" : entry.message())
                 .append(System.lineSeparator());
 
-        if (throwable != null) {
+        if (entry.throwable() != null) {
             StringWriter sw = new StringWriter();
             try (PrintWriter pw = new PrintWriter(sw)) {
-                throwable.printStackTrace(pw);
+                entry.throwable().printStackTrace(pw);
             }
             line.append(sw).append(System.lineSeparator());
         }
-
-        synchronized (writeLock) {
-            try {
-                Files.writeString(
-                        logPath,
-                        line.toString(),
-                        StandardCharsets.UTF_8,
-                        StandardOpenOption.CREATE,
-                        StandardOpenOption.WRITE,
-                        StandardOpenOption.APPEND
-                );
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed writing to error log file: " + e.getMessage());
-            }
-        }
-    }
-
-    public File getLogFile() {
-        return logPath == null ? null : logPath.toFile();
+        return line.toString();
     }
 }
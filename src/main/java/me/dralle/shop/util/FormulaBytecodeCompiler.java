@@ -0,0 +1,290 @@
+package me.dralle.shop.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns a parsed price formula into a hidden class whose {@code evaluate(double[])} is straight-line
+ * double arithmetic, so the JIT can inline each formula on its own instead of walking a shared tree.
+ * The generated code has no branches (division goes through {@link PriceFormulaUtil#safeDivide}),
+ * which keeps the class file free of stack map frames.
+ */
+final class FormulaBytecodeCompiler {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String CLASS_NAME = "me/dralle/shop/util/GeneratedPriceFormula";
+    private static final String NODE_NAME = "me/dralle/shop/util/PriceFormulaUtil$Node";
+    private static final String UTIL_NAME = "me/dralle/shop/util/PriceFormulaUtil";
+    private static final int MAX_CODE_LENGTH = 65535;
+
+    // Opcodes used by the generated method
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int LDC2_W = 0x14;
+    private static final int DALOAD = 0x31;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int DNEG = 0x77;
+    private static final int L2D = 0x8a;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+    private FormulaBytecodeCompiler() {}
+
+    static PriceFormulaUtil.Node compile(PriceFormulaUtil.Node tree) throws Throwable {
+        byte[] bytes = new FormulaBytecodeCompiler().emitClass(tree);
+        MethodHandles.Lookup hidden = LOOKUP.defineHiddenClass(bytes, true);
+        return (PriceFormulaUtil.Node) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+    }
+
+    private byte[] emitClass(PriceFormulaUtil.Node tree) throws IOException {
+        emit(tree);
+        code.write(DRETURN);
+        if (code.size() > MAX_CODE_LENGTH) {
+            throw new IllegalStateException("Formula too large for bytecode (" + code.size() + " bytes)");
+        }
+        byte[] evaluateCode = code.toByteArray();
+        int maxStack = stackWords(tree);
+
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int nodeInterface = pool.classRef(NODE_NAME);
+        int objectInit = pool.methodRef("java/lang/Object", "<init>", "()V");
+        int initName = pool.utf8("<init>");
+        int initDesc = pool.utf8("()V");
+        int evaluateName = pool.utf8("evaluate");
+        int evaluateDesc = pool.utf8("([D)D");
+        int codeName = pool.utf8("Code");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + evaluateCode.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(61); // Java 17 class file
+        pool.write(out);
+        out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(nodeInterface);
+        out.writeShort(0); // fields
+        out.writeShort(2); // methods
+
+        byte[] initCode = {
+                (byte) ALOAD_0,
+                (byte) INVOKESPECIAL, (byte) (objectInit >> 8), (byte) objectInit,
+                (byte) RETURN
+        };
+        writeMethod(out, initName, initDesc, codeName, 1, 1, initCode);
+        writeMethod(out, evaluateName, evaluateDesc, codeName, maxStack, 2, evaluateCode);
+
+        out.writeShort(0); // class attributes
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeName,
+                                    int maxStack, int maxLocals, byte[] body) throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + body.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(body.length);
+        out.write(body);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // code attributes
+    }
+
+    private void emit(PriceFormulaUtil.Node node) {
+        if (node instanceof PriceFormulaUtil.Constant c) {
+            pushConstant(c.value());
+        } else if (node instanceof PriceFormulaUtil.Slot slot) {
+            code.write(ALOAD_1);
+            pushInt(slot.index());
+            code.write(DALOAD);
+        } else if (node instanceof PriceFormulaUtil.Negate n) {
+            emit(n.inner());
+            code.write(DNEG);
+        } else if (node instanceof PriceFormulaUtil.Binary b) {
+            emit(b.left());
+            emit(b.right());
+            switch (b.op()) {
+                case ADD -> code.write(DADD);
+                case SUBTRACT -> code.write(DSUB);
+                case MULTIPLY -> code.write(DMUL);
+                case DIVIDE -> {
+                    if (b.right() instanceof PriceFormulaUtil.Constant divisor && Math.abs(divisor.value()) >= 1.0e-12D) {
+                        code.write(DDIV);
+                    } else {
+                        invokeStatic(UTIL_NAME, "safeDivide", "(DD)D");
+                    }
+                }
+            }
+        } else if (node instanceof PriceFormulaUtil.Call call) {
+            emit(call.first());
+            if (call.second() != null) {
+                emit(call.second());
+            }
+            switch (call.fn()) {
+                case ABS -> invokeStatic("java/lang/Math", "abs", "(D)D");
+                case ROUND -> {
+                    invokeStatic("java/lang/Math", "round", "(D)J");
+                    code.write(L2D);
+                }
+                case FLOOR -> invokeStatic("java/lang/Math", "floor", "(D)D");
+                case CEIL -> invokeStatic("java/lang/Math", "ceil", "(D)D");
+                case MIN -> invokeStatic("java/lang/Math", "min", "(DD)D");
+                case MAX -> invokeStatic("java/lang/Math", "max", "(DD)D");
+                case POW -> invokeStatic("java/lang/Math", "pow", "(DD)D");
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported formula node " + node.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Operand stack words needed to evaluate {@code node}; every intermediate value is a double (2 words).
+     */
+    private static int stackWords(PriceFormulaUtil.Node node) {
+        if (node instanceof PriceFormulaUtil.Negate n) {
+            return stackWords(n.inner());
+        }
+        if (node instanceof PriceFormulaUtil.Binary b) {
+            return Math.max(stackWords(b.left()), 2 + stackWords(b.right()));
+        }
+        if (node instanceof PriceFormulaUtil.Call call) {
+            int first = stackWords(call.first());
+            return call.second() != null ? Math.max(first, 2 + stackWords(call.second())) : first;
+        }
+        return 2;
+    }
+
+    private void pushConstant(double value) {
+        if (Double.doubleToRawLongBits(value) == 0L) {
+            code.write(DCONST_0);
+        } else if (value == 1.0D) {
+            code.write(DCONST_1);
+        } else {
+            writeIndexed(LDC2_W, pool.doubleConstant(value));
+        }
+    }
+
+    private void pushInt(int value) {
+        if (value <= 5) {
+            code.write(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            code.write(BIPUSH);
+            code.write(value);
+        } else {
+            writeIndexed(SIPUSH, value);
+        }
+    }
+
+    private void invokeStatic(String owner, String name, String descriptor) {
+        writeIndexed(INVOKESTATIC, pool.methodRef(owner, name, descriptor));
+    }
+
+    private void writeIndexed(int opcode, int index) {
+        code.write(opcode);
+        code.write(index >> 8);
+        code.write(index);
+    }
+
+    /**
+     * Minimal constant pool; entries are deduplicated by their serialized form.
+     */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int next = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, 1, () -> out.writeUTF(value));
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, 1, () -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + ":" + descriptor, 1, () -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("M" + owner + "." + name + descriptor, 1, () -> {
+                out.writeByte(10);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        int doubleConstant(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            return entry("D" + bits, 2, () -> {
+                out.writeByte(6);
+                out.writeLong(bits);
+            });
+        }
+
+        private int entry(String key, int slots, Writer writer) {
+            Integer existing = indexes.get(key);
+            if (existing != null) return existing;
+            if (next + slots > 0xFFFF) {
+                throw new IllegalStateException("Constant pool overflow");
+            }
+            try {
+                if (key.charAt(0) == 'U') {
+                    out.writeByte(1);
+                }
+                writer.write();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            int index = next;
+            next += slots;
+            indexes.put(key, index);
+            return index;
+        }
+
+        void write(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(next);
+            bytes.writeTo(target);
+        }
+
+        @FunctionalInterface
+        private interface Writer {
+            void write() throws IOException;
+        }
+    }
+}
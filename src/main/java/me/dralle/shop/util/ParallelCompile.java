@@ -0,0 +1,81 @@
+package me.dralle.shop.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs independent per-shop work (YAML parsing, compiling) on a small, short-lived fork-join pool.
+ * Results come back in the order of the input keys, so logs and validation output do not depend
+ * on which thread finished first.
+ */
+public final class ParallelCompile {
+
+    private static final int MAX_AUTO_THREADS = 4;
+
+    private ParallelCompile() {
+    }
+
+    /**
+     * @param configured the {@code catalog-compile-threads} setting; 0 or less picks one thread per core, capped at 4
+     */
+    public static int threads(int configured) {
+        if (configured > 0) return configured;
+        return Math.max(1, Math.min(MAX_AUTO_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Applies {@code task} to every key and returns the results keyed in input order.
+     * With one thread (or at most one key) everything runs on the calling thread.
+     * The first failure is rethrown after all tasks have finished.
+     */
+    public static <K, V> Map<K, V> mapOrdered(List<K> keys, int threads, Function<K, V> task) {
+        Map<K, V> out = new LinkedHashMap<>();
+        if (threads <= 1 || keys.size() <= 1) {
+            for (K key : keys) {
+                out.put(key, task.apply(key));
+            }
+            return out;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(threads, keys.size()), new NamedThreadFactory(), null, false);
+        try {
+            List<ForkJoinTask<V>> tasks = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                tasks.add(pool.submit(() -> task.apply(key)));
+            }
+            RuntimeException failure = null;
+            for (int i = 0; i < keys.size(); i++) {
+                try {
+                    out.put(keys.get(i), tasks.get(i).join());
+                } catch (RuntimeException e) {
+                    if (failure == null) failure = e;
+                }
+            }
+            if (failure != null) throw failure;
+            return out;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final class NamedThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("GeniusShop-Compile-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            // Workers may not inherit the plugin class loader; YAML deserialization needs it
+            thread.setContextClassLoader(ParallelCompile.class.getClassLoader());
+            return thread;
+        }
+    }
+}
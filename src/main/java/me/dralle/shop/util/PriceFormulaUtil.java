@@ -3,22 +3,82 @@ package me.dralle.shop.util;
 import me.dralle.shop.ShopPlugin;
 import me.dralle.shop.model.ShopItem;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
 
 public final class PriceFormulaUtil {
 
-    private static final Map<String, CompiledExpression> COMPILED_CACHE = new ConcurrentHashMap<>();
+    // Fixed context slots for price formulas; aliases share a slot
+    private static final int SLOT_BASE = 0;
+    private static final int SLOT_DYNAMIC = 1;
+    private static final int SLOT_GLOBAL_COUNT = 2;
+    private static final int SLOT_AMOUNT = 3;
+    private static final int SLOT_PRICE_CHANGE = 4;
+    private static final int SLOT_MIN_PRICE = 5;
+    private static final int SLOT_MAX_PRICE = 6;
+    private static final int SLOT_LIMIT = 7;
+    private static final int SLOT_GLOBAL_LIMIT = 8;
+    private static final int PRICE_SLOTS = 9;
+    private static final Map<String, Integer> PRICE_VARIABLES = Map.ofEntries(
+            Map.entry("base", SLOT_BASE),
+            Map.entry("price", SLOT_BASE),
+            Map.entry("dynamic", SLOT_DYNAMIC),
+            Map.entry("dynamic_price", SLOT_DYNAMIC),
+            Map.entry("global_count", SLOT_GLOBAL_COUNT),
+            Map.entry("count", SLOT_GLOBAL_COUNT),
+            Map.entry("amount", SLOT_AMOUNT),
+            Map.entry("price_change", SLOT_PRICE_CHANGE),
+            Map.entry("min_price", SLOT_MIN_PRICE),
+            Map.entry("max_price", SLOT_MAX_PRICE),
+            Map.entry("limit", SLOT_LIMIT),
+            Map.entry("global_limit", SLOT_GLOBAL_LIMIT)
+    );
+    private static final ThreadLocal<double[]> PRICE_CONTEXT = ThreadLocal.withInitial(() -> new double[PRICE_SLOTS]);
+
+    private static final Map<String, CompiledFormula> PRICE_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, CompiledFormula> COMPILED_CACHE = new ConcurrentHashMap<>();
     private static final Set<String> INVALID_EXPRESSIONS = ConcurrentHashMap.newKeySet();
+    private static volatile boolean bytecodeMode;
 
     private PriceFormulaUtil() {}
 
+    /**
+     * Base prices of an item for one global count. Both prices depend only on the item config
+     * and that count, so a quote stays valid until the item's global count changes.
+     */
+    public record BaseQuote(int globalCount, double buyBase, double sellBase) {}
+
     public static double resolveBuyBasePrice(ShopPlugin plugin, ShopItem item) {
         if (item == null) return 0D;
+        return quote(plugin, item).buyBase();
+    }
+
+    public static double resolveSellBasePrice(ShopPlugin plugin, ShopItem item) {
+        if (item == null || item.getSellPrice() == null) return 0D;
+        return quote(plugin, item).sellBase();
+    }
+
+    private static BaseQuote quote(ShopPlugin plugin, ShopItem item) {
         int globalCount = plugin.getStateRepository().getGlobalCount(item.getUniqueKey());
+        BaseQuote cached = item.getBaseQuote();
+        if (cached != null && cached.globalCount() == globalCount) {
+            return cached;
+        }
+        BaseQuote fresh = new BaseQuote(
+                globalCount,
+                computeBuyBasePrice(item, globalCount),
+                item.getSellPrice() != null ? computeSellBasePrice(item, globalCount) : 0D
+        );
+        item.setBaseQuote(fresh);
+        return fresh;
+    }
+
+    private static double computeBuyBasePrice(ShopItem item, int globalCount) {
         double base = item.getPrice();
         double dynamicPrice = base;
         if (item.isDynamicPricing()) {
@@ -30,17 +90,14 @@ public final class PriceFormulaUtil {
         String formula = item.getBuyPriceFormula();
         if (formula == null || formula.trim().isEmpty()) return dynamicPrice;
 
-        Map<String, Double> vars = buildVars(item, base, dynamicPrice, globalCount);
-        Double evaluated = evaluateFormula(formula, vars);
-        if (evaluated == null || Double.isNaN(evaluated) || Double.isInfinite(evaluated)) {
+        double evaluated = evaluatePriceFormula(formula, item, base, dynamicPrice, globalCount);
+        if (Double.isNaN(evaluated) || Double.isInfinite(evaluated)) {
             return dynamicPrice;
         }
         return evaluated;
     }
 
-    public static double resolveSellBasePrice(ShopPlugin plugin, ShopItem item) {
-        if (item == null || item.getSellPrice() == null) return 0D;
-        int globalCount = plugin.getStateRepository().getGlobalCount(item.getUniqueKey());
+    private static double computeSellBasePrice(ShopItem item, int globalCount) {
         double base = item.getSellPrice();
         double dynamicPrice = base;
         if (item.isDynamicPricing()) {
@@ -53,65 +110,208 @@ public final class PriceFormulaUtil {
         String formula = item.getSellPriceFormula();
         if (formula == null || formula.trim().isEmpty()) return dynamicPrice;
 
-        Map<String, Double> vars = buildVars(item, base, dynamicPrice, globalCount);
-        Double evaluated = evaluateFormula(formula, vars);
-        if (evaluated == null || Double.isNaN(evaluated) || Double.isInfinite(evaluated)) {
+        double evaluated = evaluatePriceFormula(formula, item, base, dynamicPrice, globalCount);
+        if (Double.isNaN(evaluated) || Double.isInfinite(evaluated)) {
             return dynamicPrice;
         }
         return Math.max(0.01D, evaluated);
     }
 
-    private static Map<String, Double> buildVars(ShopItem item, double base, double dynamicPrice, int globalCount) {
-        Map<String, Double> vars = new HashMap<>();
-        vars.put("base", base);
-        vars.put("price", base);
-        vars.put("dynamic", dynamicPrice);
-        vars.put("dynamic_price", dynamicPrice);
-        vars.put("global_count", (double) globalCount);
-        vars.put("count", (double) globalCount);
-        vars.put("amount", (double) Math.max(1, item.getAmount()));
-        vars.put("price_change", item.getPriceChange());
-        vars.put("min_price", item.getMinPrice());
-        vars.put("max_price", item.getMaxPrice());
-        vars.put("limit", (double) item.getLimit());
-        vars.put("global_limit", (double) item.getGlobalLimit());
-        return vars;
+    /**
+     * Evaluates a price formula against the fixed price slots without allocating.
+     * Returns NaN when the formula is invalid.
+     */
+    private static double evaluatePriceFormula(String expression, ShopItem item, double base, double dynamicPrice, int globalCount) {
+        CompiledFormula compiled = compile(expression, PRICE_CACHE, true);
+        if (compiled == null) return Double.NaN;
+        double[] ctx = PRICE_CONTEXT.get();
+        ctx[SLOT_BASE] = base;
+        ctx[SLOT_DYNAMIC] = dynamicPrice;
+        ctx[SLOT_GLOBAL_COUNT] = globalCount;
+        ctx[SLOT_AMOUNT] = Math.max(1, item.getAmount());
+        ctx[SLOT_PRICE_CHANGE] = item.getPriceChange();
+        ctx[SLOT_MIN_PRICE] = item.getMinPrice();
+        ctx[SLOT_MAX_PRICE] = item.getMaxPrice();
+        ctx[SLOT_LIMIT] = item.getLimit();
+        ctx[SLOT_GLOBAL_LIMIT] = item.getGlobalLimit();
+        return compiled.evaluate(ctx);
     }
 
+    /**
+     * Evaluates a formula with named variables. Names are bound to slots when the formula is compiled;
+     * missing variables read as 0.
+     */
     public static Double evaluateFormula(String expression, Map<String, Double> vars) {
+        CompiledFormula compiled = compile(expression, COMPILED_CACHE, false);
+        if (compiled == null) return null;
+        String[] names = compiled.variables();
+        double[] ctx = new double[names.length];
+        if (vars != null) {
+            for (int i = 0; i < names.length; i++) {
+                Double value = vars.get(names[i]);
+                ctx[i] = value != null ? value : 0D;
+            }
+        }
+        return compiled.evaluate(ctx);
+    }
+
+    /**
+     * Compiles a formula with named variables, or returns null when it is invalid.
+     * Fill a {@code double[]} following {@link CompiledFormula#variables()} to evaluate it without a map.
+     */
+    public static CompiledFormula compileFormula(String expression) {
+        return compile(expression, COMPILED_CACHE, false);
+    }
+
+    /**
+     * Selects how formulas are executed: {@code "bytecode"} generates a hidden class per formula,
+     * anything else uses the tree interpreter. Changing the mode drops every compiled formula.
+     */
+    public static void setCompileMode(String mode) {
+        boolean bytecode = mode != null && mode.trim().equalsIgnoreCase("bytecode");
+        if (bytecode != bytecodeMode) {
+            bytecodeMode = bytecode;
+            PRICE_CACHE.clear();
+            COMPILED_CACHE.clear();
+        }
+    }
+
+    private static CompiledFormula compile(String expression, Map<String, CompiledFormula> cache, boolean priceSlots) {
         if (expression == null || expression.trim().isEmpty()) return null;
         String normalized = expression.trim();
+        CompiledFormula compiled = cache.get(normalized);
+        if (compiled != null) return compiled;
         if (INVALID_EXPRESSIONS.contains(normalized)) return null;
         try {
-            CompiledExpression compiled = COMPILED_CACHE.get(normalized);
-            if (compiled == null) {
-                compiled = Parser.compile(normalized);
-                COMPILED_CACHE.put(normalized, compiled);
+            List<String> names = new ArrayList<>();
+            Node root = priceSlots
+                    ? Parser.parse(normalized, name -> PRICE_VARIABLES.getOrDefault(name, -1))
+                    : Parser.parse(normalized, name -> {
+                        int slot = names.indexOf(name);
+                        if (slot < 0) {
+                            names.add(name);
+                            slot = names.size() - 1;
+                        }
+                        return slot;
+                    });
+            if (bytecodeMode) {
+                root = generate(normalized, root);
             }
-            double out = compiled.evaluate(vars);
-            return out;
+            compiled = new CompiledFormula(root, names.toArray(new String[0]));
+            cache.put(normalized, compiled);
+            return compiled;
         } catch (Exception ex) {
             INVALID_EXPRESSIONS.add(normalized);
             return null;
         }
     }
 
+    private static Node generate(String expression, Node tree) {
+        if (tree instanceof Constant) return tree;
+        try {
+            return FormulaBytecodeCompiler.compile(tree);
+        } catch (Throwable t) {
+            ShopPlugin plugin = ShopPlugin.getInstance();
+            if (plugin != null) {
+                plugin.debug("[Formula] Using interpreter for '" + expression + "': " + t);
+            }
+            return tree;
+        }
+    }
+
+    static double safeDivide(double a, double d) {
+        if (Math.abs(d) < 1.0e-12D) return 0D;
+        return a / d;
+    }
+
+    /**
+     * A parsed formula reading its variables from a {@code double[]} context,
+     * where {@code variables()[i]} names slot {@code i} (empty for the fixed price slots).
+     */
+    public record CompiledFormula(Node root, String[] variables) {
+        public double evaluate(double[] ctx) {
+            return root.evaluate(ctx);
+        }
+    }
+
     @FunctionalInterface
-    private interface CompiledExpression {
-        double evaluate(Map<String, Double> vars);
+    public interface Node {
+        double evaluate(double[] ctx);
+    }
+
+    // Expression tree; also walked by FormulaBytecodeCompiler
+
+    record Constant(double value) implements Node {
+        @Override
+        public double evaluate(double[] ctx) {
+            return value;
+        }
+    }
+
+    record Slot(int index) implements Node {
+        @Override
+        public double evaluate(double[] ctx) {
+            return ctx[index];
+        }
+    }
+
+    record Negate(Node inner) implements Node {
+        @Override
+        public double evaluate(double[] ctx) {
+            return -inner.evaluate(ctx);
+        }
+    }
+
+    enum Operator { ADD, SUBTRACT, MULTIPLY, DIVIDE }
+
+    record Binary(Operator op, Node left, Node right) implements Node {
+        @Override
+        public double evaluate(double[] ctx) {
+            double l = left.evaluate(ctx);
+            double r = right.evaluate(ctx);
+            return switch (op) {
+                case ADD -> l + r;
+                case SUBTRACT -> l - r;
+                case MULTIPLY -> l * r;
+                case DIVIDE -> safeDivide(l, r);
+            };
+        }
+    }
+
+    enum Function { ABS, ROUND, FLOOR, CEIL, MIN, MAX, POW }
+
+    /**
+     * Function call; {@code second} is null for the one-argument functions.
+     */
+    record Call(Function fn, Node first, Node second) implements Node {
+        @Override
+        public double evaluate(double[] ctx) {
+            double a = first.evaluate(ctx);
+            return switch (fn) {
+                case ABS -> Math.abs(a);
+                case ROUND -> (double) Math.round(a);
+                case FLOOR -> Math.floor(a);
+                case CEIL -> Math.ceil(a);
+                case MIN -> Math.min(a, second.evaluate(ctx));
+                case MAX -> Math.max(a, second.evaluate(ctx));
+                case POW -> Math.pow(a, second.evaluate(ctx));
+            };
+        }
     }
 
     private static final class Parser {
         private final String s;
+        private final ToIntFunction<String> slots;
         private int pos = 0;
 
-        private Parser(String s) {
+        private Parser(String s, ToIntFunction<String> slots) {
             this.s = s;
+            this.slots = slots;
         }
 
-        private static CompiledExpression compile(String expression) {
-            Parser parser = new Parser(expression);
-            CompiledExpression out = parser.parseExpr();
+        private static Node parse(String expression, ToIntFunction<String> slots) {
+            Parser parser = new Parser(expression, slots);
+            Node out = parser.parseExpr();
             parser.skipWs();
             if (parser.pos < parser.s.length()) {
                 throw new IllegalStateException("Unexpected token at " + parser.pos);
@@ -119,104 +319,104 @@ public final class PriceFormulaUtil {
             return out;
         }
 
-        private CompiledExpression parseExpr() {
-            CompiledExpression v = parseTerm();
+        private Node parseExpr() {
+            Node v = parseTerm();
             while (true) {
                 skipWs();
                 if (match('+')) {
-                    CompiledExpression left = v;
-                    CompiledExpression right = parseTerm();
-                    v = vars -> left.evaluate(vars) + right.evaluate(vars);
+                    v = fold(new Binary(Operator.ADD, v, parseTerm()));
                 } else if (match('-')) {
-                    CompiledExpression left = v;
-                    CompiledExpression right = parseTerm();
-                    v = vars -> left.evaluate(vars) - right.evaluate(vars);
+                    v = fold(new Binary(Operator.SUBTRACT, v, parseTerm()));
                 }
                 else break;
             }
             return v;
         }
 
-        private CompiledExpression parseTerm() {
-            CompiledExpression v = parseFactor();
+        private Node parseTerm() {
+            Node v = parseFactor();
             while (true) {
                 skipWs();
                 if (match('*')) {
-                    CompiledExpression left = v;
-                    CompiledExpression right = parseFactor();
-                    v = vars -> left.evaluate(vars) * right.evaluate(vars);
+                    v = fold(new Binary(Operator.MULTIPLY, v, parseFactor()));
                 }
                 else if (match('/')) {
-                    CompiledExpression left = v;
-                    CompiledExpression right = parseFactor();
-                    v = vars -> {
-                        double d = right.evaluate(vars);
-                        if (Math.abs(d) < 1.0e-12D) return 0D;
-                        return left.evaluate(vars) / d;
-                    };
+                    v = fold(new Binary(Operator.DIVIDE, v, parseFactor()));
                 } else break;
             }
             return v;
         }
 
-        private CompiledExpression parseFactor() {
+        private Node parseFactor() {
             skipWs();
             if (match('+')) return parseFactor();
             if (match('-')) {
-                CompiledExpression inner = parseFactor();
-                return vars -> -inner.evaluate(vars);
+                return fold(new Negate(parseFactor()));
             }
 
             if (match('(')) {
-                CompiledExpression v = parseExpr();
+                Node v = parseExpr();
                 expect(')');
                 return v;
             }
 
             if (peekIsDigit() || peek('.') ) {
-                double num = parseNumber();
-                return vars -> num;
+                return new Constant(parseNumber());
             }
 
             String ident = parseIdent();
-            if (ident.isEmpty()) return vars -> 0D;
+            if (ident.isEmpty()) return new Constant(0D);
             skipWs();
             if (match('(')) {
-                CompiledExpression a = parseExpr();
+                Node a = parseExpr();
                 skipWs();
                 if (match(',')) {
-                    CompiledExpression b = parseExpr();
+                    Node b = parseExpr();
                     expect(')');
-                    return vars -> applyFn2(ident, a.evaluate(vars), b.evaluate(vars));
+                    return fold(function2(ident.toLowerCase(Locale.ROOT), a, b));
                 }
                 expect(')');
-                return vars -> applyFn1(ident, a.evaluate(vars));
+                return fold(function1(ident.toLowerCase(Locale.ROOT), a));
             }
-            String variable = ident.toLowerCase(Locale.ROOT);
-            return vars -> vars != null ? vars.getOrDefault(variable, 0D) : 0D;
+            int slot = slots.applyAsInt(ident.toLowerCase(Locale.ROOT));
+            if (slot < 0) return new Constant(0D);
+            return new Slot(slot);
         }
 
-        private static double applyFn1(String fn, double a) {
-            String k = fn.toLowerCase(Locale.ROOT);
-            return switch (k) {
-                case "abs" -> Math.abs(a);
-                case "round" -> (double) Math.round(a);
-                case "floor" -> Math.floor(a);
-                case "ceil", "ceiling" -> Math.ceil(a);
-                default -> 0D;
+        private static Node function1(String fn, Node a) {
+            return switch (fn) {
+                case "abs" -> new Call(Function.ABS, a, null);
+                case "round" -> new Call(Function.ROUND, a, null);
+                case "floor" -> new Call(Function.FLOOR, a, null);
+                case "ceil", "ceiling" -> new Call(Function.CEIL, a, null);
+                default -> new Constant(0D);
             };
         }
 
-        private static double applyFn2(String fn, double a, double b) {
-            String k = fn.toLowerCase(Locale.ROOT);
-            return switch (k) {
-                case "min" -> Math.min(a, b);
-                case "max" -> Math.max(a, b);
-                case "pow" -> Math.pow(a, b);
-                default -> 0D;
+        private static Node function2(String fn, Node a, Node b) {
+            return switch (fn) {
+                case "min" -> new Call(Function.MIN, a, b);
+                case "max" -> new Call(Function.MAX, a, b);
+                case "pow" -> new Call(Function.POW, a, b);
+                default -> new Constant(0D);
             };
         }
 
+        /**
+         * Replaces a node whose operands are all constants by its value.
+         */
+        private static Node fold(Node node) {
+            boolean constant = false;
+            if (node instanceof Negate n) {
+                constant = n.inner() instanceof Constant;
+            } else if (node instanceof Binary b) {
+                constant = b.left() instanceof Constant && b.right() instanceof Constant;
+            } else if (node instanceof Call c) {
+                constant = c.first() instanceof Constant && (c.second() == null || c.second() instanceof Constant);
+            }
+            return constant ? new Constant(node.evaluate(null)) : node;
+        }
+
         private void skipWs() {
             while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
         }
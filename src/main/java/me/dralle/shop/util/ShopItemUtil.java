@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,12 +45,54 @@ public class ShopItemUtil {
     private static final Pattern GRADIENT_PATTERN = Pattern.compile("(?is)<gradient:((?:#?[A-F0-9]{6}:)*#?[A-F0-9]{6})>(.*?)</gradient>");
     private static final Pattern PREFIX_STYLE_GRADIENT_PATTERN = Pattern.compile("(?is)((?:[&\u00A7][K-OR])+)(<gradient:(?:#?[A-F0-9]{6}:)*#?[A-F0-9]{6}>.*?</gradient>)");
 
+    // Rendered color() output keyed by raw input. Two generations: when the young one fills up it
+    // replaces the old one, so the memo stays bounded and lines still in use get promoted back.
+    private static final int COLOR_CACHE_GENERATION_SIZE = 2048;
+    private static final int COLOR_CACHE_MAX_INPUT_LENGTH = 512;
+    private static volatile Map<String, String> colorCacheYoung = new ConcurrentHashMap<>();
+    private static volatile Map<String, String> colorCacheOld = new ConcurrentHashMap<>();
+
     /**
      * Apply color codes (& -> section sign) and HEX support (&#RRGGBB -> section hex sequence).
+     * Results are memoized, since nearly every input is a static config line rendered over and over.
      */
     public static String color(String text) {
         if (text == null) return "";
+        if (!mayContainFormatting(text)) return text;
+        if (text.length() > COLOR_CACHE_MAX_INPUT_LENGTH) return render(text);
+
+        String cached = colorCacheYoung.get(text);
+        if (cached != null) return cached;
+        cached = colorCacheOld.get(text);
+        if (cached == null) {
+            cached = render(text);
+        }
+        rememberColored(text, cached);
+        return cached;
+    }
+
+    private static void rememberColored(String raw, String rendered) {
+        Map<String, String> young = colorCacheYoung;
+        if (young.size() >= COLOR_CACHE_GENERATION_SIZE) {
+            synchronized (ShopItemUtil.class) {
+                if (colorCacheYoung == young) {
+                    colorCacheOld = young;
+                    colorCacheYoung = new ConcurrentHashMap<>();
+                }
+                young = colorCacheYoung;
+            }
+        }
+        young.put(raw, rendered);
+    }
+
+    /**
+     * Every rewrite in {@link #render(String)} needs '&', '<' or a mangled section sign to act on.
+     */
+    private static boolean mayContainFormatting(String text) {
+        return text.indexOf('&') >= 0 || text.indexOf('<') >= 0 || text.indexOf('\u00C2') >= 0 || text.indexOf('\u00C3') >= 0;
+    }
 
+    private static String render(String text) {
         text = normalizeBrokenSectionSigns(text);
         text = movePrefixStylesIntoGradient(text);
         text = applyGradientTags(text);
@@ -638,14 +681,9 @@ public class ShopItemUtil {
 
     public static boolean isSameItem(ItemStack stack, me.dralle.shop.model.ShopItem shopItem) {
         if (stack == null || shopItem == null) return false;
-        if (shopItem.getItemStackData() != null && !shopItem.getItemStackData().isEmpty()) {
-            ItemStack expected = deserializeItemStack(shopItem.getItemStackData());
-            if (expected != null) {
-                expected.setAmount(Math.max(1, stack.getAmount()));
-                ItemStack actual = stack.clone();
-                actual.setAmount(expected.getAmount());
-                return actual.isSimilar(expected);
-            }
+        ItemStack template = shopItem.getTemplateStack();
+        if (template != null) {
+            return matchesTemplate(stack, template);
         }
         if (stack.getType() != shopItem.getMaterial()) return false;
 
@@ -676,6 +714,16 @@ public class ShopItemUtil {
         return true;
     }
 
+    /**
+     * Compares a stack against a decoded template without copying either of them.
+     * Amount is ignored, everything else (type and meta) has to match.
+     */
+    public static boolean matchesTemplate(ItemStack stack, ItemStack template) {
+        if (stack == null || template == null) return false;
+        if (stack.getType() != template.getType()) return false;
+        return template.isSimilar(stack);
+    }
+
     public static String serializeItemStack(ItemStack item) {
         if (item == null || item.getType() == Material.AIR) return "";
         try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
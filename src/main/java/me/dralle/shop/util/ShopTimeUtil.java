@@ -16,64 +16,119 @@ public class ShopTimeUtil {
 
     /**
      * Check if a shop is currently available based on time restrictions.
+     * Prefer the precompiled {@link TimeRestriction} held by shops and items for hot paths.
      * @param restrictions List of time restriction strings from config
      * @return true if shop is available (or no restrictions), false otherwise
      */
     public static boolean isShopAvailable(List<String> restrictions) {
+        return compile(restrictions).isOpen();
+    }
+
+    /**
+     * Compile time restriction strings into a rule set that can be evaluated without parsing.
+     * Restrictions that cannot be parsed or are not recognized never block availability.
+     * @param restrictions List of time restriction strings from config
+     * @return compiled restriction, {@link TimeRestriction#ALWAYS} if nothing restricts
+     */
+    public static TimeRestriction compile(List<String> restrictions) {
         if (restrictions == null || restrictions.isEmpty()) {
-            return true; // No restrictions = always available
+            return TimeRestriction.ALWAYS;
         }
 
-        LocalDate now = LocalDate.now();
-        LocalTime timeNow = LocalTime.now();
-        DayOfWeek dayOfWeek = now.getDayOfWeek();
-
-        // All restrictions must pass (AND logic)
+        List<TimeRestriction.Rule> rules = new java.util.ArrayList<>();
         for (String restriction : restrictions) {
             if (restriction == null || restriction.trim().isEmpty()) continue;
-            
-            restriction = restriction.trim();
+            TimeRestriction.Rule rule = compileRule(restriction.trim());
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        return rules.isEmpty() ? TimeRestriction.ALWAYS : new TimeRestriction(rules.toArray(new TimeRestriction.Rule[0]));
+    }
 
-            // Check for time range (HH:mm-HH:mm or HH:mmAM-HH:mmPM)
+    private static TimeRestriction.Rule compileRule(String restriction) {
+        try {
+            // Time range (HH:mm-HH:mm or HH:mmAM-HH:mmPM)
             if (restriction.matches("\\d{1,2}:\\d{2}(?i)(AM|PM)?-\\d{1,2}:\\d{2}(?i)(AM|PM)?")) {
-                if (!checkTimeRange(restriction, timeNow)) {
-                    return false;
-                }
+                String[] parts = restriction.split("-");
+                return new TimeRestriction.TimeRangeRule(parseTime(parts[0]).toNanoOfDay(), parseTime(parts[1]).toNanoOfDay());
             }
-            // Check for date range (yyyy-MM-dd to yyyy-MM-dd)
-            else if (restriction.contains(" to ")) {
-                if (!checkDateRange(restriction, now)) {
-                    return false;
-                }
+            // Date range (yyyy-MM-dd to yyyy-MM-dd)
+            if (restriction.contains(" to ")) {
+                String[] parts = restriction.split(" to ");
+                return new TimeRestriction.DateRangeRule(
+                        LocalDate.parse(parts[0].trim()).toEpochDay(),
+                        LocalDate.parse(parts[1].trim()).toEpochDay());
             }
-            // Check for year (e.g., "2026" or "2025-2027" or "2025, 2027")
-            else if (restriction.matches("[\\d\\s,-]+")) {
-                // Potential year or day of month - check format more carefully
+            if (restriction.matches("[\\d\\s,-]+")) {
+                // Year (e.g., "2026" or "2025-2027" or "2025, 2027")
                 if (restriction.matches("(\\d{4}(-\\d{4})?)(\\s*,\\s*(\\d{4}(-\\d{4})?))*")) {
-                    if (!checkYear(restriction, now.getYear())) {
-                        return false;
+                    String[] parts = restriction.split(",");
+                    int[] bounds = new int[parts.length * 2];
+                    for (int i = 0; i < parts.length; i++) {
+                        String[] subparts = parts[i].trim().split("-");
+                        bounds[i * 2] = Integer.parseInt(subparts[0]);
+                        bounds[i * 2 + 1] = Integer.parseInt(subparts[subparts.length == 2 ? 1 : 0]);
                     }
-                } else if (restriction.matches("(\\d{1,2}(-\\d{1,2})?)(\\s*,\\s*(\\d{1,2}(-\\d{1,2})?))*")) {
-                    if (!checkDayOfMonth(restriction, now.getDayOfMonth())) {
-                        return false;
+                    return new TimeRestriction.YearRule(bounds);
+                }
+                // Day of month (e.g., "1-7" or "13, 25")
+                if (restriction.matches("(\\d{1,2}(-\\d{1,2})?)(\\s*,\\s*(\\d{1,2}(-\\d{1,2})?))*")) {
+                    long mask = 0L;
+                    for (String part : restriction.split(",")) {
+                        String[] subparts = part.trim().split("-");
+                        int start = Integer.parseInt(subparts[0]);
+                        int end = subparts.length == 2 ? Integer.parseInt(subparts[1]) : start;
+                        for (int day = Math.max(1, start); day <= Math.min(31, end); day++) {
+                            mask |= 1L << day;
+                        }
                     }
+                    return new TimeRestriction.MaskRule(TimeRestriction.Field.DAY_OF_MONTH, mask);
                 }
+                return null;
             }
-            // Check for month (e.g., "October" or "Jan-Mar" or "Jan, Mar")
-            else if (isMonthRestriction(restriction)) {
-                if (!checkMonth(restriction, now.getMonthValue())) {
-                    return false;
+            // Month (e.g., "October" or "Jan-Mar" or "Jan, Mar")
+            if (isMonthRestriction(restriction)) {
+                long mask = 0L;
+                for (String part : restriction.split(",")) {
+                    String[] subparts = part.trim().split("-");
+                    int start = parseMonth(subparts[0]);
+                    int end = subparts.length == 2 ? parseMonth(subparts[1]) : start;
+                    mask |= wrappingMask(start, end, 12);
                 }
+                return new TimeRestriction.MaskRule(TimeRestriction.Field.MONTH, mask);
             }
-            // Check for day of week (MONDAY, FRIDAY-SUNDAY, mon, tue-wed, etc.)
-            else if (restriction.matches("(?i)([a-z]{3,}(-[a-z]{3,})?)(\\s*,\\s*([a-z]{3,}(-[a-z]{3,})?))*")) {
-                if (!checkDayOfWeek(restriction, dayOfWeek)) {
-                    return false;
+            // Day of week (MONDAY, FRIDAY-SUNDAY, mon, tue-wed, etc.)
+            if (restriction.matches("(?i)([a-z]{3,}(-[a-z]{3,})?)(\\s*,\\s*([a-z]{3,}(-[a-z]{3,})?))*")) {
+                long mask = 0L;
+                for (String part : restriction.split(",")) {
+                    String[] subparts = part.trim().split("-");
+                    int start = parseDayOfWeek(subparts[0]).getValue();
+                    int end = subparts.length == 2 ? parseDayOfWeek(subparts[1]).getValue() : start;
+                    mask |= wrappingMask(start, end, 7);
                 }
+                return new TimeRestriction.MaskRule(TimeRestriction.Field.DAY_OF_WEEK, mask);
             }
+        } catch (Exception e) {
+            // Reported by validateRestrictions, never blocks at runtime
         }
+        return null;
+    }
 
-        return true;
+    /**
+     * Bits start..end (1-based, inclusive), wrapping around max when end is before start.
+     */
+    private static long wrappingMask(int start, int end, int max) {
+        long mask = 0L;
+        for (int value = 1; value <= max; value++) {
+            boolean inRange = end < start
+                    ? value >= start || value <= end
+                    : value >= start && value <= end;
+            if (inRange) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
     }
 
     /**
@@ -157,27 +212,6 @@ public class ShopTimeUtil {
         return invalid;
     }
 
-    /**
-     * Check if current time is within time range (e.g., "13:00-17:00" or "1:00PM-5:00PM")
-     */
-    private static boolean checkTimeRange(String restriction, LocalTime now) {
-        try {
-            String[] parts = restriction.split("-");
-            LocalTime start = parseTime(parts[0]);
-            LocalTime end = parseTime(parts[1]);
-
-            // Handle ranges that cross midnight
-            if (end.isBefore(start)) {
-                return !now.isBefore(start) || !now.isAfter(end);
-            } else {
-                return !now.isBefore(start) && !now.isAfter(end);
-            }
-        } catch (Exception e) {
-            // Log once via validation, then ignore here
-            return true;
-        }
-    }
-
     /**
      * Parse time string supporting both 24-hour (13:00) and 12-hour (1:00PM) formats
      */
@@ -207,22 +241,6 @@ public class ShopTimeUtil {
         }
     }
 
-    /**
-     * Check if current date is within date range (e.g., "2024-10-01 to 2024-10-31")
-     */
-    private static boolean checkDateRange(String restriction, LocalDate now) {
-        try {
-            String[] parts = restriction.split(" to ");
-            LocalDate start = LocalDate.parse(parts[0].trim());
-            LocalDate end = LocalDate.parse(parts[1].trim());
-
-            return !now.isBefore(start) && !now.isAfter(end);
-        } catch (Exception e) {
-            // Log once via validation, then ignore here
-            return true;
-        }
-    }
-
     /**
      * Format time restrictions into a human-readable string.
      * @param restrictions List of time restriction strings
@@ -496,102 +514,12 @@ public class ShopTimeUtil {
         }
     }
 
-    private static boolean checkYear(String restriction, int currentYear) {
-        try {
-            for (String part : restriction.split(",")) {
-                part = part.trim();
-                if (part.contains("-")) {
-                    String[] parts = part.split("-");
-                    int start = Integer.parseInt(parts[0]);
-                    int end = Integer.parseInt(parts[1]);
-                    if (currentYear >= start && currentYear <= end) return true;
-                } else {
-                    if (currentYear == Integer.parseInt(part)) return true;
-                }
-            }
-            return false;
-        } catch (Exception e) {
-            return true;
-        }
-    }
-
-    private static boolean checkDayOfMonth(String restriction, int currentDay) {
-        try {
-            for (String part : restriction.split(",")) {
-                part = part.trim();
-                if (part.contains("-")) {
-                    String[] parts = part.split("-");
-                    int start = Integer.parseInt(parts[0]);
-                    int end = Integer.parseInt(parts[1]);
-                    if (currentDay >= start && currentDay <= end) return true;
-                } else {
-                    if (currentDay == Integer.parseInt(part)) return true;
-                }
-            }
-            return false;
-        } catch (Exception e) {
-            return true;
-        }
-    }
-
     private static boolean isMonthRestriction(String restriction) {
         String month = "(JANUARY|FEBRUARY|MARCH|APRIL|MAY|JUNE|JULY|AUGUST|SEPTEMBER|OCTOBER|NOVEMBER|DECEMBER|JAN|FEB|MAR|APR|MAY|JUN|JUL|AUG|SEP|OCT|NOV|DEC)";
         String pattern = "(?i)" + month + "(-" + month + ")?";
         return restriction.matches(pattern + "(\\s*,\\s*" + pattern + ")*");
     }
 
-    private static boolean checkMonth(String restriction, int currentMonth) {
-        try {
-            for (String part : restriction.split(",")) {
-                part = part.trim();
-                if (part.contains("-")) {
-                    String[] subparts = part.split("-");
-                    int start = parseMonth(subparts[0]);
-                    int end = parseMonth(subparts[1]);
-                    if (end < start) {
-                        if (currentMonth >= start || currentMonth <= end) return true;
-                    } else {
-                        if (currentMonth >= start && currentMonth <= end) return true;
-                    }
-                } else {
-                    if (currentMonth == parseMonth(part)) return true;
-                }
-            }
-            return false;
-        } catch (Exception e) {
-            return true;
-        }
-    }
-
-    private static boolean checkDayOfWeek(String restriction, DayOfWeek now) {
-        try {
-            for (String part : restriction.split(",")) {
-                part = part.trim();
-                if (part.contains("-")) {
-                    // Range like "FRIDAY-SUNDAY" or "fri-sun"
-                    String[] subparts = part.split("-");
-                    DayOfWeek start = parseDayOfWeek(subparts[0]);
-                    DayOfWeek end = parseDayOfWeek(subparts[1]);
-
-                    // Handle ranges that wrap around the week
-                    if (end.getValue() < start.getValue()) {
-                        if (now.getValue() >= start.getValue() || now.getValue() <= end.getValue()) return true;
-                    } else {
-                        if (now.getValue() >= start.getValue() && now.getValue() <= end.getValue()) return true;
-                    }
-                } else {
-                    // Single day like "MONDAY" or "mon"
-                    DayOfWeek target = parseDayOfWeek(part);
-                    if (now == target) return true;
-                }
-            }
-            return false;
-        } catch (Exception e) {
-            // Log once via validation, then ignore here
-            return true;
-        }
-    }
-
     private static int parseMonth(String monthStr) {
         monthStr = monthStr.trim().toUpperCase();
         try {
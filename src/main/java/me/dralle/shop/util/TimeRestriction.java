@@ -0,0 +1,95 @@
+package me.dralle.shop.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Precompiled form of an {@code available-times} list.
+ * Built once by {@link ShopTimeUtil#compile(List)} and evaluated without any string parsing.
+ */
+public final class TimeRestriction {
+
+    public static final TimeRestriction ALWAYS = new TimeRestriction(new Rule[0]);
+
+    interface Rule {
+        boolean test(LocalDate date, long nanoOfDay);
+    }
+
+    /** Inclusive time-of-day window, wrapping past midnight when end is before start. */
+    record TimeRangeRule(long startNano, long endNano) implements Rule {
+        @Override
+        public boolean test(LocalDate date, long nanoOfDay) {
+            if (endNano < startNano) {
+                return nanoOfDay >= startNano || nanoOfDay <= endNano;
+            }
+            return nanoOfDay >= startNano && nanoOfDay <= endNano;
+        }
+    }
+
+    /** Inclusive date window in epoch days. */
+    record DateRangeRule(long startDay, long endDay) implements Rule {
+        @Override
+        public boolean test(LocalDate date, long nanoOfDay) {
+            long day = date.toEpochDay();
+            return day >= startDay && day <= endDay;
+        }
+    }
+
+    /** Inclusive year ranges stored as start/end pairs. */
+    record YearRule(int[] bounds) implements Rule {
+        @Override
+        public boolean test(LocalDate date, long nanoOfDay) {
+            int year = date.getYear();
+            for (int i = 0; i < bounds.length; i += 2) {
+                if (year >= bounds[i] && year <= bounds[i + 1]) return true;
+            }
+            return false;
+        }
+    }
+
+    /** Bit set of allowed values: day of month (bits 1-31), month (1-12) or day of week (1-7). */
+    record MaskRule(Field field, long mask) implements Rule {
+        @Override
+        public boolean test(LocalDate date, long nanoOfDay) {
+            int value = switch (field) {
+                case DAY_OF_MONTH -> date.getDayOfMonth();
+                case MONTH -> date.getMonthValue();
+                case DAY_OF_WEEK -> date.getDayOfWeek().getValue();
+            };
+            return (mask & (1L << value)) != 0;
+        }
+    }
+
+    enum Field { DAY_OF_MONTH, MONTH, DAY_OF_WEEK }
+
+    private final Rule[] rules;
+
+    TimeRestriction(Rule[] rules) {
+        this.rules = rules;
+    }
+
+    public boolean isAlwaysOpen() {
+        return rules.length == 0;
+    }
+
+    /**
+     * Checks the restriction against the current local time.
+     */
+    public boolean isOpen() {
+        return rules.length == 0 || isOpen(LocalDateTime.now());
+    }
+
+    /**
+     * Checks the restriction against the given local time. All rules must pass.
+     */
+    public boolean isOpen(LocalDateTime now) {
+        if (rules.length == 0) return true;
+        LocalDate date = now.toLocalDate();
+        long nanoOfDay = now.toLocalTime().toNanoOfDay();
+        for (Rule rule : rules) {
+            if (!rule.test(date, nanoOfDay)) return false;
+        }
+        return true;
+    }
+}
@@ -13,9 +13,8 @@ import java.nio.charset.StandardCharsets;
 public class YamlUtil {
 
     public static YamlConfiguration loadUtf8(File file) {
-        YamlConfiguration config = new YamlConfiguration();
-        try (InputStreamReader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
-            config.load(reader);
+        try {
+            return loadUtf8Strict(file);
         } catch (IOException | InvalidConfigurationException e) {
             ShopPlugin plugin = ShopPlugin.getInstance();
             if (plugin != null) {
@@ -24,6 +23,18 @@ public class YamlUtil {
                 e.printStackTrace();
             }
         }
+        return new YamlConfiguration();
+    }
+
+    /**
+     * Like {@link #loadUtf8(File)}, but a file that cannot be read or parsed throws instead of
+     * loading as an empty configuration.
+     */
+    public static YamlConfiguration loadUtf8Strict(File file) throws IOException, InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        try (InputStreamReader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            config.load(reader);
+        }
         return config;
     }
 
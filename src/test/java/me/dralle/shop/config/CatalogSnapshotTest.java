@@ -0,0 +1,158 @@
+package me.dralle.shop.config;
+
+import me.dralle.shop.model.ShopCampaign;
+import me.dralle.shop.model.ShopData;
+import me.dralle.shop.model.ShopItem;
+import me.dralle.shop.stock.StockResetRule;
+import me.dralle.shop.util.CampaignUtil;
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path dataFolder;
+
+    @Test
+    void roundTripsTheCompiledCatalog() throws IOException {
+        CatalogSnapshot snapshot = new CatalogSnapshot(dataFolder.resolve("cache/catalog.bin").toFile());
+        byte[] fingerprint = fingerprint("blocks:\n  rows: 4\n");
+        snapshot.write(fingerprint, catalog());
+
+        CompiledShopCatalog loaded = snapshot.read(fingerprint);
+        assertNotNull(loaded);
+        assertEquals(List.of("blocks"), List.copyOf(loaded.shops().keySet()));
+
+        ShopData shop = loaded.shops().get("blocks");
+        assertEquals("&8Blocks", shop.getGuiName());
+        assertEquals(4, shop.getRows());
+        assertEquals(List.of("MONDAY-FRIDAY"), shop.getAvailableTimes());
+        assertEquals(StockResetRule.Type.WEEKLY, shop.getStockResetRule().getType());
+        assertEquals(DayOfWeek.MONDAY, shop.getStockResetRule().getDayOfWeek());
+        assertEquals(ZoneId.of("Europe/Berlin"), shop.getStockResetRule().getZoneId());
+        assertEquals(1.5D, shop.getCampaigns().get("summer").getSellMultiplier());
+
+        ShopItem stone = shop.getItemBySlot(0);
+        assertEquals(Material.STONE, stone.getMaterial());
+        assertEquals(12.5D, stone.getPrice());
+        assertNull(stone.getSellPrice());
+        assertNull(stone.getName());
+        assertNull(stone.getSellAddsToStock());
+        assertEquals(List.of("&7Line one", ""), stone.getLore());
+
+        ShopItem diamond = shop.getItemBySlot(3);
+        assertEquals(40D, diamond.getSellPrice());
+        assertEquals("&bShiny", diamond.getName());
+        assertEquals(Map.of("sharpness", 5), diamond.getEnchantments());
+        assertEquals(Boolean.TRUE, diamond.getSellAddsToStock());
+        assertTrue(diamond.isCampaignEnabled());
+        assertNotNull(diamond.getInlineCampaign());
+        assertEquals(Instant.parse("2026-10-31T23:59:00Z").toEpochMilli(), diamond.getInlineCampaign().getEndMillis());
+        assertEquals("gold", diamond.getVariantKey());
+        assertEquals(stone.getUniqueKey(), shop.getItemByUniqueKey(stone.getUniqueKey()).getUniqueKey());
+
+        assertEquals(1, loaded.validationMessages().size());
+        assertEquals(ValidationMessage.Severity.WARNING, loaded.validationMessages().get(0).severity());
+        assertEquals("shop:blocks.slot:3", loaded.validationMessages().get(0).location());
+        assertNotNull(loaded.sellOffers());
+    }
+
+    @Test
+    void changedSourcesMissTheSnapshot() throws IOException {
+        CatalogSnapshot snapshot = new CatalogSnapshot(dataFolder.resolve("catalog.bin").toFile());
+        snapshot.write(fingerprint("rows: 4\n"), catalog());
+
+        assertNull(snapshot.read(fingerprint("rows: 5\n")));
+        assertNull(new CatalogSnapshot(dataFolder.resolve("missing.bin").toFile()).read(fingerprint("rows: 4\n")));
+    }
+
+    @Test
+    void damagedSnapshotIsRejected() throws IOException {
+        Path file = dataFolder.resolve("catalog.bin");
+        CatalogSnapshot snapshot = new CatalogSnapshot(file.toFile());
+        byte[] fingerprint = fingerprint("rows: 4\n");
+        snapshot.write(fingerprint, catalog());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 10] ^= 0x5A;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> snapshot.read(fingerprint));
+
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> snapshot.read(fingerprint));
+    }
+
+    @Test
+    void fingerprintCoversNamesContentAndPluginVersion() throws IOException {
+        File a = Files.writeString(dataFolder.resolve("a.yml"), "rows: 4\n").toFile();
+        File missing = dataFolder.resolve("campaigns.yml").toFile();
+
+        byte[] base = CatalogSnapshot.fingerprint("1.0", List.of(a, missing));
+        assertArrayEquals(base, CatalogSnapshot.fingerprint("1.0", List.of(a, missing)));
+        assertFalse(java.util.Arrays.equals(base, CatalogSnapshot.fingerprint("1.1", List.of(a, missing))));
+
+        Files.writeString(missing.toPath(), "campaigns: []\n");
+        assertFalse(java.util.Arrays.equals(base, CatalogSnapshot.fingerprint("1.0", List.of(a, missing))));
+    }
+
+    private byte[] fingerprint(String content) throws IOException {
+        File source = Files.writeString(dataFolder.resolve("blocks.yml"), content).toFile();
+        return CatalogSnapshot.fingerprint("test", List.of(source));
+    }
+
+    private static CompiledShopCatalog catalog() {
+        StockResetRule weekly = new StockResetRule(true, StockResetRule.Type.WEEKLY, ZoneId.of("Europe/Berlin"),
+                LocalTime.of(6, 0), DayOfWeek.MONDAY, 1, null, 1, null, 1);
+        Map<String, ShopCampaign> campaigns = new LinkedHashMap<>();
+        campaigns.put("summer", CampaignUtil.createCampaign("summer", "Summer", "2026-06-01 00:00", "2026-08-31 23:59", "UTC", 0.9D, 1.5D));
+
+        ShopItem stone = item(Material.STONE, 12.5D, null, null, List.of("&7Line one", ""), Map.of(), false, null, "", 0);
+        ShopItem diamond = item(Material.DIAMOND, 100D, 40D, "&bShiny", List.of(), Map.of("sharpness", 5), true, Boolean.TRUE, "gold", 3);
+        ShopData shop = new ShopData("blocks", "&8Blocks", 4, "", List.of(stone, diamond), List.of("MONDAY-FRIDAY"),
+                weekly, false, false, campaigns, "summer");
+
+        Map<String, ShopData> shops = new LinkedHashMap<>();
+        shops.put("blocks", shop);
+        List<ValidationMessage> messages = List.of(new ValidationMessage(
+                ValidationMessage.Severity.WARNING, "shop:blocks.slot:3", "Multiple items share slot 3"));
+        return new CompiledShopCatalog(shops, messages, Instant.parse("2026-10-17T12:00:00Z"));
+    }
+
+    private static ShopItem item(Material material, double price, Double sellPrice, String name, List<String> lore,
+                                 Map<String, Integer> enchantments, boolean campaignEnabled, Boolean sellAddsToStock,
+                                 String variantKey, int slot) {
+        return new ShopItem(
+                material, price, 1, null, null, null, 0, null, null, "",
+                name, lore, sellPrice, true, true, enchantments,
+                false, false, false, false, false, 0, 0,
+                false, 0D, 0D, 0D, "", "",
+                List.of(), "console", true, "",
+                campaignEnabled, "",
+                CampaignUtil.createCampaign("inline-item", "Flash", "2026-10-01 00:00", "2026-10-31 23:59", "UTC", 0.5D, 1.0D),
+                0, 0, "", List.of(), List.of(), List.of(),
+                null, sellAddsToStock, null, false, false,
+                variantKey, "", false, null, slot
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package me.dralle.shop.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedCounterRepositoryTest {
+
+    @Test
+    void countersClampAtZeroAndDrainOncePerChange() {
+        StripedCounterRepository repo = new StripedCounterRepository();
+        UUID player = UUID.randomUUID();
+
+        repo.incrementPlayerCount(player, "DIAMOND", 5);
+        repo.incrementPlayerCount(player, "DIAMOND", -8);
+        repo.incrementGlobalCount("DIAMOND", 3);
+        repo.incrementGlobalCount("DIAMOND", 2);
+
+        assertEquals(0, repo.getPlayerCount(player, "DIAMOND"), "Player counts must never go negative.");
+        assertEquals(5, repo.getGlobalCount("DIAMOND"));
+
+        StripedCounterRepository.DirtySnapshot snapshot = repo.drainDirty();
+        assertEquals(1, snapshot.players().size());
+        assertEquals(1, snapshot.globals().size());
+        assertEquals(5, snapshot.globals().getFirst().count());
+        assertTrue(repo.drainDirty().isEmpty(), "A drained change must not be written twice.");
+    }
+
+    @Test
+    void removedCountersAreSkippedAndFailedSnapshotsRestored() {
+        StripedCounterRepository repo = new StripedCounterRepository();
+        UUID player = UUID.randomUUID();
+
+        repo.incrementPlayerCount(player, "EMERALD", 1);
+        repo.removePlayerCount(player.toString(), "EMERALD");
+        repo.setGlobalCount("EMERALD", 7, false);
+
+        StripedCounterRepository.DirtySnapshot snapshot = repo.drainDirty();
+        assertTrue(snapshot.players().isEmpty(), "Removed counters must not be flushed back.");
+
+        repo.restoreDirty(snapshot);
+        assertEquals(7, repo.drainDirty().globals().getFirst().count());
+    }
+
+    @Test
+    void nonUuidPlayerKeysSurviveLoadSetAndRemove() {
+        StripedCounterRepository repo = new StripedCounterRepository();
+
+        repo.putLoadedPlayerCount("Notch", "GOLD", 4);
+        repo.setPlayerCount("Notch", "IRON", 2, false);
+
+        List<DataManager.PlayerCountEntry> rows = repo.getAllPlayerCountEntries();
+        assertEquals(2, rows.size());
+        assertEquals("Notch", rows.getFirst().uuid());
+        assertEquals(1, repo.drainDirty().players().size());
+
+        repo.removePlayerCount("Notch", "GOLD");
+        assertEquals(List.of(new DataManager.PlayerCountEntry("Notch", "IRON", 2)), repo.getAllPlayerCountEntries());
+    }
+
+    @Test
+    void uppercaseUuidsMapToTheCanonicalKey() {
+        StripedCounterRepository repo = new StripedCounterRepository();
+        UUID player = UUID.randomUUID();
+        String upper = player.toString().toUpperCase();
+
+        assertEquals(player.toString(), StripedCounterRepository.normalizePlayerKey(" " + upper + " "));
+        repo.setPlayerCount(upper, "DIAMOND", 3, false);
+
+        assertEquals(3, repo.getPlayerCount(player, "DIAMOND"));
+        assertTrue(repo.hasPlayerCount(player.toString(), "DIAMOND"));
+        assertEquals(player.toString(), repo.drainDirty().players().getFirst().uuid());
+
+        repo.removePlayerCount(upper, "DIAMOND");
+        assertFalse(repo.hasPlayerCount(player.toString(), "DIAMOND"));
+    }
+
+    @Test
+    void incrementsAfterARemovalStartAFreshCounter() {
+        StripedCounterRepository repo = new StripedCounterRepository();
+
+        repo.incrementGlobalCount("SAND", 5);
+        repo.removeGlobalCount("SAND");
+        repo.incrementGlobalCount("SAND", 1);
+
+        assertEquals(1, repo.getGlobalCount("SAND"));
+        StripedCounterRepository.DirtySnapshot snapshot = repo.drainDirty();
+        assertEquals(1, snapshot.globals().size(), "The queued cell of the removed counter must be skipped.");
+        assertEquals(1, snapshot.globals().getFirst().count());
+    }
+}
@@ -0,0 +1,136 @@
+package me.dralle.shop.data;
+
+import me.dralle.shop.ShopPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+class TransactionLedgerTest {
+
+    @TempDir
+    Path dataFolder;
+
+    @Test
+    void fullBatchIsWrittenWithoutWaitingForTheTimer() throws Exception {
+        TransactionLedger ledger = ledger(100, 5, 90);
+        Player player = player();
+
+        for (int i = 0; i < 5; i++) {
+            ledger.record(player, "blocks", "blocks:0", "BUY", 2, 10D);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (count("SELECT COUNT(*) FROM transactions") < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(5, count("SELECT COUNT(*) FROM transactions"));
+        assertEquals(5D, number("SELECT unit_price FROM transactions LIMIT 1"), 1e-9, "Unit price is total per item.");
+        ledger.shutdown(5000L);
+    }
+
+    @Test
+    void fullQueueDropsAndCountsInsteadOfBlocking() throws SQLException {
+        // Capacity is clamped to 16; a batch size above that means only shutdown flushes
+        TransactionLedger ledger = ledger(1, 1000, 90);
+        Player player = player();
+
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(Bukkit::getConsoleSender).thenReturn(mock(ConsoleCommandSender.class));
+            for (int i = 0; i < 20; i++) {
+                ledger.record(player, "blocks", "blocks:0", "SELL", 1, 4D);
+            }
+        }
+        assertEquals(4L, ledger.getDroppedCount());
+
+        ledger.shutdown(5000L);
+        ledger.record(player, "blocks", "blocks:0", "SELL", 1, 4D);
+        assertEquals(16, count("SELECT COUNT(*) FROM transactions"), "Queued entries are written on shutdown.");
+        assertEquals(4L, ledger.getDroppedCount(), "Records after shutdown are ignored, not dropped.");
+    }
+
+    @Test
+    void purgeRemovesOnlyRowsPastRetention() throws SQLException {
+        TransactionLedger ledger = ledger(100, 1000, 2);
+        ledger.record(player(), "blocks", "blocks:0", "BUY", 1, 1D);
+        ledger.shutdown(5000L);
+
+        long now = System.currentTimeMillis();
+        insertAt(now - TimeUnit.DAYS.toMillis(3));
+        insertAt(now - TimeUnit.DAYS.toMillis(1));
+        assertEquals(3, count("SELECT COUNT(*) FROM transactions"));
+
+        ledger.purgeExpired();
+        assertEquals(2, count("SELECT COUNT(*) FROM transactions"));
+        assertEquals(0, count("SELECT COUNT(*) FROM transactions WHERE created_at < " + (now - TimeUnit.DAYS.toMillis(2))));
+    }
+
+    private TransactionLedger ledger(int capacity, int batchSize, int retentionDays) {
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.set("data.write-behind.enabled", false);
+        cfg.set("data.transactions.enabled", false);
+        cfg.set("data.transactions.queue-capacity", capacity);
+        cfg.set("data.transactions.batch-size", batchSize);
+        cfg.set("data.transactions.retention-days", retentionDays);
+        cfg.set("data.transactions.flush-interval-ms", 60_000L);
+        ShopPlugin plugin = mock(ShopPlugin.class);
+        when(plugin.getConfig()).thenReturn(cfg);
+        when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("TransactionLedgerTest"));
+
+        new DataManager(plugin).close(); // creates the schema
+        return new TransactionLedger(plugin, jdbcUrl());
+    }
+
+    private static Player player() {
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(player.getName()).thenReturn("Steve");
+        return player;
+    }
+
+    private void insertAt(long createdAt) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl());
+             PreparedStatement ps = connection.prepareStatement("""
+                     INSERT INTO transactions(player_uuid, player_name, shop_key, item_key, action, quantity, unit_price, total, created_at)
+                     VALUES ('uuid', 'Alex', 'blocks', 'blocks:0', 'BUY', 1, 1, 1, ?)
+                     """)) {
+            ps.setLong(1, createdAt);
+            ps.executeUpdate();
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        return (int) number(sql);
+    }
+
+    private double number(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl());
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getDouble(1) : -1;
+        }
+    }
+
+    private String jdbcUrl() {
+        return "jdbc:sqlite:" + dataFolder.resolve("data.db").toAbsolutePath();
+    }
+}
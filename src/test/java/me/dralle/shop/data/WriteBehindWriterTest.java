@@ -0,0 +1,172 @@
+package me.dralle.shop.data;
+
+import me.dralle.shop.ShopPlugin;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteBehindWriterTest {
+
+    @TempDir
+    java.nio.file.Path dataFolder;
+
+    @Test
+    void closeDrainsQueuedWritesAndUnsavedChanges() throws SQLException {
+        DataManager data = new DataManager(mockPlugin(config(true, 50000)));
+        UUID player = UUID.randomUUID();
+
+        for (int i = 0; i < 200; i++) {
+            data.incrementPlayerCount(player, "DIAMOND", 1);
+            data.incrementGlobalCount("DIAMOND", 2);
+            if (i % 10 == 0) data.save();
+        }
+        data.incrementGlobalCount("EMERALD", 7); // never saved before close
+        data.close();
+
+        assertEquals(200, count("SELECT count FROM player_counts WHERE uuid = '" + player + "' AND item_key = 'DIAMOND'"));
+        assertEquals(400, count("SELECT count FROM global_counts WHERE item_key = 'DIAMOND'"));
+        assertEquals(7, count("SELECT count FROM global_counts WHERE item_key = 'EMERALD'"));
+    }
+
+    @Test
+    void deletesRunBehindEarlierWrites() throws SQLException {
+        DataManager data = new DataManager(mockPlugin(config(true, 50000)));
+        UUID player = UUID.randomUUID();
+
+        data.setPlayerCount(player.toString(), "GOLD", 3, true);
+        data.setGlobalCount("GOLD", 9, true);
+        data.removePlayerCount(player.toString().toUpperCase(), "GOLD");
+        data.removeGlobalCount("GOLD");
+        data.setGlobalCount("IRON", 1, true);
+        data.close();
+
+        assertEquals(0, count("SELECT COUNT(*) FROM player_counts"));
+        assertEquals(1, count("SELECT COUNT(*) FROM global_counts"));
+        assertEquals(1, count("SELECT count FROM global_counts WHERE item_key = 'IRON'"));
+    }
+
+    @Test
+    void backedUpWriterRejectsSnapshotsSoChangesCoalesce() throws Exception {
+        createSchema();
+        StripedCounterRepository repo = new StripedCounterRepository();
+        WriteBehindWriter writer = new WriteBehindWriter(mockPlugin(config(true, 1)), repo, jdbcUrl(), 500, 1);
+
+        try (Connection locker = DriverManager.getConnection(jdbcUrl())) {
+            holdWriteLock(locker);
+
+            repo.setGlobalCount("SAND", 1, false);
+            assertTrue(writer.submit(repo.drainDirty()));
+
+            repo.setGlobalCount("SAND", 2, false);
+            repo.setGlobalCount("GRAVEL", 3, false);
+            StripedCounterRepository.DirtySnapshot rejected = repo.drainDirty();
+            assertFalse(writer.submit(rejected), "A full writer must push back instead of queueing more.");
+            repo.restoreDirty(rejected);
+            repo.setGlobalCount("SAND", 4, false);
+
+            locker.rollback();
+        }
+        awaitIdle(writer);
+
+        StripedCounterRepository.DirtySnapshot coalesced = repo.drainDirty();
+        assertEquals(2, coalesced.globals().size(), "Rejected changes stay dirty and merge with newer ones.");
+        assertTrue(writer.submit(coalesced));
+        assertTrue(writer.shutdown(5000L).isEmpty());
+
+        assertEquals(4, count("SELECT count FROM global_counts WHERE item_key = 'SAND'"));
+        assertEquals(3, count("SELECT count FROM global_counts WHERE item_key = 'GRAVEL'"));
+    }
+
+    @Test
+    void shutdownHandsBackQueuedTasksWithoutInterruptingTheCurrentWrite() throws Exception {
+        createSchema();
+        StripedCounterRepository repo = new StripedCounterRepository();
+        WriteBehindWriter writer = new WriteBehindWriter(mockPlugin(config(true, 50000)), repo, jdbcUrl(), 500, 50000);
+
+        List<WriteBehindWriter.WriteTask> leftover;
+        try (Connection locker = DriverManager.getConnection(jdbcUrl())) {
+            holdWriteLock(locker);
+
+            repo.setGlobalCount("CLAY", 5, false);
+            assertTrue(writer.submit(repo.drainDirty()));
+            assertTrue(writer.submitDelete("DELETE FROM global_counts WHERE item_key = ?", "CLAY"));
+
+            leftover = writer.shutdown(100L);
+            locker.rollback();
+        }
+
+        assertEquals(1, leftover.size(), "The queued delete should be handed back, not dropped.");
+        awaitIdle(writer);
+        assertEquals(5, count("SELECT count FROM global_counts WHERE item_key = 'CLAY'"),
+                "The write in progress must finish after shutdown gave up waiting.");
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl())) {
+            leftover.getFirst().write(connection);
+        }
+        assertEquals(0, count("SELECT COUNT(*) FROM global_counts"));
+    }
+
+    private void createSchema() {
+        // DataManager creates the tables; without write-behind its close is fully synchronous.
+        new DataManager(mockPlugin(config(false, 50000))).close();
+    }
+
+    private static void holdWriteLock(Connection locker) throws SQLException {
+        locker.setAutoCommit(false);
+        try (PreparedStatement ps = locker.prepareStatement("INSERT INTO stock_resets(reset_id, last_run) VALUES ('lock', 0)")) {
+            ps.executeUpdate();
+        }
+    }
+
+    private static void awaitIdle(WriteBehindWriter writer) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (writer.getPendingEntries() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(0, writer.getPendingEntries());
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl());
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    private String jdbcUrl() {
+        return "jdbc:sqlite:" + dataFolder.resolve("data.db").toAbsolutePath();
+    }
+
+    private static YamlConfiguration config(boolean writeBehind, int maxPendingEntries) {
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.set("data.write-behind.enabled", writeBehind);
+        cfg.set("data.write-behind.max-pending-entries", maxPendingEntries);
+        cfg.set("data.write-behind.shutdown-timeout-seconds", 5);
+        cfg.set("data.transactions.enabled", false);
+        return cfg;
+    }
+
+    private ShopPlugin mockPlugin(YamlConfiguration cfg) {
+        ShopPlugin plugin = mock(ShopPlugin.class);
+        when(plugin.getConfig()).thenReturn(cfg);
+        when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("WriteBehindWriterTest"));
+        return plugin;
+    }
+}
@@ -0,0 +1,150 @@
+package me.dralle.shop.economy;
+
+import me.dralle.shop.ShopPlugin;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EconomySettlementTest {
+
+    @Test
+    void coalescesDepositsWithinOneTick() {
+        ShopPlugin plugin = mockPlugin(new YamlConfiguration());
+        EconomyHook economy = mock(EconomyHook.class);
+        when(economy.tryDeposit(any(Player.class), anyDouble()))
+                .thenReturn(new EconomyHook.EconomyOperationResult(true, null));
+        Queue<Runnable> tick = new ArrayDeque<>();
+        EconomySettlement settlement = new EconomySettlement(plugin, economy, tick::add, null);
+        Player player = mockPlayer("Alex");
+        AtomicInteger settled = new AtomicInteger();
+
+        settlement.deposit(player, 10D, settled::incrementAndGet, reason -> {});
+        settlement.deposit(player, 15D, settled::incrementAndGet, reason -> {});
+
+        assertEquals(1, tick.size(), "Only one flush should be scheduled per tick.");
+        verify(economy, never()).tryDeposit(any(Player.class), anyDouble());
+        tick.poll().run();
+
+        verify(economy, times(1)).tryDeposit(eq(player), eq(25D));
+        assertEquals(2, settled.get(), "Every coalesced sale should be settled.");
+    }
+
+    @Test
+    void compensatesEverySaleWhenDepositFails() {
+        ShopPlugin plugin = mockPlugin(new YamlConfiguration());
+        StubEconomy provider = new StubEconomy().failWith("account frozen");
+        Queue<Runnable> tick = new ArrayDeque<>();
+        EconomySettlement settlement = new EconomySettlement(plugin, new EconomyHook(plugin, provider), tick::add, null);
+        Player player = mockPlayer("Steve");
+        List<String> reasons = new ArrayList<>();
+        AtomicInteger settled = new AtomicInteger();
+
+        settlement.deposit(player, 5D, settled::incrementAndGet, reasons::add);
+        settlement.deposit(player, 7D, settled::incrementAndGet, reasons::add);
+        tick.poll().run();
+
+        assertEquals(1, provider.depositCalls());
+        assertEquals(0, settled.get(), "Failed deposits must not be settled.");
+        assertEquals(List.of("account frozen", "account frozen"), reasons);
+        assertEquals(0D, provider.balance("Steve"));
+    }
+
+    @Test
+    void settlesEveryPlayerOnceUnderLoad() {
+        ShopPlugin plugin = mockPlugin(new YamlConfiguration());
+        StubEconomy provider = new StubEconomy().latency(2L);
+        Queue<Runnable> mainThread = new ConcurrentLinkedQueue<>();
+        EconomySettlement settlement = new EconomySettlement(
+                plugin, new EconomyHook(plugin, provider), mainThread::add, providerThread());
+
+        int players = 50;
+        int salesPerPlayer = 20;
+        AtomicInteger settled = new AtomicInteger();
+        for (int p = 0; p < players; p++) {
+            Player player = mockPlayer("Player" + p);
+            for (int s = 0; s < salesPerPlayer; s++) {
+                settlement.deposit(player, 1D, settled::incrementAndGet, reason -> {});
+            }
+        }
+        Runnable flush = mainThread.poll();
+        assertTrue(flush != null, "A flush should have been scheduled.");
+        flush.run();
+        assertEquals(0, settled.get(), "Nothing may be reconciled before the main thread runs the results.");
+        settlement.shutdown(5000L);
+        Runnable reconcile;
+        while ((reconcile = mainThread.poll()) != null) {
+            reconcile.run();
+        }
+
+        assertEquals(players, provider.depositCalls(), "Deposits should be coalesced to one call per player.");
+        assertEquals(players * salesPerPlayer, settled.get(), "Every sale should be settled exactly once.");
+        assertEquals(salesPerPlayer, provider.balance("Player7"));
+        assertEquals("GeniusShop-Economy", provider.callThread("Player7"));
+    }
+
+    @Test
+    void shutdownReconcilesOnTheCallingThread() {
+        ShopPlugin plugin = mockPlugin(new YamlConfiguration());
+        StubEconomy provider = new StubEconomy().latency(50L).failWith("provider offline");
+        Queue<Runnable> mainThread = new ConcurrentLinkedQueue<>();
+        EconomySettlement settlement = new EconomySettlement(
+                plugin, new EconomyHook(plugin, provider), mainThread::add, providerThread());
+        List<Thread> compensatedOn = new ArrayList<>();
+
+        settlement.deposit(mockPlayer("Alex"), 3D, null, reason -> compensatedOn.add(Thread.currentThread()));
+        mainThread.poll().run(); // flush: the provider call is now in flight
+        settlement.deposit(mockPlayer("Steve"), 4D, null, reason -> compensatedOn.add(Thread.currentThread()));
+        settlement.shutdown(5000L);
+
+        assertEquals(List.of(Thread.currentThread(), Thread.currentThread()), compensatedOn,
+                "Compensation (items back) must run on the thread calling shutdown, never on the provider thread.");
+        // A main-thread task scheduled before shutdown must not compensate a second time
+        Runnable late;
+        while ((late = mainThread.poll()) != null) {
+            late.run();
+        }
+        assertEquals(2, compensatedOn.size());
+    }
+
+    private static ExecutorService providerThread() {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "GeniusShop-Economy");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private ShopPlugin mockPlugin(YamlConfiguration cfg) {
+        ShopPlugin plugin = mock(ShopPlugin.class);
+        when(plugin.getConfig()).thenReturn(cfg);
+        return plugin;
+    }
+
+    private Player mockPlayer(String name) {
+        Player player = mock(Player.class);
+        when(player.getName()).thenReturn(name);
+        when(player.getUniqueId()).thenReturn(UUID.nameUUIDFromBytes(name.getBytes()));
+        return player;
+    }
+}
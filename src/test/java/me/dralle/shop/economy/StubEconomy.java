@@ -0,0 +1,295 @@
+package me.dralle.shop.economy;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.OfflinePlayer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory Vault provider with configurable latency and failures, keyed by player name.
+ * Bank operations are not supported.
+ */
+final class StubEconomy implements Economy {
+
+    private final Map<String, Double> balances = new ConcurrentHashMap<>();
+    private final AtomicInteger depositCalls = new AtomicInteger();
+    private final Map<String, String> callThreads = new ConcurrentHashMap<>();
+    private volatile long latencyMillis;
+    private volatile String failure;
+
+    StubEconomy latency(long millis) {
+        this.latencyMillis = millis;
+        return this;
+    }
+
+    /**
+     * Makes every following deposit and withdrawal fail with {@code message}; null succeeds again.
+     */
+    StubEconomy failWith(String message) {
+        this.failure = message;
+        return this;
+    }
+
+    int depositCalls() {
+        return depositCalls.get();
+    }
+
+    double balance(String name) {
+        return balances.getOrDefault(name, 0D);
+    }
+
+    /**
+     * Name of the thread that made the last provider call for a player.
+     */
+    String callThread(String name) {
+        return callThreads.get(name);
+    }
+
+    private EconomyResponse change(String name, double amount) {
+        callThreads.put(name, Thread.currentThread().getName());
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new EconomyResponse(0, balance(name), EconomyResponse.ResponseType.FAILURE, "interrupted");
+            }
+        }
+        String error = failure;
+        if (error != null) {
+            return new EconomyResponse(0, balance(name), EconomyResponse.ResponseType.FAILURE, error);
+        }
+        if (amount < 0 && balance(name) + amount < 0) {
+            return new EconomyResponse(0, balance(name), EconomyResponse.ResponseType.FAILURE, "insufficient funds");
+        }
+        double next = balances.merge(name, amount, Double::sum);
+        return new EconomyResponse(Math.abs(amount), next, EconomyResponse.ResponseType.SUCCESS, null);
+    }
+
+    private static EconomyResponse noBanks() {
+        return new EconomyResponse(0, 0, EconomyResponse.ResponseType.NOT_IMPLEMENTED, "no bank support");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "Stub";
+    }
+
+    @Override
+    public boolean hasBankSupport() {
+        return false;
+    }
+
+    @Override
+    public int fractionalDigits() {
+        return 2;
+    }
+
+    @Override
+    public String format(double amount) {
+        return String.format("$%.2f", amount);
+    }
+
+    @Override
+    public String currencyNamePlural() {
+        return "dollars";
+    }
+
+    @Override
+    public String currencyNameSingular() {
+        return "dollar";
+    }
+
+    @Override
+    public boolean hasAccount(String playerName) {
+        return true;
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return true;
+    }
+
+    @Override
+    public boolean hasAccount(String playerName, String worldName) {
+        return true;
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        return true;
+    }
+
+    @Override
+    public double getBalance(String playerName) {
+        return balance(playerName);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        return balance(player.getName());
+    }
+
+    @Override
+    public double getBalance(String playerName, String world) {
+        return balance(playerName);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return balance(player.getName());
+    }
+
+    @Override
+    public boolean has(String playerName, double amount) {
+        return balance(playerName) >= amount;
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return balance(player.getName()) >= amount;
+    }
+
+    @Override
+    public boolean has(String playerName, String worldName, double amount) {
+        return balance(playerName) >= amount;
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return balance(player.getName()) >= amount;
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String playerName, double amount) {
+        return change(playerName, -amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return change(player.getName(), -amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+        return change(playerName, -amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return change(player.getName(), -amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String playerName, double amount) {
+        depositCalls.incrementAndGet();
+        return change(playerName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        depositCalls.incrementAndGet();
+        return change(player.getName(), amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+        depositCalls.incrementAndGet();
+        return change(playerName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        depositCalls.incrementAndGet();
+        return change(player.getName(), amount);
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, String player) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, String playerName) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, String playerName) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        return noBanks();
+    }
+
+    @Override
+    public List<String> getBanks() {
+        return List.of();
+    }
+
+    @Override
+    public boolean createPlayerAccount(String playerName) {
+        return true;
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        return true;
+    }
+
+    @Override
+    public boolean createPlayerAccount(String playerName, String worldName) {
+        return true;
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        return true;
+    }
+}
@@ -94,6 +94,27 @@ class TransactionSafetyGuardTest {
         assertTrue(second.allowed(), "Second matching click within timeout should pass.");
     }
 
+    @Test
+    void cooldownsArePerActionAndForgottenOnQuit() {
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.set("economy-safety.enabled", true);
+        cfg.set("economy-safety.cooldowns.enabled", true);
+        cfg.set("economy-safety.cooldowns.buy-ms", 60_000L);
+        cfg.set("economy-safety.cooldowns.sell-ms", 60_000L);
+        ShopPlugin plugin = mockPlugin(cfg);
+        Player player = mockPlayer("Riley");
+
+        assertTrue(TransactionSafetyGuard.checkCooldown(plugin, player, TransactionSafetyGuard.ACTION_BUY).allowed());
+        assertFalse(TransactionSafetyGuard.checkCooldown(plugin, player, TransactionSafetyGuard.ACTION_BUY).allowed(),
+                "Second buy within the cooldown should be rejected.");
+        assertTrue(TransactionSafetyGuard.checkCooldown(plugin, player, TransactionSafetyGuard.ACTION_SELL).allowed(),
+                "Cooldowns must be tracked per action.");
+
+        TransactionSafetyGuard.forget(player.getUniqueId());
+        assertTrue(TransactionSafetyGuard.checkCooldown(plugin, player, TransactionSafetyGuard.ACTION_BUY).allowed(),
+                "Forgotten players should start without cooldowns.");
+    }
+
     private ShopPlugin mockPlugin(YamlConfiguration cfg) {
         ShopPlugin plugin = mock(ShopPlugin.class);
         MessageManager messages = mock(MessageManager.class);
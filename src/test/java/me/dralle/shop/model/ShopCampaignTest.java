@@ -0,0 +1,42 @@
+package me.dralle.shop.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShopCampaignTest {
+
+    private static final long START = 1_777_629_600_000L;
+    private static final long END = 1_777_845_600_000L;
+
+    @Test
+    void windowIsInclusive() {
+        ShopCampaign campaign = campaign(START, END);
+
+        assertFalse(campaign.isActiveAt(START - 1));
+        assertTrue(campaign.isActiveAt(START));
+        assertTrue(campaign.isActiveAt(END), "End of the window is inclusive.");
+        assertFalse(campaign.isActiveAt(END + 1));
+
+        assertEquals(START, campaign.nextBoundaryAfter(START - 60_000L));
+        assertEquals(END + 1, campaign.nextBoundaryAfter(START));
+        assertEquals(Long.MAX_VALUE, campaign.nextBoundaryAfter(END + 1));
+    }
+
+    @Test
+    void openEndedAndUnboundedWindows() {
+        ShopCampaign openEnded = campaign(START, ShopCampaign.NO_END);
+        ShopCampaign unbounded = campaign(ShopCampaign.NO_START, ShopCampaign.NO_END);
+        long later = END * 2;
+
+        assertTrue(openEnded.isActiveAt(later), "A campaign without an end runs indefinitely once started.");
+        assertFalse(unbounded.isActiveAt(later), "Campaigns without any bound never run.");
+        assertEquals(Long.MAX_VALUE, unbounded.nextBoundaryAfter(later));
+    }
+
+    private static ShopCampaign campaign(long startMillis, long endMillis) {
+        return new ShopCampaign("weekend", "Weekend", "", "", "", 0.8D, 1.2D, startMillis, endMillis);
+    }
+}
@@ -0,0 +1,38 @@
+package me.dralle.shop.util;
+
+import me.dralle.shop.model.ShopCampaign;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CampaignUtilTest {
+
+    @Test
+    void parsesSupportedFormatsInTheGivenZone() {
+        Instant start = Instant.parse("2026-05-01T10:00:00Z");
+
+        assertEquals(start, CampaignUtil.parseInstant("2026-05-01 10:00", "UTC"));
+        assertEquals(start, CampaignUtil.parseInstant("2026-05-01T10:00:00", "UTC"));
+        assertEquals(start, CampaignUtil.parseInstant("2026-05-01T10:00:00Z", "Europe/Berlin"), "An explicit instant ignores the zone.");
+        assertEquals(start, CampaignUtil.parseInstant("2026-05-01 12:00:00", "Europe/Berlin"));
+    }
+
+    @Test
+    void blankOrUnparseableValuesAreNull() {
+        assertNull(CampaignUtil.parseInstant("", "UTC"));
+        assertNull(CampaignUtil.parseInstant(null, "UTC"));
+        assertNull(CampaignUtil.parseInstant("next friday", "Mars/Olympus"));
+    }
+
+    @Test
+    void createdCampaignsCarryTheResolvedWindow() {
+        ShopCampaign campaign = CampaignUtil.createCampaign("launch", "Launch", "2026-05-01 10:00", "soon", "UTC", 0.5D, 1.0D);
+
+        assertEquals(Instant.parse("2026-05-01T10:00:00Z").toEpochMilli(), campaign.getStartMillis());
+        assertEquals(ShopCampaign.NO_END, campaign.getEndMillis(), "An unparseable bound leaves the window open.");
+        assertEquals("soon", campaign.getEnd());
+    }
+}
@@ -0,0 +1,118 @@
+package me.dralle.shop.util;
+
+import me.dralle.shop.ShopPlugin;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ErrorFileLoggerTest {
+
+    @TempDir
+    Path dataFolder;
+
+    @Test
+    void writesBufferedRecordsOnStop() throws IOException {
+        ErrorFileLogger logger = new ErrorFileLogger(mockPlugin(config(5120L)));
+        logger.startOrReload();
+        logger.logError("TEST", "first failure", null);
+        logger.logError("TEST", "second failure", new IllegalStateException("boom"));
+        logger.stop();
+
+        String content = Files.readString(dataFolder.resolve("debug/error.log"));
+        assertTrue(content.contains("[TEST] first failure"));
+        assertTrue(content.contains("IllegalStateException: boom"), "Stack traces should be written.");
+        assertEquals(0L, logger.getDroppedCount());
+    }
+
+    @Test
+    void rotatesIntoGzippedArchivesAndKeepsTheNewest() throws IOException {
+        YamlConfiguration cfg = config(1L);
+        cfg.set("debug-error-log.max-archives", 2);
+        ErrorFileLogger logger = new ErrorFileLogger(mockPlugin(cfg));
+        String filler = "x".repeat(700);
+
+        // Each stop flushes, so every round pushes the file past 1 KB and rotates on the next write
+        for (int round = 0; round < 5; round++) {
+            logger.startOrReload();
+            logger.logError("TEST", "round " + round + " " + filler, null);
+            logger.stop();
+        }
+
+        int archives = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dataFolder.resolve("debug"), "error.log.*.gz")) {
+            for (Path ignored : stream) {
+                archives++;
+            }
+        }
+        assertEquals(2, archives, "Only max-archives rotated files should be kept.");
+        assertTrue(Files.size(dataFolder.resolve("debug/error.log")) <= 1024L + 1024L);
+    }
+
+    @Test
+    void dailyArchiveIsNamedAfterTheDayItCovers() throws IOException {
+        Path log = Files.createDirectories(dataFolder.resolve("debug")).resolve("error.log");
+        Files.writeString(log, "[old] yesterday's record" + System.lineSeparator());
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Files.setLastModifiedTime(log, FileTime.from(yesterday.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant()));
+
+        YamlConfiguration cfg = config(5120L);
+        cfg.set("debug-error-log.rotate-daily", true);
+        ErrorFileLogger logger = new ErrorFileLogger(mockPlugin(cfg));
+        logger.startOrReload();
+        logger.logError("TEST", "today's record", null);
+        logger.stop();
+
+        String stamp = yesterday.format(DateTimeFormatter.BASIC_ISO_DATE);
+        assertTrue(Files.exists(dataFolder.resolve("debug/error.log." + stamp + "-235959-999.gz")),
+                "The archive should carry the day of its records, not the rotation time.");
+        assertTrue(Files.readString(log).contains("today's record"));
+    }
+
+    @Test
+    void restartingGivesTheNewWriterItsOwnFile() throws IOException {
+        ErrorFileLogger logger = new ErrorFileLogger(mockPlugin(config(5120L)));
+        logger.startOrReload();
+        logger.logError("TEST", "first run", null);
+        logger.startOrReload();
+        logger.logError("TEST", "second run", null);
+        logger.stop();
+
+        String content = Files.readString(dataFolder.resolve("debug/error.log"));
+        assertTrue(content.contains("first run"));
+        assertTrue(content.contains("second run"));
+    }
+
+    private YamlConfiguration config(long maxFileSizeKb) {
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.set("debug", true);
+        cfg.set("debug-error-log.enabled", true);
+        cfg.set("debug-error-log.file", "debug/error.log");
+        cfg.set("debug-error-log.max-file-size-kb", maxFileSizeKb);
+        cfg.set("debug-error-log.rotate-daily", false);
+        cfg.set("debug-error-log.flush-interval-ms", 50L);
+        return cfg;
+    }
+
+    private ShopPlugin mockPlugin(YamlConfiguration cfg) {
+        ShopPlugin plugin = mock(ShopPlugin.class);
+        when(plugin.getConfig()).thenReturn(cfg);
+        when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("ErrorFileLoggerTest"));
+        return plugin;
+    }
+}
@@ -0,0 +1,56 @@
+package me.dralle.shop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelCompileTest {
+
+    @Test
+    void resultsFollowInputOrderRegardlessOfCompletionOrder() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add("shop_" + i);
+        }
+
+        Map<String, String> out = ParallelCompile.mapOrdered(keys, 4, key -> {
+            // Finish in a scrambled order
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(50_000L));
+            return key.toUpperCase();
+        });
+
+        assertEquals(keys, new ArrayList<>(out.keySet()));
+        for (String key : keys) {
+            assertEquals(key.toUpperCase(), out.get(key));
+        }
+    }
+
+    @Test
+    void failuresAreRethrownToTheCaller() {
+        List<Integer> keys = List.of(1, 2, 3, 4);
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> ParallelCompile.mapOrdered(keys, 2, key -> {
+                    if (key == 3) throw new IllegalStateException("broken shop");
+                    return key;
+                }));
+        assertTrue(String.valueOf(thrown.getMessage()).contains("broken shop")
+                || (thrown.getCause() != null && "broken shop".equals(thrown.getCause().getMessage())));
+    }
+
+    @Test
+    void singleThreadRunsOnTheCaller() {
+        Thread caller = Thread.currentThread();
+        Map<Integer, Thread> out = ParallelCompile.mapOrdered(List.of(1, 2, 3), 1, key -> Thread.currentThread());
+        for (Thread thread : out.values()) {
+            assertEquals(caller, thread);
+        }
+    }
+}
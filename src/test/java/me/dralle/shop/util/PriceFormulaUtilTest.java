@@ -0,0 +1,48 @@
+package me.dralle.shop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceFormulaUtilTest {
+
+    @Test
+    void namedVariablesAreBoundToSlotsCaseInsensitively() {
+        Double out = PriceFormulaUtil.evaluateFormula("max(Base * 2, dynamic) + pow(2, 3) / 4 - unknown", Map.of(
+                "base", 10D,
+                "dynamic", 25D
+        ));
+
+        assertEquals(27D, out, 1.0e-9);
+        assertEquals(3D, PriceFormulaUtil.evaluateFormula("-(1 + 2) * -1", null), 1.0e-9);
+    }
+
+    @Test
+    void divisionByZeroAndUnknownFunctionsStayLenient() {
+        assertEquals(0D, PriceFormulaUtil.evaluateFormula("base / 0", Map.of("base", 5D)), 1.0e-9);
+        assertEquals(0D, PriceFormulaUtil.evaluateFormula("5 / (count - count)", Map.of("count", 3D)), 1.0e-9);
+        assertEquals(1D, PriceFormulaUtil.evaluateFormula("sqrt(4) + 1", Map.of()), 1.0e-9);
+        assertNull(PriceFormulaUtil.evaluateFormula("base * (2", Map.of("base", 5D)));
+    }
+
+    @Test
+    void bytecodeModeMatchesInterpreter() {
+        String formula = "round(pow(base, 1.05) * 100) / 100 + max(count / 0, min(-dynamic, 3)) - abs(base - 2 * count)";
+        Map<String, Double> vars = Map.of("base", 12.5D, "count", 4D, "dynamic", 7D);
+        Double interpreted = PriceFormulaUtil.evaluateFormula(formula, vars);
+        try {
+            PriceFormulaUtil.setCompileMode("bytecode");
+            // Guard against a silent fallback to the interpreter, which would make the comparison vacuous
+            Class<?> rootClass = PriceFormulaUtil.compileFormula(formula).root().getClass();
+            assertTrue(rootClass.isHidden(), "Expected a generated class, got " + rootClass.getName());
+            assertEquals(interpreted, PriceFormulaUtil.evaluateFormula(formula, vars));
+            assertNull(PriceFormulaUtil.evaluateFormula("base * (2", vars));
+        } finally {
+            PriceFormulaUtil.setCompileMode("interpreter");
+        }
+    }
+}
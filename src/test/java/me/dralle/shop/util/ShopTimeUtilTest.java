@@ -0,0 +1,44 @@
+package me.dralle.shop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShopTimeUtilTest {
+
+    @Test
+    void compiledRulesFollowExistingRestrictionSyntax() {
+        TimeRestriction restriction = ShopTimeUtil.compile(List.of(
+                "10:00PM-2:00AM",
+                "fri-sun",
+                "Nov-Feb",
+                "2025-2027",
+                "1-7, 20"
+        ));
+
+        // Saturday 2026-01-03, inside the midnight-wrapping window
+        assertTrue(restriction.isOpen(LocalDateTime.of(2026, 1, 3, 23, 30)));
+        assertTrue(restriction.isOpen(LocalDateTime.of(2026, 1, 3, 2, 0)));
+        assertFalse(restriction.isOpen(LocalDateTime.of(2026, 1, 3, 2, 0, 1)), "End of time range is inclusive to the minute.");
+        // Wednesday 2026-01-07
+        assertFalse(restriction.isOpen(LocalDateTime.of(2026, 1, 7, 23, 0)), "Weekday outside fri-sun must be closed.");
+        // Friday 2026-03-06, month outside the wrapping Nov-Feb range
+        assertFalse(restriction.isOpen(LocalDateTime.of(2026, 3, 6, 23, 0)));
+        // Sunday 2028-01-02, year outside range
+        assertFalse(restriction.isOpen(LocalDateTime.of(2028, 1, 2, 23, 0)));
+    }
+
+    @Test
+    void invalidOrUnknownRestrictionsNeverBlock() {
+        TimeRestriction restriction = ShopTimeUtil.compile(List.of("25:00-26:00", "funday", "2024-13-01 to 2024-14-01", "???"));
+
+        assertSame(TimeRestriction.ALWAYS, restriction);
+        assertTrue(ShopTimeUtil.compile(List.of("2024-10-01 to 2024-10-31"))
+                .isOpen(LocalDateTime.of(2024, 10, 31, 23, 59)));
+    }
+}